@@ -0,0 +1,95 @@
+package com.uipg9.ascendancy;
+
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Server settings, read from config/ascendancy.properties.
+ *
+ * Missing keys fall back to their defaults, and the file is rewritten with every key
+ * so new settings show up for admins after an update.
+ */
+public class AscendancyConfig {
+
+    private static final String FILE_NAME = "ascendancy.properties";
+
+    // Echo sites older than this many real days are dropped (0 = never)
+    public static int echoSiteTtlDays = 30;
+
+    // Echo sites this many ascensions behind their owner's newest site are dropped (0 = never)
+    public static int echoSiteTtlAscensions = 5;
+
+    // Chronicle lives kept in full; older lives are rolled up into digests (0 = keep every life in full)
+    public static int chronicleDetailedLives = 10;
+
+    // Keep achievement, craving and progression records in a memory-mapped file instead of NBT
+    public static boolean mappedStore = false;
+
+    // Players the mapped store is sized for; the file is rebuilt larger on startup when exceeded
+    public static int mappedStoreCapacity = 131072;
+
+    // Directory shared by every server process on this host that should share prestige,
+    // upgrades and ascension count (empty = off)
+    public static String sharedStoreDir = "";
+
+    public static void load() {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+        Properties properties = new Properties();
+
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                AscendancyMod.LOGGER.error("Failed to read {}, using defaults", FILE_NAME, e);
+            }
+        }
+
+        echoSiteTtlDays = getInt(properties, "echo.site_ttl_days", echoSiteTtlDays);
+        echoSiteTtlAscensions = getInt(properties, "echo.site_ttl_ascensions", echoSiteTtlAscensions);
+        chronicleDetailedLives = getInt(properties, "chronicle.detailed_lives", chronicleDetailedLives);
+        mappedStore = getBoolean(properties, "storage.mapped_store", mappedStore);
+        mappedStoreCapacity = getInt(properties, "storage.mapped_store_capacity", mappedStoreCapacity);
+        sharedStoreDir = properties.getProperty("storage.shared_store_dir", sharedStoreDir).trim();
+        properties.setProperty("storage.shared_store_dir", sharedStoreDir);
+
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "Ascendancy server settings");
+        } catch (IOException e) {
+            AscendancyMod.LOGGER.error("Failed to write {}", FILE_NAME, e);
+        }
+    }
+
+    private static int getInt(Properties properties, String key, int fallback) {
+        int value = fallback;
+        String raw = properties.getProperty(key);
+        if (raw != null) {
+            try {
+                value = Math.max(0, Integer.parseInt(raw.trim()));
+            } catch (NumberFormatException e) {
+                AscendancyMod.LOGGER.warn("Invalid value '{}' for {} in {}, using {}", raw, key, FILE_NAME, fallback);
+            }
+        }
+        properties.setProperty(key, Integer.toString(value));
+        return value;
+    }
+
+    private static boolean getBoolean(Properties properties, String key, boolean fallback) {
+        boolean value = fallback;
+        String raw = properties.getProperty(key);
+        if (raw != null) {
+            if (raw.trim().equalsIgnoreCase("true") || raw.trim().equalsIgnoreCase("false")) {
+                value = Boolean.parseBoolean(raw.trim());
+            } else {
+                AscendancyMod.LOGGER.warn("Invalid value '{}' for {} in {}, using {}", raw, key, FILE_NAME, fallback);
+            }
+        }
+        properties.setProperty(key, Boolean.toString(value));
+        return value;
+    }
+}
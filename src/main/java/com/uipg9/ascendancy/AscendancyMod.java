@@ -1,8 +1,16 @@
 package com.uipg9.ascendancy;
 
+import com.uipg9.ascendancy.command.AscendancyCommands;
 import com.uipg9.ascendancy.data.AscendancyAttachments;
+import com.uipg9.ascendancy.data.MappedProgressStore;
+import com.uipg9.ascendancy.data.PlacedBlockMask;
 import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.data.SharedProgressStore;
+import com.uipg9.ascendancy.data.UpgradeRegistry;
+import com.uipg9.ascendancy.logic.AscensionPipeline;
 import com.uipg9.ascendancy.logic.AttributeHandler;
+import com.uipg9.ascendancy.logic.SmeltingRewards;
+import com.uipg9.ascendancy.logic.SoulXPAwards;
 import com.uipg9.ascendancy.network.AscendancyNetworking;
 import com.uipg9.ascendancy.systems.*;
 import net.fabricmc.api.ModInitializer;
@@ -20,11 +28,10 @@ import net.minecraft.world.entity.animal.Animal;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.CropBlock;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -46,7 +53,8 @@ import java.util.UUID;
  * - Walking/exploring
  * 
  * INFINITE PROGRESSION:
- * - No max upgrade level - just increasing costs
+ * - Built-in upgrades have no max level - just increasing costs
+ *   (datapack upgrades may set an optional max_level; 0 = uncapped)
  * - Prestige rewards scale with ascension count
  * - Soul XP requirements scale with ascension count
  */
@@ -63,6 +71,7 @@ public class AscendancyMod implements ModInitializer {
     public static final int BASE_PRESTIGE_REWARD = 5;
     public static final int PRESTIGE_BONUS_PER_TIER = 1;
     public static final int BASE_UPGRADE_COST = 1;
+    public static final double UPGRADE_COST_GROWTH = 1.3;
     
     // Soul XP from kills
     public static final int SOUL_XP_PER_MONSTER = 5;
@@ -93,10 +102,6 @@ public class AscendancyMod implements ModInitializer {
     public static final double WALK_DISTANCE_PER_XP = 100.0; // 100 blocks = 1 Soul XP
     public static final int SOUL_XP_WALK = 1;
     
-    // Track player walking distance
-    private static final Map<UUID, Double> playerWalkDistance = new HashMap<>();
-    private static final Map<UUID, BlockPos> playerLastPos = new HashMap<>();
-    
     // ==================== HELPER METHODS ====================
     
     public static int getMaxSoulXP(int ascensionCount) {
@@ -108,92 +113,130 @@ public class AscendancyMod implements ModInitializer {
         return BASE_PRESTIGE_REWARD + (ascensionCount * PRESTIGE_BONUS_PER_TIER);
     }
     
-    public static int getUpgradeCost(int currentLevel) {
-        if (currentLevel == 0) return 1;
-        return (int) Math.ceil(BASE_UPGRADE_COST * Math.pow(1.3, currentLevel));
-    }
-    
     public static float getXPMultiplier(int ascensionCount) {
         if (ascensionCount == 0) return TUTORIAL_XP_MULTIPLIER;
         return 1.0f;
     }
     
+    /**
+     * Per-player state, in lifecycle order. On leave, anything that still changes
+     * player data (ascension, zone time, queued Soul XP) runs before the saves.
+     * Byte figures are rough per-player estimates for SessionManager.metrics() (/ascendancy sessions).
+     */
+    private static void registerSessions() {
+        // Finish any in-flight ascension before the player is saved
+        SessionManager.participant("ascension", null, AscensionPipeline::drain, AscensionPipeline::trackedPlayers, 256);
+        // Close open zones so time spent (e.g. in the depths) is credited
+        SessionManager.participant("zones", null, player -> ZoneTracker.onDisconnect(player, player.level().getServer()),
+            ZoneTracker::trackedPlayers, 96);
+        SessionManager.participant("soul_xp", null, SoulXPAwards::flush, SoulXPAwards::trackedPlayers, 160);
+        SessionManager.participant("movement", null, MovementTracker::forget, MovementTracker::trackedPlayers, 96);
+        SessionManager.participant("attributes", null, AttributeHandler::forget, AttributeHandler::trackedPlayers, 160);
+        SessionManager.participant("network", null, AscendancyNetworking::forget, AscendancyNetworking::trackedPlayers, 64);
+        // Progression snapshot for offline lookups (no-op unless the mapped store is enabled)
+        SessionManager.participant("progress_store", null, MappedProgressStore::snapshot, () -> 0, 0);
+        // Prestige, upgrades and ascension count shared with other local servers (no-op unless configured)
+        SessionManager.participant("shared_progress", SharedProgressStore::read, SharedProgressStore::write,
+            SharedProgressStore::trackedPlayers, 320);
+        
+        // v2.5 - Persistent systems: load on join, save and evict on leave
+        SessionManager.participant("achievements", AchievementManager::readAchievements, AchievementManager::unload,
+            AchievementManager::discard, AchievementManager::trackedPlayers, 1200);
+        SessionManager.participant("bonds", AncestralBondManager::readData, AncestralBondManager::unload,
+            AncestralBondManager::discard, AncestralBondManager::trackedPlayers, 256);
+        SessionManager.participant("chronicle", ChronicleManager::readCurrentLife, ChronicleManager::unload,
+            ChronicleManager::discard, ChronicleManager::trackedPlayers, 2048);
+        SessionManager.participant("cravings", SoulCravingManager::readData, SoulCravingManager::unload,
+            SoulCravingManager::discard, SoulCravingManager::trackedPlayers, 256);
+        // Stored on the player itself, nothing to read ahead
+        SessionManager.participant("constellations", (server, playerId) -> ConstellationManager::load,
+            ConstellationManager::unload, ConstellationManager::trackedPlayers, 96);
+    }
+    
     /**
      * Reset walking distance for a player (called on ascension)
      */
     public static void resetWalkingDistance(UUID playerId) {
-        playerWalkDistance.remove(playerId);
-        playerLastPos.remove(playerId);
+        MovementTracker.reset(playerId);
     }
     
     @Override
     public void onInitialize() {
         LOGGER.info("§6✦ Ascendancy v2.5.1 initializing... Your soul awaits. ✦");
         
+        AscendancyConfig.load();
         AscendancyAttachments.register();
+        MappedProgressStore.register();
+        SharedProgressStore.register();
+        UpgradeRegistry.register();
+        LegacyVaultManager.register();
+        EchoManager.register();
+        AscensionPipeline.register();
+        SoulXPAwards.register();
+        SmeltingRewards.register();
+        ZoneTracker.register();
+        MovementTracker.register();
+        ConstellationManager.register();
+        SoulCravingManager.register();
+        ChronicleManager.register();
+        SessionManager.register();
+        AscendancyCommands.register();
+        registerSessions();
         AscendancyNetworking.registerServerPackets();
         
-        // Player join - welcome and sync
+        // Connection set up - start loading persistent systems data off the server thread
+        ServerPlayConnectionEvents.INIT.register((handler, server) -> {
+            SessionManager.begin(handler.getPlayer(), server);
+        });
+        
+        // Player join - welcome and sync, once everything is loaded
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
             ServerPlayer player = handler.getPlayer();
-            AttributeHandler.applyUpgrades(player);
-            
-            // Initialize walking tracking
-            playerLastPos.put(player.getUUID(), player.blockPosition());
-            playerWalkDistance.put(player.getUUID(), 0.0);
-            
-            // v2.5 - Load persistent systems data
-            AchievementManager.loadAchievements(player);
-            AncestralBondManager.loadData(player);
-            ChronicleManager.loadCurrentLife(player);
-            SoulCravingManager.loadData(player);
-            
-            if (PlayerDataManager.getAscensionCount(player) == 0 && 
-                PlayerDataManager.getSoulXP(player) == 0) {
-                player.sendSystemMessage(Component.literal("§6§l✦ Welcome to Ascendancy! ✦"));
-                player.sendSystemMessage(Component.literal("§7Your soul is untethered. §eGather Soul Energy§7 through:"));
-                player.sendSystemMessage(Component.literal("§7  • §cSlaying monsters §7and creatures"));
-                player.sendSystemMessage(Component.literal("§7  • §bMining precious ores"));
-                player.sendSystemMessage(Component.literal("§7  • §6Smelting materials"));
-                player.sendSystemMessage(Component.literal("§7  • §aHarvesting crops"));
-                player.sendSystemMessage(Component.literal("§7  • §dJust walking around!"));
-                player.sendSystemMessage(Component.literal("§e→ Press §6[P]§e to open the Ascension menu!"));
-            }
-            
-            AscendancyNetworking.syncToClient(player);
+            SessionManager.whenReady(player).thenRun(() -> {
+                // After achievements so their attribute rewards are included
+                AttributeHandler.applyUpgrades(player);
+                
+                if (PlayerDataManager.getAscensionCount(player) == 0 && 
+                    PlayerDataManager.getSoulXP(player) == 0) {
+                    player.sendSystemMessage(Component.literal("§6§l✦ Welcome to Ascendancy! ✦"));
+                    player.sendSystemMessage(Component.literal("§7Your soul is untethered. §eGather Soul Energy§7 through:"));
+                    player.sendSystemMessage(Component.literal("§7  • §cSlaying monsters §7and creatures"));
+                    player.sendSystemMessage(Component.literal("§7  • §bMining precious ores"));
+                    player.sendSystemMessage(Component.literal("§7  • §6Smelting materials"));
+                    player.sendSystemMessage(Component.literal("§7  • §aHarvesting crops"));
+                    player.sendSystemMessage(Component.literal("§7  • §dJust walking around!"));
+                    player.sendSystemMessage(Component.literal("§e→ Press §6[P]§e to open the Ascension menu!"));
+                }
+                
+                AscendancyNetworking.syncRegistryToClient(player);
+                AscendancyNetworking.syncToClient(player);
+            });
         });
         
-        // Player disconnect - cleanup and save
+        // Player disconnect - flush, save and evict everything held for the player
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
-            ServerPlayer player = handler.getPlayer();
-            UUID playerId = player.getUUID();
-            playerLastPos.remove(playerId);
-            playerWalkDistance.remove(playerId);
-            
-            // v2.5 - Save persistent systems data
-            AchievementManager.saveAchievements(player);
-            AncestralBondManager.saveData(player);
-            ChronicleManager.saveCurrentLife(player);
-            SoulCravingManager.saveData(player);
+            SessionManager.leave(handler.getPlayer());
         });
         
-        // Respawn - reapply upgrades
+        // Respawn - reapply upgrades and zone effects
         ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> {
-            AttributeHandler.applyUpgrades(newPlayer);
+            AttributeHandler.onRespawn(newPlayer, alive);
+            ConstellationManager.onRespawn(newPlayer);
             AscendancyNetworking.syncToClient(newPlayer);
         });
         
         // MOB KILLS - Soul XP from combat
         ServerLivingEntityEvents.AFTER_DEATH.register((entity, damageSource) -> {
             Entity attacker = damageSource.getEntity();
-            if (attacker instanceof ServerPlayer player) {
+            if (attacker instanceof ServerPlayer player && SessionManager.isReady(player)) {
                 onMobKill(player, entity);
             }
         });
         
         // ORE MINING & CROP HARVESTING - Soul XP from blocks
         PlayerBlockBreakEvents.AFTER.register((world, player, pos, state, blockEntity) -> {
-            if (player instanceof ServerPlayer serverPlayer && !world.isClientSide()) {
+            if (player instanceof ServerPlayer serverPlayer && !world.isClientSide()
+                    && SessionManager.isReady(serverPlayer)) {
                 onBlockMined(serverPlayer, state, pos);
             }
         });
@@ -201,47 +244,6 @@ public class AscendancyMod implements ModInitializer {
         LOGGER.info("§a✦ Ascendancy initialized successfully! ✦");
     }
     
-    /**
-     * Call this every server tick from a mixin or event to track walking
-     * v2.5 - Also tracks exploration achievements and cravings
-     */
-    public static void tickPlayerMovement(ServerPlayer player) {
-        UUID playerId = player.getUUID();
-        BlockPos currentPos = player.blockPosition();
-        BlockPos lastPos = playerLastPos.get(playerId);
-        
-        if (lastPos == null) {
-            playerLastPos.put(playerId, currentPos);
-            playerWalkDistance.put(playerId, 0.0);
-            return;
-        }
-        
-        // Calculate horizontal distance (ignore Y to not reward jumping/falling)
-        double dx = currentPos.getX() - lastPos.getX();
-        double dz = currentPos.getZ() - lastPos.getZ();
-        double distance = Math.sqrt(dx * dx + dz * dz);
-        
-        // Only count if actually moving and on ground
-        if (distance > 0.1 && distance < 10 && player.onGround()) {
-            double totalDistance = playerWalkDistance.getOrDefault(playerId, 0.0) + distance;
-            
-            // Award XP for every 100 blocks walked
-            while (totalDistance >= WALK_DISTANCE_PER_XP) {
-                awardSoulXPStatic(player, SOUL_XP_WALK, "§d👟");
-                totalDistance -= WALK_DISTANCE_PER_XP;
-                
-                // v2.5 - Track for achievements and cravings
-                AchievementManager.addProgress(player, AchievementManager.Achievement.EXPLORER_I, 100);
-                AchievementManager.addProgress(player, AchievementManager.Achievement.EXPLORER_II, 100);
-                SoulCravingManager.addProgress(player, SoulCravingManager.CravingType.TRAVEL_DISTANCE, 100);
-            }
-            
-            playerWalkDistance.put(playerId, totalDistance);
-        }
-        
-        playerLastPos.put(playerId, currentPos);
-    }
-    
     /**
      * Handle mob kills - Award Soul XP for combat
      * v2.5 - Echo kill check for bonus Soul XP + Achievement/Craving tracking
@@ -304,38 +306,26 @@ public class AscendancyMod implements ModInitializer {
      * v2.5 - Track achievements and cravings
      */
     private void onBlockMined(ServerPlayer player, BlockState state, BlockPos pos) {
+        // Blocks a player placed pay nothing (stops place-and-break farming with Silk Touch)
+        if (PlacedBlockMask.consumePlaced(player.level(), pos)) return;
+        
         Block block = state.getBlock();
         String path = BuiltInRegistries.BLOCK.getKey(block).getPath();
         
-        int baseSoulXP = 0;
+        int baseSoulXP = getOreSoulXP(path);
         String icon = "§b⛏";
-        boolean isOre = false;
-        boolean isDiamond = false;
+        boolean isOre = baseSoulXP > 0;
         
-        // Check for ores
-        if (path.contains("coal_ore")) { baseSoulXP = SOUL_XP_COAL; isOre = true; }
-        else if (path.contains("iron_ore") || path.contains("deepslate_iron")) { baseSoulXP = SOUL_XP_IRON; isOre = true; }
-        else if (path.contains("copper_ore")) { baseSoulXP = SOUL_XP_COPPER; isOre = true; }
-        else if (path.contains("gold_ore") || path.contains("nether_gold")) { baseSoulXP = SOUL_XP_GOLD; isOre = true; }
-        else if (path.contains("redstone_ore")) { baseSoulXP = SOUL_XP_REDSTONE; isOre = true; }
-        else if (path.contains("lapis_ore")) { baseSoulXP = SOUL_XP_LAPIS; isOre = true; }
-        else if (path.contains("diamond_ore")) { 
-            baseSoulXP = SOUL_XP_DIAMOND; 
-            isOre = true; 
-            isDiamond = true;
-            
-            // Track for achievements and chronicle
-            AchievementManager.addProgress(player, AchievementManager.Achievement.DIAMOND_COLLECTOR, 1);
-            ChronicleManager.recordMilestone(player, "first_diamond", "Found their first diamond!");
-            SoulCravingManager.addProgress(player, SoulCravingManager.CravingType.MINE_DIAMONDS, 1);
-        }
-        else if (path.contains("emerald_ore")) { baseSoulXP = SOUL_XP_EMERALD; isOre = true; }
-        else if (path.contains("ancient_debris")) { 
-            baseSoulXP = SOUL_XP_ANCIENT_DEBRIS; 
-            isOre = true; 
-            ChronicleManager.recordMilestone(player, "ancient_debris", "Discovered ancient debris!");
+        if (isOre) {
+            if (path.contains("diamond_ore")) {
+                // Track for achievements and chronicle
+                AchievementManager.addProgress(player, AchievementManager.Achievement.DIAMOND_COLLECTOR, 1);
+                ChronicleManager.recordMilestone(player, "first_diamond", "Found their first diamond!");
+                SoulCravingManager.addProgress(player, SoulCravingManager.CravingType.MINE_DIAMONDS, 1);
+            } else if (path.contains("ancient_debris")) {
+                ChronicleManager.recordMilestone(player, "ancient_debris", "Discovered ancient debris!");
+            }
         }
-        else if (path.contains("nether_quartz_ore") || path.contains("quartz_ore")) { baseSoulXP = SOUL_XP_QUARTZ; isOre = true; }
         // Check for mature crops
         else if (block instanceof CropBlock cropBlock) {
             if (cropBlock.isMaxAge(state)) {
@@ -345,9 +335,7 @@ public class AscendancyMod implements ModInitializer {
             }
         }
         // Check for other harvestable crops by name
-        else if (path.equals("wheat") || path.equals("carrots") || path.equals("potatoes") ||
-                 path.equals("beetroots") || path.equals("melon") || path.equals("pumpkin") ||
-                 path.equals("cocoa") || path.equals("sweet_berry_bush") || path.equals("nether_wart")) {
+        else if (isHarvestableByName(path)) {
             baseSoulXP = SOUL_XP_CROP;
             icon = "§a🌾";
             SoulCravingManager.addProgress(player, SoulCravingManager.CravingType.HARVEST_CROPS, 1);
@@ -366,25 +354,42 @@ public class AscendancyMod implements ModInitializer {
     }
     
     /**
-     * Award Soul XP from smelting (called from networking)
+     * Whether a freshly placed block would pay Soul XP if broken straight away.
+     * Plants that grow (they have an age) are left alone so player farms still pay at harvest.
      */
-    public static void onItemSmelted(ServerPlayer player, String itemId) {
-        int baseSoulXP;
-        
-        // Determine XP based on what was smelted
-        if (itemId.contains("_ore") || itemId.contains("raw_")) {
-            baseSoulXP = SOUL_XP_SMELT_ORE;
-        } else if (itemId.contains("_beef") || itemId.contains("_pork") || 
-                   itemId.contains("_chicken") || itemId.contains("_mutton") ||
-                   itemId.contains("_rabbit") || itemId.contains("_cod") ||
-                   itemId.contains("_salmon") || itemId.contains("potato") ||
-                   itemId.contains("kelp")) {
-            baseSoulXP = SOUL_XP_SMELT_FOOD;
-        } else {
-            baseSoulXP = SOUL_XP_SMELT_OTHER;
+    public static boolean isPlacementFarmable(BlockState state) {
+        Block block = state.getBlock();
+        String path = BuiltInRegistries.BLOCK.getKey(block).getPath();
+        if (getOreSoulXP(path) > 0) return true;
+        if (block instanceof CropBlock) return false;
+        if (!isHarvestableByName(path)) return false;
+        for (Property<?> property : state.getProperties()) {
+            if (property.getName().equals("age")) return false;
         }
-        
-        awardSoulXPStatic(player, baseSoulXP, "§6🔥");
+        return true;
+    }
+    
+    /**
+     * Base Soul XP for an ore block path, or 0 if it isn't an ore
+     */
+    private static int getOreSoulXP(String path) {
+        if (path.contains("coal_ore")) return SOUL_XP_COAL;
+        if (path.contains("iron_ore") || path.contains("deepslate_iron")) return SOUL_XP_IRON;
+        if (path.contains("copper_ore")) return SOUL_XP_COPPER;
+        if (path.contains("gold_ore") || path.contains("nether_gold")) return SOUL_XP_GOLD;
+        if (path.contains("redstone_ore")) return SOUL_XP_REDSTONE;
+        if (path.contains("lapis_ore")) return SOUL_XP_LAPIS;
+        if (path.contains("diamond_ore")) return SOUL_XP_DIAMOND;
+        if (path.contains("emerald_ore")) return SOUL_XP_EMERALD;
+        if (path.contains("ancient_debris")) return SOUL_XP_ANCIENT_DEBRIS;
+        if (path.contains("nether_quartz_ore") || path.contains("quartz_ore")) return SOUL_XP_QUARTZ;
+        return 0;
+    }
+    
+    private static boolean isHarvestableByName(String path) {
+        return path.equals("wheat") || path.equals("carrots") || path.equals("potatoes") ||
+               path.equals("beetroots") || path.equals("melon") || path.equals("pumpkin") ||
+               path.equals("cocoa") || path.equals("sweet_berry_bush") || path.equals("nether_wart");
     }
     
     /**
@@ -395,30 +400,9 @@ public class AscendancyMod implements ModInitializer {
     }
     
     /**
-     * Static version for external callers
+     * Static version for external callers. Awards are batched and applied at the end of the tick.
      */
     public static void awardSoulXPStatic(ServerPlayer player, int baseSoulXP, String icon) {
-        int ascensionCount = PlayerDataManager.getAscensionCount(player);
-        int maxSoulXP = getMaxSoulXP(ascensionCount);
-        int currentSoulXP = PlayerDataManager.getSoulXP(player);
-        
-        if (currentSoulXP >= maxSoulXP) return;
-        
-        // Apply multipliers
-        float multiplier = getXPMultiplier(ascensionCount);
-        int wisdomLevel = PlayerDataManager.getWisdomLevel(player);
-        float wisdomBonus = 1.0f + (wisdomLevel * 0.10f);
-        
-        int soulXPGain = (int)(baseSoulXP * multiplier * wisdomBonus);
-        int newSoulXP = Math.min(currentSoulXP + soulXPGain, maxSoulXP);
-        
-        PlayerDataManager.setSoulXP(player, newSoulXP);
-        AscendancyNetworking.syncToClient(player);
-        
-        // Notify when ready
-        if (newSoulXP >= maxSoulXP && !PlayerDataManager.hasBeenNotified(player)) {
-            player.displayClientMessage(Component.literal("§6§l✦ Your soul is ready! Press [P] to Ascend! ✦"), true);
-            PlayerDataManager.setNotified(player, true);
-        }
+        SoulXPAwards.add(player, baseSoulXP, icon);
     }
 }
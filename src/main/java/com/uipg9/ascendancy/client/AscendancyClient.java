@@ -1,7 +1,9 @@
 package com.uipg9.ascendancy.client;
 
 import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.client.gui.AscensionLoadingScreen;
 import com.uipg9.ascendancy.client.gui.AscensionScreen;
+import com.uipg9.ascendancy.data.UpgradeDefinition;
 import com.uipg9.ascendancy.network.AscendancyNetworking;
 import com.mojang.blaze3d.platform.InputConstants;
 import net.fabricmc.api.ClientModInitializer;
@@ -9,12 +11,19 @@ import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.minecraft.client.KeyMapping;
 import net.minecraft.client.Minecraft;
 import net.minecraft.resources.Identifier;
 import org.lwjgl.glfw.GLFW;
 
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
 /**
  * Client-side initialization for Ascendancy.
  * Uses Mojang Official Mappings for 1.21.11
@@ -22,38 +31,21 @@ import org.lwjgl.glfw.GLFW;
 @Environment(EnvType.CLIENT)
 public class AscendancyClient implements ClientModInitializer {
     
-    // Client-side data cache (synced from server)
-    public static int soulXP = 0;
-    public static int maxSoulXP = AscendancyMod.BASE_SOUL_XP;
-    public static int prestigePoints = 0;
-    public static int ascensionCount = 0;
-    public static int totalPrestigeEarned = 0;
+    // Everything synced from the server, replaced whole on each update.
+    // snapshot = confirmed + purchases the server hasn't acknowledged yet
+    private static volatile ClientSnapshot snapshot = ClientSnapshot.EMPTY;
+    private static ClientSnapshot confirmed = ClientSnapshot.EMPTY;
+    private static final ArrayDeque<PendingPurchase> pendingPurchases = new ArrayDeque<>();
+    private static int purchaseSequence = 0;
+    private static final List<Consumer<ClientSnapshot>> listeners = new CopyOnWriteArrayList<>();
     
     // XP Popup tracking
-    private static int lastSoulXP = 0;
     public static int xpGainedPopup = 0;
     public static long popupStartTime = 0;
     public static final long POPUP_DURATION = 2000; // 2 seconds in ms
     
-    // Original upgrades
-    public static int healthLevel = 0;
-    public static int speedLevel = 0;
-    public static int reachLevel = 0;
-    public static int miningLevel = 0;
-    
-    // New upgrade categories
-    public static int luckLevel = 0;
-    public static int damageLevel = 0;
-    public static int defenseLevel = 0;
-    public static int experienceLevel = 0;
-    
-    // v2.1 upgrades
-    public static int keeperLevel = 0;
-    public static int wisdomLevel = 0;
-    
     // v2.2 - Loading screen state
     public static boolean ascensionLoadingComplete = false;
-    public static boolean ascensionInProgress = false;
     
     // Keybinding for ascension menu
     private static KeyMapping ascendKey;
@@ -80,6 +72,7 @@ public class AscendancyClient implements ClientModInitializer {
         
         // Register networking (client receivers)
         AscendancyNetworking.registerClientPackets();
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(AscendancyClient::reset));
         
         // Handle keybinding
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
@@ -93,17 +86,42 @@ public class AscendancyClient implements ClientModInitializer {
         AscendancyMod.LOGGER.info("Ascendancy client initialized!");
     }
     
+    // ==================== STATE STORE ====================
+    
+    /**
+     * Current snapshot of synced data
+     */
+    public static ClientSnapshot snapshot() {
+        return snapshot;
+    }
+    
     /**
-     * Update client-side data from server sync (15 fields for v2.1)
+     * Listen for snapshot changes (called on the client thread).
+     * @return Runs to unsubscribe
+     */
+    public static Runnable subscribe(Consumer<ClientSnapshot> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+    
+    private static void publish(ClientSnapshot next) {
+        next = next.withVersion(snapshot.version() + 1);
+        snapshot = next;
+        for (Consumer<ClientSnapshot> listener : listeners) {
+            listener.accept(next);
+        }
+    }
+    
+    /**
+     * Update client-side data from server sync
      */
     public static void updateData(int soulXP, int maxSoulXP, int prestigePoints, int ascensionCount,
-                                   int totalPrestigeEarned, int healthLevel, int speedLevel, 
-                                   int reachLevel, int miningLevel, int luckLevel,
-                                   int damageLevel, int defenseLevel, int experienceLevel,
-                                   int keeperLevel, int wisdomLevel) {
+                                   int totalPrestigeEarned, int[] upgradeLevels, int purchaseAck) {
+        ClientSnapshot current = confirmed;
+        
         // Track XP gains for popup
-        int xpGained = soulXP - AscendancyClient.soulXP;
-        if (xpGained > 0 && AscendancyClient.soulXP > 0) {
+        int xpGained = soulXP - current.soulXP();
+        if (xpGained > 0 && current.soulXP() > 0) {
             // Add to current popup or start new one
             if (System.currentTimeMillis() - popupStartTime < POPUP_DURATION) {
                 xpGainedPopup += xpGained; // Accumulate
@@ -113,49 +131,88 @@ public class AscendancyClient implements ClientModInitializer {
             }
         }
         
-        AscendancyClient.soulXP = soulXP;
-        AscendancyClient.maxSoulXP = maxSoulXP;
-        AscendancyClient.prestigePoints = prestigePoints;
-        AscendancyClient.ascensionCount = ascensionCount;
-        AscendancyClient.totalPrestigeEarned = totalPrestigeEarned;
-        AscendancyClient.healthLevel = healthLevel;
-        AscendancyClient.speedLevel = speedLevel;
-        AscendancyClient.reachLevel = reachLevel;
-        AscendancyClient.miningLevel = miningLevel;
-        AscendancyClient.luckLevel = luckLevel;
-        AscendancyClient.damageLevel = damageLevel;
-        AscendancyClient.defenseLevel = defenseLevel;
-        AscendancyClient.experienceLevel = experienceLevel;
-        AscendancyClient.keeperLevel = keeperLevel;
-        AscendancyClient.wisdomLevel = wisdomLevel;
+        confirmed = current.withData(soulXP, maxSoulXP, prestigePoints, ascensionCount, totalPrestigeEarned, upgradeLevels);
+        
+        // Acknowledged purchases are now part of the confirmed data
+        while (!pendingPurchases.isEmpty() && pendingPurchases.peekFirst().sequence() <= purchaseAck) {
+            pendingPurchases.pollFirst();
+        }
+        publish(predict());
+    }
+    
+    // ==================== PURCHASE PREDICTION ====================
+    
+    private record PendingPurchase(int sequence, int ordinal) {}
+    
+    /**
+     * Buy an upgrade: show the result immediately and send the request.
+     * @return false if the predicted state can't afford it (nothing is sent)
+     */
+    public static boolean purchaseUpgrade(UpgradeDefinition upgrade) {
+        ClientSnapshot predicted = snapshot.withPurchase(upgrade.ordinal());
+        if (predicted == null) return false;
+        
+        int sequence = ++purchaseSequence;
+        pendingPurchases.addLast(new PendingPurchase(sequence, upgrade.ordinal()));
+        publish(predicted);
+        AscendancyNetworking.sendPurchaseRequest(upgrade.ordinal(), sequence);
+        return true;
     }
     
     /**
-     * Get the current soul progress as a float 0-1
+     * Replay unacknowledged purchases on top of the confirmed data.
+     * One that no longer fits the budget is dropped - the server will reject it too.
      */
-    public static float getSoulProgress() {
-        if (maxSoulXP <= 0) return 0f;
-        return (float) soulXP / maxSoulXP;
+    private static ClientSnapshot predict() {
+        ClientSnapshot predicted = confirmed;
+        Iterator<PendingPurchase> it = pendingPurchases.iterator();
+        while (it.hasNext()) {
+            ClientSnapshot next = predicted.withPurchase(it.next().ordinal());
+            if (next == null) {
+                it.remove();
+            } else {
+                predicted = next;
+            }
+        }
+        return predicted;
     }
     
     /**
-     * Check if the player is ready to ascend
+     * Forget the previous server's data (disconnect)
      */
-    public static boolean canAscend() {
-        return soulXP >= maxSoulXP && maxSoulXP > 0;
+    private static void reset() {
+        confirmed = ClientSnapshot.EMPTY;
+        pendingPurchases.clear();
+        publish(ClientSnapshot.EMPTY);
     }
     
     /**
-     * Get the cost to upgrade a stat
+     * Server reported ascension progress - opens the loading screen on the first update.
+     * A cancelled ascension just closes it: no awakening, no constellation selection.
      */
-    public static int getUpgradeCost(int currentLevel) {
-        return AscendancyMod.getUpgradeCost(currentLevel);
+    public static void updateAscensionProgress(int completedPhases, int totalPhases, boolean complete, int queuePosition,
+                                               boolean cancelled) {
+        confirmed = confirmed.withAscensionProgress(!complete, completedPhases, totalPhases, queuePosition);
+        publish(predict());
+        
+        Minecraft client = Minecraft.getInstance();
+        if (cancelled) {
+            if (client.screen instanceof AscensionLoadingScreen) {
+                client.setScreen(null);
+            }
+            return;
+        }
+        if (!complete && !(client.screen instanceof AscensionLoadingScreen)) {
+            ascensionLoadingComplete = false;
+            client.setScreen(new AscensionLoadingScreen());
+        }
     }
     
     /**
-     * Check if player can afford an upgrade
+     * Replace the upgrade registry (join / datapack reload)
      */
-    public static boolean canAfford(int currentLevel) {
-        return prestigePoints >= getUpgradeCost(currentLevel);
+    public static void updateUpgrades(List<UpgradeDefinition> upgrades) {
+        confirmed = confirmed.withUpgrades(upgrades);
+        publish(predict());
     }
 }
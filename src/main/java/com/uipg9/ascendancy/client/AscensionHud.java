@@ -40,6 +40,29 @@ public class AscensionHud {
     private static float smoothProgress = 0f;
     private static float glowPulse = 0f;
     
+    // ==================== CACHES ====================
+    
+    // Text and widths, rebuilt only when the client snapshot version changes
+    private static int cachedVersion = -1;
+    private static boolean cachedReady = false;
+    private static String percentText = "";
+    private static int percentWidth = 0;
+    private static int popupValue = 0;
+    private static String popupText = "";
+    private static int popupWidth = 0;
+    
+    // Widths of constant strings, measured once
+    private static int labelWidth = -1;
+    private static int readyWidth = 0;
+    
+    // Static frame geometry, rebuilt when the scaled screen height changes.
+    // Rects are packed as x1, y1, x2, y2; colors are index-aligned.
+    private static int cachedScreenHeight = -1;
+    private static int barY = 0;
+    private static final int[] borderRects = new int[4 * 4];
+    private static final int[] frontRects = new int[12 * 4];
+    private static final int[] frontColors = new int[12];
+    
     /**
      * Main render method called by HudRenderCallback
      */
@@ -52,43 +75,142 @@ public class AscensionHud {
             return;
         }
         
-        float targetProgress = AscendancyClient.getSoulProgress();
-        
-        // Smooth animation
-        smoothProgress = Mth.lerp(0.15f, smoothProgress, targetProgress);
-        
-        // Update glow pulse
-        glowPulse += deltaTracker.getGameTimeDeltaTicks() * 0.1f;
+        ClientSnapshot data = AscendancyClient.snapshot();
+        refreshText(client, data);
         
         // Position: LEFT CENTER of screen
         int screenHeight = client.getWindow().getGuiScaledHeight();
+        if (screenHeight != cachedScreenHeight) {
+            buildFrame(screenHeight);
+        }
+        
+        // Smooth animation (stops once settled)
+        float targetProgress = data.soulProgress();
+        if (Math.abs(targetProgress - smoothProgress) > 0.001f) {
+            smoothProgress = Mth.lerp(0.15f, smoothProgress, targetProgress);
+        } else {
+            smoothProgress = targetProgress;
+        }
+        
+        // Pulse only matters while ready to ascend
+        float pulse = 0f;
+        float readyPulse = 0f;
+        if (cachedReady) {
+            glowPulse += deltaTracker.getGameTimeDeltaTicks() * 0.1f;
+            pulse = (float)(Math.sin(glowPulse) * 0.5 + 0.5);
+            readyPulse = (float)(Math.sin(glowPulse * 2) * 0.3 + 0.7);
+        }
+        
         int x = MARGIN_LEFT;
-        int y = (screenHeight / 2) - (BAR_HEIGHT / 2);
+        int y = barY;
         
         // Draw the vertical soul bar (ALWAYS)
-        drawSoulBar(graphics, x, y, smoothProgress);
+        drawSoulBar(graphics, x, y, smoothProgress, pulse);
         
-        // Draw "SOUL" label above the bar (vertical)
-        drawLabel(graphics, client, x, y);
+        // "✦" label above the bar
+        graphics.drawString(client.font, "✦", x + (BAR_WIDTH / 2) - (labelWidth / 2), y - 12, COLOR_GOLD_TEXT, true);
         
-        // Draw percentage below the bar
-        drawPercentage(graphics, client, x, y);
+        // Percentage below the bar
+        graphics.drawString(client.font, percentText, x + (BAR_WIDTH / 2) - (percentWidth / 2), y + BAR_HEIGHT + 5,
+            cachedReady ? COLOR_READY : COLOR_TEXT, true);
         
         // Draw ready indicator when full
-        if (AscendancyClient.canAscend()) {
-            drawReadyIndicator(graphics, client, x, y);
+        if (cachedReady) {
+            int alpha = (int)(readyPulse * 255);
+            graphics.drawString(client.font, "[P]", x + (BAR_WIDTH / 2) - (readyWidth / 2), y + BAR_HEIGHT + 16,
+                (alpha << 24) | 0x00FF00, true);
         }
         
         // Draw XP popup when gaining XP
         drawXpPopup(graphics, client, x, y);
     }
     
+    /**
+     * Rebuild cached strings and widths after a data sync
+     */
+    private static void refreshText(Minecraft client, ClientSnapshot data) {
+        if (labelWidth < 0) {
+            labelWidth = client.font.width("✦");
+            readyWidth = client.font.width("[P]");
+        }
+        
+        if (cachedVersion != data.version()) {
+            cachedVersion = data.version();
+            cachedReady = data.canAscend();
+            percentText = (int)(data.soulProgress() * 100) + "%";
+            percentWidth = client.font.width(percentText);
+        }
+        
+        // Popup total can grow between syncs of other data
+        if (popupValue != AscendancyClient.xpGainedPopup) {
+            popupValue = AscendancyClient.xpGainedPopup;
+            popupText = "+" + popupValue + " XP";
+            popupWidth = client.font.width(popupText);
+        }
+    }
+    
+    /**
+     * Precompute the frame rectangles that only depend on screen height
+     */
+    private static void buildFrame(int screenHeight) {
+        cachedScreenHeight = screenHeight;
+        barY = (screenHeight / 2) - (BAR_HEIGHT / 2);
+        
+        int x = MARGIN_LEFT;
+        int y = barY;
+        
+        // Outer border (color varies, so only geometry is cached)
+        int i = 0;
+        i = putOutline(borderRects, i, x - 3, y - 3, BAR_WIDTH + 6, BAR_HEIGHT + 6);
+        
+        // Inner border for depth
+        int n = 0;
+        n = putOutline(frontRects, n, x - 1, y - 1, BAR_WIDTH + 2, BAR_HEIGHT + 2);
+        for (int c = 0; c < 4; c++) frontColors[c] = 0xFF333333;
+        
+        // Decorative corner marks
+        int cx = x - 3;
+        int cy = y - 3;
+        int width = BAR_WIDTH + 6;
+        int height = BAR_HEIGHT + 6;
+        int cornerLength = 4;
+        n = putRect(frontRects, n, cx, cy, cx + cornerLength, cy + 1);
+        n = putRect(frontRects, n, cx, cy, cx + 1, cy + cornerLength);
+        n = putRect(frontRects, n, cx + width - cornerLength, cy, cx + width, cy + 1);
+        n = putRect(frontRects, n, cx + width - 1, cy, cx + width, cy + cornerLength);
+        n = putRect(frontRects, n, cx, cy + height - 1, cx + cornerLength, cy + height);
+        n = putRect(frontRects, n, cx, cy + height - cornerLength, cx + 1, cy + height);
+        n = putRect(frontRects, n, cx + width - cornerLength, cy + height - 1, cx + width, cy + height);
+        putRect(frontRects, n, cx + width - 1, cy + height - cornerLength, cx + width, cy + height);
+        for (int c = 4; c < 12; c++) frontColors[c] = 0xFFAA8800; // Gold
+    }
+    
+    private static int putRect(int[] rects, int index, int x1, int y1, int x2, int y2) {
+        int o = index * 4;
+        rects[o] = x1;
+        rects[o + 1] = y1;
+        rects[o + 2] = x2;
+        rects[o + 3] = y2;
+        return index + 1;
+    }
+    
+    /**
+     * Same four edges GuiGraphics.renderOutline draws
+     */
+    private static int putOutline(int[] rects, int index, int x, int y, int width, int height) {
+        index = putRect(rects, index, x, y, x + width, y + 1);
+        index = putRect(rects, index, x, y + height - 1, x + width, y + height);
+        index = putRect(rects, index, x, y + 1, x + 1, y + height - 1);
+        return putRect(rects, index, x + width - 1, y + 1, x + width, y + height - 1);
+    }
+    
     /**
      * Draw floating +XP popup
      */
     private static void drawXpPopup(GuiGraphics graphics, Minecraft client, int barX, int barY) {
+        if (popupValue <= 0) return;
         long elapsed = System.currentTimeMillis() - AscendancyClient.popupStartTime;
-        if (elapsed > AscendancyClient.POPUP_DURATION || AscendancyClient.xpGainedPopup <= 0) {
+        if (elapsed > AscendancyClient.POPUP_DURATION) {
             return;
         }
         
@@ -99,10 +221,6 @@ public class AscensionHud {
         
         if (alpha < 0.05f) return;
         
-        // Draw the popup
-        String text = "§a+" + AscendancyClient.xpGainedPopup + " XP";
-        int textWidth = client.font.width(text.replace("§a", "")); // Remove color code for width
-        
         int textX = barX + BAR_WIDTH + 8;
         int textY = (int)(barY + (BAR_HEIGHT / 2) - 4 - floatOffset);
         
@@ -111,28 +229,25 @@ public class AscensionHud {
         
         // Background for better readability
         int bgAlpha = (int)(alpha * 160);
-        graphics.fill(textX - 2, textY - 1, textX + textWidth + 2, textY + 10, (bgAlpha << 24));
+        graphics.fill(textX - 2, textY - 1, textX + popupWidth + 2, textY + 10, (bgAlpha << 24));
         
         // Draw text
-        graphics.drawString(client.font, "+" + AscendancyClient.xpGainedPopup + " XP", textX, textY, color, true);
+        graphics.drawString(client.font, popupText, textX, textY, color, true);
     }
     
     /**
      * Draw the VERTICAL soul bar
      * Fills from BOTTOM to TOP (like filling a container)
      */
-    private static void drawSoulBar(GuiGraphics graphics, int x, int y, float progress) {
-        int barX = x;
-        int barY = y;
-        
+    private static void drawSoulBar(GuiGraphics graphics, int barX, int barY, float progress, float pulse) {
         // Background panel (slightly larger for padding)
         graphics.fill(barX - 3, barY - 3, barX + BAR_WIDTH + 3, barY + BAR_HEIGHT + 3, COLOR_BACKGROUND);
         
         // Border (glows gold when ready)
-        int borderColor = AscendancyClient.canAscend() ? 
-            lerpColor(COLOR_BORDER, COLOR_BORDER_GLOW, (float)(Math.sin(glowPulse) * 0.5 + 0.5)) : 
-            COLOR_BORDER;
-        graphics.renderOutline(barX - 3, barY - 3, BAR_WIDTH + 6, BAR_HEIGHT + 6, borderColor);
+        int borderColor = cachedReady ? lerpColor(COLOR_BORDER, COLOR_BORDER_GLOW, pulse) : COLOR_BORDER;
+        for (int o = 0; o < borderRects.length; o += 4) {
+            graphics.fill(borderRects[o], borderRects[o + 1], borderRects[o + 2], borderRects[o + 3], borderColor);
+        }
         
         // Empty bar background
         graphics.fill(barX, barY, barX + BAR_WIDTH, barY + BAR_HEIGHT, COLOR_BAR_EMPTY);
@@ -143,17 +258,11 @@ public class AscensionHud {
             int fillStartY = barY + BAR_HEIGHT - fillHeight;
             
             // Glow effect when full
-            int fillColor = COLOR_BAR_FILL;
-            if (AscendancyClient.canAscend()) {
-                float pulse = (float)(Math.sin(glowPulse) * 0.5 + 0.5);
-                fillColor = lerpColor(COLOR_BAR_FILL, COLOR_BAR_GLOW, pulse);
-            }
-            
+            int fillColor = cachedReady ? lerpColor(COLOR_BAR_FILL, COLOR_BAR_GLOW, pulse) : COLOR_BAR_FILL;
             graphics.fill(barX, fillStartY, barX + BAR_WIDTH, barY + BAR_HEIGHT, fillColor);
             
             // Shine effect at the left edge of the fill
-            int shineColor = 0x40FFFFFF;
-            graphics.fill(barX, fillStartY, barX + 2, barY + BAR_HEIGHT, shineColor);
+            graphics.fill(barX, fillStartY, barX + 2, barY + BAR_HEIGHT, 0x40FFFFFF);
             
             // Top edge highlight (where the liquid level is)
             if (progress < 1.0f) {
@@ -161,80 +270,10 @@ public class AscensionHud {
             }
         }
         
-        // Inner border for depth
-        graphics.renderOutline(barX - 1, barY - 1, BAR_WIDTH + 2, BAR_HEIGHT + 2, 0xFF333333);
-        
-        // Decorative corner marks
-        drawCornerMarks(graphics, barX - 3, barY - 3, BAR_WIDTH + 6, BAR_HEIGHT + 6);
-    }
-    
-    /**
-     * Draw decorative corner marks
-     */
-    private static void drawCornerMarks(GuiGraphics graphics, int x, int y, int width, int height) {
-        int cornerColor = 0xFFAA8800; // Gold
-        int cornerLength = 4;
-        
-        // Top-left
-        graphics.fill(x, y, x + cornerLength, y + 1, cornerColor);
-        graphics.fill(x, y, x + 1, y + cornerLength, cornerColor);
-        
-        // Top-right
-        graphics.fill(x + width - cornerLength, y, x + width, y + 1, cornerColor);
-        graphics.fill(x + width - 1, y, x + width, y + cornerLength, cornerColor);
-        
-        // Bottom-left
-        graphics.fill(x, y + height - 1, x + cornerLength, y + height, cornerColor);
-        graphics.fill(x, y + height - cornerLength, x + 1, y + height, cornerColor);
-        
-        // Bottom-right
-        graphics.fill(x + width - cornerLength, y + height - 1, x + width, y + height, cornerColor);
-        graphics.fill(x + width - 1, y + height - cornerLength, x + width, y + height, cornerColor);
-    }
-    
-    /**
-     * Draw the "SOUL" label above the bar
-     */
-    private static void drawLabel(GuiGraphics graphics, Minecraft client, int barX, int barY) {
-        String text = "✦";
-        int textWidth = client.font.width(text);
-        int textX = barX + (BAR_WIDTH / 2) - (textWidth / 2);
-        int textY = barY - 12;
-        
-        graphics.drawString(client.font, text, textX, textY, COLOR_GOLD_TEXT, true);
-    }
-    
-    /**
-     * Draw percentage below the bar
-     */
-    private static void drawPercentage(GuiGraphics graphics, Minecraft client, int barX, int barY) {
-        int percent = (int)(AscendancyClient.getSoulProgress() * 100);
-        String text = percent + "%";
-        int textWidth = client.font.width(text);
-        int textX = barX + (BAR_WIDTH / 2) - (textWidth / 2);
-        int textY = barY + BAR_HEIGHT + 5;
-        
-        int color = AscendancyClient.canAscend() ? COLOR_READY : COLOR_TEXT;
-        graphics.drawString(client.font, text, textX, textY, color, true);
-    }
-    
-    /**
-     * Draw indicator when ready to ascend
-     */
-    private static void drawReadyIndicator(GuiGraphics graphics, Minecraft client, int barX, int barY) {
-        String text = "[P]";
-        int textWidth = client.font.width(text);
-        
-        // Pulsing alpha
-        float pulse = (float)(Math.sin(glowPulse * 2) * 0.3 + 0.7);
-        int alpha = (int)(pulse * 255);
-        int color = (alpha << 24) | 0x00FF00;
-        
-        // Draw below the percentage
-        int textX = barX + (BAR_WIDTH / 2) - (textWidth / 2);
-        int textY = barY + BAR_HEIGHT + 16;
-        
-        graphics.drawString(client.font, text, textX, textY, color, true);
+        // Inner border and corner marks (precomputed)
+        for (int c = 0, o = 0; c < frontColors.length; c++, o += 4) {
+            graphics.fill(frontRects[o], frontRects[o + 1], frontRects[o + 2], frontRects[o + 3], frontColors[c]);
+        }
     }
     
     /**
@@ -0,0 +1,109 @@
+package com.uipg9.ascendancy.client;
+
+import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.UpgradeDefinition;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable view of everything the server has told the client.
+ *
+ * A new snapshot replaces the old one on every sync or predicted purchase, and
+ * AscendancyClient stamps each published snapshot with a higher version, so
+ * screens can compare versions (or single fields) instead of polling statics.
+ */
+@Environment(EnvType.CLIENT)
+public record ClientSnapshot(
+    int version,
+    int soulXP,
+    int maxSoulXP,
+    int prestigePoints,
+    int ascensionCount,
+    int totalPrestigeEarned,
+    List<UpgradeDefinition> upgrades,   // Registry synced from the server
+    int[] upgradeLevels,                // Indexed by upgrade ordinal, never mutated
+    boolean ascensionInProgress,
+    int ascensionPhasesDone,
+    int ascensionPhaseCount,
+    int ascensionQueuePosition          // 0 = running, otherwise place in line
+) {
+
+    public static final ClientSnapshot EMPTY = new ClientSnapshot(
+        0, 0, AscendancyMod.BASE_SOUL_XP, 0, 0, 0, List.of(), new int[0], false, 0, 1, 0
+    );
+
+    // ==================== DERIVED VALUES ====================
+
+    /**
+     * Soul progress as a float 0-1
+     */
+    public float soulProgress() {
+        if (maxSoulXP <= 0) return 0f;
+        return (float) soulXP / maxSoulXP;
+    }
+
+    public boolean canAscend() {
+        return soulXP >= maxSoulXP && maxSoulXP > 0;
+    }
+
+    public int upgradeLevel(int ordinal) {
+        return ordinal >= 0 && ordinal < upgradeLevels.length ? upgradeLevels[ordinal] : 0;
+    }
+
+    /**
+     * Cost of the next level of an upgrade
+     */
+    public int upgradeCost(UpgradeDefinition upgrade) {
+        return upgrade.getCost(upgradeLevel(upgrade.ordinal()));
+    }
+
+    public boolean canAfford(UpgradeDefinition upgrade) {
+        return !upgrade.isMaxed(upgradeLevel(upgrade.ordinal())) && prestigePoints >= upgradeCost(upgrade);
+    }
+
+    // ==================== BUILDER METHODS ====================
+
+    public ClientSnapshot withData(int soulXP, int maxSoulXP, int prestigePoints, int ascensionCount,
+                                   int totalPrestigeEarned, int[] upgradeLevels) {
+        return new ClientSnapshot(version, soulXP, maxSoulXP, prestigePoints, ascensionCount,
+            totalPrestigeEarned, upgrades, upgradeLevels,
+            ascensionInProgress, ascensionPhasesDone, ascensionPhaseCount, ascensionQueuePosition);
+    }
+
+    public ClientSnapshot withUpgrades(List<UpgradeDefinition> upgrades) {
+        return new ClientSnapshot(version, soulXP, maxSoulXP, prestigePoints, ascensionCount,
+            totalPrestigeEarned, List.copyOf(upgrades), upgradeLevels,
+            ascensionInProgress, ascensionPhasesDone, ascensionPhaseCount, ascensionQueuePosition);
+    }
+
+    public ClientSnapshot withAscensionProgress(boolean inProgress, int phasesDone, int phaseCount, int queuePosition) {
+        return new ClientSnapshot(version, soulXP, maxSoulXP, prestigePoints, ascensionCount,
+            totalPrestigeEarned, upgrades, upgradeLevels,
+            inProgress, phasesDone, Math.max(1, phaseCount), queuePosition);
+    }
+
+    public ClientSnapshot withVersion(int version) {
+        return new ClientSnapshot(version, soulXP, maxSoulXP, prestigePoints, ascensionCount,
+            totalPrestigeEarned, upgrades, upgradeLevels,
+            ascensionInProgress, ascensionPhasesDone, ascensionPhaseCount, ascensionQueuePosition);
+    }
+
+    /**
+     * Predicted result of buying one level, or null if it can't be afforded
+     */
+    public ClientSnapshot withPurchase(int ordinal) {
+        if (ordinal < 0 || ordinal >= upgrades.size()) return null;
+        UpgradeDefinition upgrade = upgrades.get(ordinal);
+        if (!canAfford(upgrade)) return null;
+        int cost = upgradeCost(upgrade);
+
+        int[] levels = Arrays.copyOf(upgradeLevels, Math.max(upgradeLevels.length, ordinal + 1));
+        levels[ordinal]++;
+        return new ClientSnapshot(version, soulXP, maxSoulXP, prestigePoints - cost, ascensionCount,
+            totalPrestigeEarned, upgrades, levels,
+            ascensionInProgress, ascensionPhasesDone, ascensionPhaseCount, ascensionQueuePosition);
+    }
+}
@@ -1,11 +1,13 @@
 package com.uipg9.ascendancy.client.gui;
 
 import com.uipg9.ascendancy.client.AscendancyClient;
+import com.uipg9.ascendancy.client.ClientSnapshot;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.core.SectionPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.util.Mth;
 
@@ -14,19 +16,27 @@ import net.minecraft.util.Mth;
  * Creates the illusion of a mysterious awakening.
  * 
  * Hides the actual teleportation from the player.
+ * 
+ * Progress follows the server's ascension phases; the screen fades out once the
+ * server reports completion and the chunk at the new spawn has arrived.
  */
 @Environment(EnvType.CLIENT)
 public class AscensionLoadingScreen extends Screen {
     
     // Timing constants (in ticks)
     private static final int FADE_IN_DURATION = 30;      // 1.5 seconds
-    private static final int MESSAGE_DURATION = 80;       // 4 seconds for messages
-    private static final int TOTAL_DURATION = 200;        // 10 seconds total
+    private static final int FADE_OUT_DURATION = 30;     // 1.5 seconds
+    private static final int MIN_DURATION = 60;          // Let the first messages register
+    private static final int TIMEOUT = 600;              // 30 seconds once admitted - never strand the player
     
     // Animation state
     private int ticksOpen = 0;
+    private int ticksRunning = 0;                        // Ticks since leaving the server's queue
+    private int fadeOutTicks = -1;                       // -1 until the fade out starts
     private float fadeAlpha = 0f;
     private int currentMessage = 0;
+    private float shownProgress = 0f;
+    private float lastShownProgress = 0f;
     
     // Mystical messages during ascension
     private static final String[] MESSAGES = {
@@ -38,7 +48,7 @@ public class AscensionLoadingScreen extends Screen {
     };
     
     // Particle state
-    private float particleTime = 0f;
+    private final SoulParticles particles = new SoulParticles();
     
     public AscensionLoadingScreen() {
         super(Component.literal("Ascending..."));
@@ -47,37 +57,69 @@ public class AscensionLoadingScreen extends Screen {
     @Override
     protected void init() {
         super.init();
-        ticksOpen = 0;
-        fadeAlpha = 0f;
-        currentMessage = 0;
+        // init() also runs on resize - only reset on first open
+        if (ticksOpen == 0) {
+            fadeAlpha = 0f;
+            currentMessage = 0;
+        }
     }
     
     @Override
     public void tick() {
         super.tick();
         ticksOpen++;
+        particles.tick();
+        ClientSnapshot data = AscendancyClient.snapshot();
+        if (data.ascensionQueuePosition() == 0) ticksRunning++;
+        
+        // Ease the bar towards the server's progress
+        float target = data.ascensionInProgress()
+            ? (float) data.ascensionPhasesDone() / data.ascensionPhaseCount()
+            : 1f;
+        lastShownProgress = shownProgress;
+        shownProgress += (target - shownProgress) * 0.2f;
+        
+        // Messages follow the phases; the last one is saved for the awakening
+        if (data.ascensionInProgress()) {
+            currentMessage = Math.min(
+                data.ascensionPhasesDone() * (MESSAGES.length - 1) / data.ascensionPhaseCount(),
+                MESSAGES.length - 2);
+        } else {
+            currentMessage = MESSAGES.length - 1;
+        }
         
-        // Update current message
-        int messageInterval = MESSAGE_DURATION / MESSAGES.length;
-        currentMessage = Math.min(ticksOpen / (messageInterval + 8), MESSAGES.length - 1);
+        if (fadeOutTicks < 0 && ticksOpen >= MIN_DURATION && (isDestinationReady() || ticksRunning >= TIMEOUT)) {
+            fadeOutTicks = 0;
+        }
         
-        // Close screen after duration - open constellation selection!
-        if (ticksOpen >= TOTAL_DURATION) {
+        // Close after the fade out - open constellation selection!
+        if (fadeOutTicks >= 0 && ++fadeOutTicks >= FADE_OUT_DURATION) {
             AscendancyClient.ascensionLoadingComplete = true;
             // Open constellation selection screen for new life
             this.minecraft.setScreen(new ConstellationSelectionScreen());
         }
     }
     
+    /**
+     * Server finished and the chunk we were teleported into has loaded
+     */
+    private boolean isDestinationReady() {
+        if (AscendancyClient.snapshot().ascensionInProgress()) return false;
+        if (this.minecraft.level == null || this.minecraft.player == null) return false;
+        return this.minecraft.level.hasChunk(
+            SectionPos.blockToSectionCoord(this.minecraft.player.getBlockX()),
+            SectionPos.blockToSectionCoord(this.minecraft.player.getBlockZ()));
+    }
+    
     @Override
     public void render(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         // Calculate fade
         float tickProgress = ticksOpen + partialTick;
         
-        if (tickProgress < FADE_IN_DURATION) {
+        if (fadeOutTicks >= 0) {
+            fadeAlpha = (FADE_OUT_DURATION - fadeOutTicks - partialTick) / FADE_OUT_DURATION;
+        } else if (tickProgress < FADE_IN_DURATION) {
             fadeAlpha = tickProgress / FADE_IN_DURATION;
-        } else if (tickProgress > TOTAL_DURATION - FADE_IN_DURATION) {
-            fadeAlpha = (TOTAL_DURATION - tickProgress) / FADE_IN_DURATION;
         } else {
             fadeAlpha = 1.0f;
         }
@@ -93,8 +135,7 @@ public class AscensionLoadingScreen extends Screen {
         int centerY = this.height / 2;
         
         // Animated particle effect (fake stars/souls)
-        particleTime += partialTick * 0.05f;
-        renderParticles(graphics, centerX, centerY);
+        particles.render(graphics, centerX, centerY, partialTick, fadeAlpha);
         
         // Main message
         String message = MESSAGES[currentMessage];
@@ -111,49 +152,30 @@ public class AscensionLoadingScreen extends Screen {
         graphics.drawString(this.font, message, centerX - textWidth / 2, centerY - 10, 
             (messageAlpha << 24) | 0xFFFFFF, true);
         
-        // Subtitle with ascension count
-        int ascensions = AscendancyClient.ascensionCount + 1;
-        String subtitle = "§7Ascension #" + ascensions;
+        // Subtitle with ascension count, or place in line while waiting for a slot
+        ClientSnapshot data = AscendancyClient.snapshot();
+        int ascensions = data.ascensionCount() + 1;
+        String subtitle = data.ascensionQueuePosition() > 0
+            ? "§7Other souls pass before you... §e#" + data.ascensionQueuePosition() + "§7 in line"
+            : "§7Ascension #" + ascensions;
         int subWidth = this.font.width(subtitle);
         int subAlpha = (int)(fadeAlpha * 180);
         graphics.drawString(this.font, subtitle, centerX - subWidth / 2, centerY + 20,
             (subAlpha << 24) | 0xAAAAAA, false);
         
         // Progress bar at bottom
-        renderProgressBar(graphics, tickProgress);
+        renderProgressBar(graphics, Mth.lerp(partialTick, lastShownProgress, shownProgress));
         
         // Decorative corners
         renderCorners(graphics);
     }
     
-    private void renderParticles(GuiGraphics graphics, int centerX, int centerY) {
-        // Draw floating soul particles
-        int particleCount = 30;
-        int alpha = (int)(fadeAlpha * 100);
-        
-        for (int i = 0; i < particleCount; i++) {
-            float angle = (particleTime + i * 0.5f) * 0.3f;
-            float radius = 50 + (float)Math.sin(particleTime * 0.5f + i) * 30 + i * 3;
-            
-            int px = centerX + (int)(Math.cos(angle) * radius);
-            int py = centerY + (int)(Math.sin(angle) * radius * 0.5f); // Elliptical
-            
-            // Particle size varies
-            int size = 1 + (i % 3);
-            
-            // Color varies between gold and purple
-            int color = (i % 2 == 0) ? 0xFFD700 : 0xAA55FF;
-            graphics.fill(px - size, py - size, px + size, py + size, (alpha << 24) | color);
-        }
-    }
-    
-    private void renderProgressBar(GuiGraphics graphics, float tickProgress) {
+    private void renderProgressBar(GuiGraphics graphics, float progress) {
         int barWidth = 200;
         int barHeight = 4;
         int barX = (this.width - barWidth) / 2;
         int barY = this.height - 50;
         
-        float progress = tickProgress / TOTAL_DURATION;
         int fillWidth = (int)(barWidth * progress);
         
         int alpha = (int)(fadeAlpha * 150);
@@ -1,7 +1,8 @@
 package com.uipg9.ascendancy.client.gui;
 
 import com.uipg9.ascendancy.client.AscendancyClient;
-import com.uipg9.ascendancy.network.AscendancyNetworking;
+import com.uipg9.ascendancy.client.ClientSnapshot;
+import com.uipg9.ascendancy.data.UpgradeDefinition;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.ChatFormatting;
@@ -14,6 +15,9 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.util.Mth;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The Ascension Screen - view stats, purchase upgrades, ascend, and access guide.
  * Features infinite upgrades with scaling costs, 8 upgrade categories, sound effects.
@@ -48,6 +52,54 @@ public class AscensionScreen extends Screen {
     // Category tabs
     private int selectedCategory = 0;
     private static final String[] CATEGORIES = {"Combat", "Utility", "Special"};
+    private static final UpgradeDefinition.Category[] CATEGORY_KEYS = {
+        UpgradeDefinition.Category.COMBAT, UpgradeDefinition.Category.UTILITY, UpgradeDefinition.Category.SPECIAL
+    };
+    
+    // Vertical room between the tabs and the soul bar
+    private static final int UPGRADE_AREA_HEIGHT = 160;
+    
+    private static final Component TITLE = Component.literal("✦ Ascension ✦").withStyle(ChatFormatting.GOLD, ChatFormatting.BOLD);
+    private static final Component READY_TEXT = Component.literal("§a§l✦ Ready to Ascend! ✦");
+    
+    // ==================== BOUND STATE ====================
+    
+    // Snapshot the widgets and cached text were last updated from
+    private ClientSnapshot bound = ClientSnapshot.EMPTY;
+    private Runnable unsubscribe;
+    
+    // Widgets that follow the snapshot
+    private final List<Button> gatedButtons = new ArrayList<>();   // Enabled once the intro animation ends
+    private final List<UpgradeButton> upgradeButtons = new ArrayList<>();
+    private Button ascendButton;
+    
+    // Text rebuilt only when the snapshot version or category changes
+    private int textVersion = -1;
+    private int textCategory = -1;
+    private List<UpgradeDefinition> categoryUpgrades = List.of();
+    private Component prestigeText;
+    private Component ascensionsText;
+    private Component nextRewardText;
+    private Component headerText;
+    private String soulText;
+    private String[] rowLevels = new String[0];
+    private String[] rowEffects = new String[0];
+    private String[] rowCosts = new String[0];
+    private boolean[] rowAffordable = new boolean[0];
+    
+    /**
+     * A purchase button and the cost it currently shows
+     */
+    private static final class UpgradeButton {
+        final UpgradeDefinition upgrade;
+        final Button button;
+        int shownCost = -1;
+        
+        UpgradeButton(UpgradeDefinition upgrade, Button button) {
+            this.upgrade = upgrade;
+            this.button = button;
+        }
+    }
     
     public AscensionScreen() {
         super(Component.translatable("gui.ascendancy.shop_title"));
@@ -61,6 +113,12 @@ public class AscensionScreen extends Screen {
         if (animationStartTime == 0) {
             animationStartTime = System.currentTimeMillis();
         }
+        if (unsubscribe == null) {
+            unsubscribe = AscendancyClient.subscribe(this::onSnapshot);
+        }
+        bound = AscendancyClient.snapshot();
+        gatedButtons.clear();
+        upgradeButtons.clear();
         
         centerX = this.width / 2;
         centerY = this.height / 2;
@@ -76,8 +134,7 @@ public class AscensionScreen extends Screen {
                 this.minecraft.setScreen(new GuideScreen());
             }
         ).bounds(panelX + panelWidth - 70, panelY + 8, 60, 16).build();
-        guideBtn.active = animationComplete; // Disabled during animation
-        this.addRenderableWidget(guideBtn);
+        gatedButtons.add(this.addRenderableWidget(guideBtn));
         
         // Category tabs
         int tabX = panelX + 10;
@@ -88,80 +145,123 @@ public class AscensionScreen extends Screen {
                 b -> {
                     playClickSound();
                     selectedCategory = cat;
-                    rebuildWidgets();
+                    rebuildWidgets(); // Different rows - layout changes
                 }
             ).bounds(tabX + (i * 75), panelY + 45, 70, 18).build();
-            tabBtn.active = animationComplete; // Disabled during animation
-            this.addRenderableWidget(tabBtn);
+            gatedButtons.add(this.addRenderableWidget(tabBtn));
         }
         
         // Upgrade buttons based on category
+        refreshText();
         int startY = panelY + 75;
-        int spacing = 34;
-        
-        switch (selectedCategory) {
-            case 0 -> { // Combat
-                addUpgradeButton(startY, "§c❤ Vitality", "+2 Hearts", AscendancyClient.healthLevel, 
-                    AscendancyNetworking.PurchaseUpgradePayload.VITALITY);
-                addUpgradeButton(startY + spacing, "§c⚔ Might", "+5% Damage", AscendancyClient.damageLevel,
-                    AscendancyNetworking.PurchaseUpgradePayload.DAMAGE);
-                addUpgradeButton(startY + spacing * 2, "§c🛡 Resilience", "+1 Armor", AscendancyClient.defenseLevel,
-                    AscendancyNetworking.PurchaseUpgradePayload.DEFENSE);
-            }
-            case 1 -> { // Utility
-                addUpgradeButton(startY, "§a⚡ Swiftness", "+3% Speed", AscendancyClient.speedLevel,
-                    AscendancyNetworking.PurchaseUpgradePayload.SWIFTNESS);
-                addUpgradeButton(startY + spacing, "§a✋ Titan's Reach", "+0.5 Reach", AscendancyClient.reachLevel,
-                    AscendancyNetworking.PurchaseUpgradePayload.REACH);
-                addUpgradeButton(startY + spacing * 2, "§a⛏ Haste", "+8% Mining", AscendancyClient.miningLevel,
-                    AscendancyNetworking.PurchaseUpgradePayload.HASTE);
-            }
-            case 2 -> { // Special
-                addUpgradeButton(startY, "§d🍀 Fortune", "+5% Luck", AscendancyClient.luckLevel,
-                    AscendancyNetworking.PurchaseUpgradePayload.LUCK);
-                addUpgradeButton(startY + spacing, "§d✦ Wisdom", "+10% Soul XP", AscendancyClient.wisdomLevel,
-                    AscendancyNetworking.PurchaseUpgradePayload.WISDOM);
-                addUpgradeButton(startY + spacing * 2, "§d📦 Keeper", "+1 Keep Amt", AscendancyClient.keeperLevel,
-                    AscendancyNetworking.PurchaseUpgradePayload.KEEPER);
-            }
+        int spacing = getRowSpacing(categoryUpgrades.size());
+        
+        for (int i = 0; i < categoryUpgrades.size(); i++) {
+            addUpgradeButton(startY + spacing * i, categoryUpgrades.get(i));
         }
         
-        // Ascend button (bottom, only if ready) - NOW OPENS ITEM SELECTION
-        if (AscendancyClient.canAscend()) {
-            Button ascendBtn = Button.builder(
-                Component.literal("✦ ASCEND ✦").withStyle(ChatFormatting.GOLD, ChatFormatting.BOLD),
-                button -> {
-                    playAscendSound();
-                    this.minecraft.setScreen(new ItemSelectionScreen());
-                }
-            ).bounds(centerX - 70, panelY + panelHeight - 40, 140, 28).build();
-            ascendBtn.active = animationComplete; // Disabled during animation
-            this.addRenderableWidget(ascendBtn);
+        // Ascend button (bottom, only shown when ready) - NOW OPENS ITEM SELECTION
+        ascendButton = Button.builder(
+            Component.literal("✦ ASCEND ✦").withStyle(ChatFormatting.GOLD, ChatFormatting.BOLD),
+            button -> {
+                playAscendSound();
+                this.minecraft.setScreen(new ItemSelectionScreen());
+            }
+        ).bounds(centerX - 70, panelY + panelHeight - 40, 140, 28).build();
+        gatedButtons.add(this.addRenderableWidget(ascendButton));
+        
+        updateWidgets();
+    }
+    
+    @Override
+    public void removed() {
+        super.removed();
+        if (unsubscribe != null) {
+            unsubscribe.run();
+            unsubscribe = null;
         }
     }
     
-    private void addUpgradeButton(int y, String name, String effect, int currentLevel, int upgradeType) {
+    private void addUpgradeButton(int y, UpgradeDefinition upgrade) {
         int panelX = centerX - panelWidth / 2;
-        int cost = AscendancyClient.getUpgradeCost(currentLevel);
-        boolean canAfford = AscendancyClient.canAfford(currentLevel);
-        
-        String buttonText = cost + " pts";
         
         Button button = Button.builder(
-            Component.literal(buttonText),
+            Component.empty(),
             btn -> {
-                if (canAfford) {
+                // Level and cost update at once; the server sync confirms or rolls back
+                if (AscendancyClient.purchaseUpgrade(upgrade)) {
                     playPurchaseSound();
-                    AscendancyNetworking.sendPurchaseRequest(upgradeType);
-                    // Rebuild immediately for instant price updates
-                    this.rebuildWidgets();
                 }
             }
         ).bounds(panelX + panelWidth - 80, y + 5, 65, 20).build();
         
-        // Only active if animation complete AND can afford
-        button.active = animationComplete && canAfford;
-        this.addRenderableWidget(button);
+        upgradeButtons.add(new UpgradeButton(upgrade, this.addRenderableWidget(button)));
+    }
+    
+    /**
+     * New data from the server. Only a changed registry needs new widgets.
+     */
+    private void onSnapshot(ClientSnapshot next) {
+        if (next.upgrades() != bound.upgrades()) {
+            rebuildWidgets();
+            return;
+        }
+        bound = next;
+        updateWidgets();
+    }
+    
+    /**
+     * Push the bound snapshot into existing widgets, touching only what changed
+     */
+    private void updateWidgets() {
+        for (Button button : gatedButtons) {
+            button.active = animationComplete;
+        }
+        
+        for (UpgradeButton entry : upgradeButtons) {
+            boolean maxed = entry.upgrade.isMaxed(bound.upgradeLevel(entry.upgrade.ordinal()));
+            int cost = maxed ? -2 : bound.upgradeCost(entry.upgrade); // -1 = nothing shown yet
+            if (cost != entry.shownCost) {
+                entry.shownCost = cost;
+                entry.button.setMessage(Component.literal(maxed ? "MAX" : cost + " pts"));
+            }
+            // Only active if animation complete AND can afford
+            entry.button.active = animationComplete && bound.canAfford(entry.upgrade);
+        }
+        
+        ascendButton.visible = bound.canAscend();
+    }
+    
+    /**
+     * Rebuild display text; a no-op unless the data or category changed
+     */
+    private void refreshText() {
+        if (textVersion == bound.version() && textCategory == selectedCategory) return;
+        textVersion = bound.version();
+        textCategory = selectedCategory;
+        
+        prestigeText = Component.literal("§ePrestige Points: §f" + bound.prestigePoints());
+        ascensionsText = Component.literal("§7Ascensions: §f" + bound.ascensionCount());
+        nextRewardText = Component.literal("§8Next Ascend: +" + (5 + bound.ascensionCount()) + " pts");
+        headerText = Component.literal("§7§nUpgrades (" + CATEGORIES[selectedCategory] + ")");
+        
+        int percent = (int)(bound.soulProgress() * 100);
+        soulText = "Soul Energy: " + percent + "% (" + bound.soulXP() + "/" + bound.maxSoulXP() + ")";
+        
+        categoryUpgrades = getUpgradesInCategory();
+        int rows = categoryUpgrades.size();
+        rowLevels = new String[rows];
+        rowEffects = new String[rows];
+        rowCosts = new String[rows];
+        rowAffordable = new boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            UpgradeDefinition upgrade = categoryUpgrades.get(i);
+            rowLevels[i] = "Lv." + bound.upgradeLevel(upgrade.ordinal());
+            rowEffects[i] = "§8" + upgrade.effect();
+            rowCosts[i] = upgrade.isMaxed(bound.upgradeLevel(upgrade.ordinal()))
+                ? "§6Max level" : "§7Next: §f" + bound.upgradeCost(upgrade) + " pts";
+            rowAffordable[i] = bound.canAfford(upgrade);
+        }
     }
     
     @Override
@@ -171,20 +271,14 @@ public class AscensionScreen extends Screen {
         float ease = 1.0f - (float)Math.pow(1.0f - animProgress, 3);
         
         // Check if animation delay has passed
-        boolean wasAnimationComplete = animationComplete;
-        animationComplete = (System.currentTimeMillis() - animationStartTime) > ANIMATION_DELAY_MS;
-        
-        // Enable/disable all widgets based on animation state
-        if (!wasAnimationComplete && animationComplete) {
-            // Animation just finished - enable all widgets
-            for (var child : this.children()) {
-                if (child instanceof Button btn) {
-                    btn.active = true;
-                }
-            }
-            rebuildWidgets(); // Rebuild to apply correct active states based on affordability
+        if (!animationComplete && (System.currentTimeMillis() - animationStartTime) > ANIMATION_DELAY_MS) {
+            // Animation just finished - apply active states based on affordability
+            animationComplete = true;
+            updateWidgets();
         }
         
+        refreshText();
+        
         int panelX = centerX - panelWidth / 2;
         int panelY = centerY - panelHeight / 2;
         
@@ -194,7 +288,6 @@ public class AscensionScreen extends Screen {
         // Main panel with animation
         int animOffset = (int)((1.0f - ease) * 20);
         int renderY = panelY + animOffset;
-        int alpha = (int)(ease * 255);
         
         // Panel background
         graphics.fill(panelX, renderY, panelX + panelWidth, renderY + panelHeight, COLOR_PANEL_BG);
@@ -204,38 +297,21 @@ public class AscensionScreen extends Screen {
         graphics.fill(panelX + 1, renderY + 1, panelX + panelWidth - 1, renderY + 3, COLOR_GOLD);
         
         // Title
-        Component title = Component.literal("✦ Ascension ✦").withStyle(ChatFormatting.GOLD, ChatFormatting.BOLD);
-        graphics.drawCenteredString(this.font, title, centerX, renderY + 10, COLOR_GOLD);
+        graphics.drawCenteredString(this.font, TITLE, centerX, renderY + 10, COLOR_GOLD);
         
         // Stats section
         int statsY = renderY + 28;
         drawStatsSection(graphics, panelX, statsY);
         
         // Upgrade section header
-        graphics.drawString(this.font, 
-            Component.literal("§7§nUpgrades (" + CATEGORIES[selectedCategory] + ")"),
-            panelX + 10, renderY + 65, COLOR_GRAY, false);
+        graphics.drawString(this.font, headerText, panelX + 10, renderY + 65, COLOR_GRAY, false);
         
         // Upgrade labels
         int startY = renderY + 75;
-        int spacing = 34;
+        int spacing = getRowSpacing(categoryUpgrades.size());
         
-        switch (selectedCategory) {
-            case 0 -> {
-                drawUpgradeRow(graphics, panelX + 15, startY, "§c❤ Vitality", "+2 Hearts/lvl", AscendancyClient.healthLevel);
-                drawUpgradeRow(graphics, panelX + 15, startY + spacing, "§c⚔ Might", "+5% Damage/lvl", AscendancyClient.damageLevel);
-                drawUpgradeRow(graphics, panelX + 15, startY + spacing * 2, "§c🛡 Resilience", "+1 Armor/lvl", AscendancyClient.defenseLevel);
-            }
-            case 1 -> {
-                drawUpgradeRow(graphics, panelX + 15, startY, "§a⚡ Swiftness", "+3% Speed/lvl", AscendancyClient.speedLevel);
-                drawUpgradeRow(graphics, panelX + 15, startY + spacing, "§a✋ Titan's Reach", "+0.5 Reach/lvl", AscendancyClient.reachLevel);
-                drawUpgradeRow(graphics, panelX + 15, startY + spacing * 2, "§a⛏ Haste", "+8% Mining/lvl", AscendancyClient.miningLevel);
-            }
-            case 2 -> {
-                drawUpgradeRow(graphics, panelX + 15, startY, "§d🍀 Fortune", "+5% Luck/lvl", AscendancyClient.luckLevel);
-                drawUpgradeRow(graphics, panelX + 15, startY + spacing, "§d✦ Wisdom", "+10% Soul XP/lvl", AscendancyClient.wisdomLevel);
-                drawUpgradeRow(graphics, panelX + 15, startY + spacing * 2, "§d📦 Keeper", "+1 Keep Amount", AscendancyClient.keeperLevel);
-            }
+        for (int i = 0; i < categoryUpgrades.size(); i++) {
+            drawUpgradeRow(graphics, panelX + 15, startY + spacing * i, i);
         }
         
         // Soul progress bar at bottom
@@ -247,68 +323,71 @@ public class AscensionScreen extends Screen {
     
     private void drawStatsSection(GuiGraphics graphics, int panelX, int y) {
         // Prestige Points
-        graphics.drawString(this.font,
-            Component.literal("§ePrestige Points: §f" + AscendancyClient.prestigePoints),
-            panelX + 10, y, COLOR_WHITE, true);
+        graphics.drawString(this.font, prestigeText, panelX + 10, y, COLOR_WHITE, true);
         
         // Ascension Count
-        graphics.drawString(this.font,
-            Component.literal("§7Ascensions: §f" + AscendancyClient.ascensionCount),
-            panelX + 180, y, COLOR_GRAY, true);
+        graphics.drawString(this.font, ascensionsText, panelX + 180, y, COLOR_GRAY, true);
         
         // Next reward preview
-        int nextReward = 5 + AscendancyClient.ascensionCount;
-        graphics.drawString(this.font,
-            Component.literal("§8Next Ascend: +" + nextReward + " pts"),
-            panelX + 280, y, 0xFF666666, true);
+        graphics.drawString(this.font, nextRewardText, panelX + 280, y, 0xFF666666, true);
     }
     
-    private void drawUpgradeRow(GuiGraphics graphics, int x, int y, String name, String effect, int level) {
+    private void drawUpgradeRow(GuiGraphics graphics, int x, int y, int row) {
         // Name
-        graphics.drawString(this.font, name, x, y + 3, COLOR_WHITE, false);
+        graphics.drawString(this.font, categoryUpgrades.get(row).name(), x, y + 3, COLOR_WHITE, false);
         
         // Level
-        String levelStr = "Lv." + level;
-        graphics.drawString(this.font, levelStr, x + 100, y + 3, COLOR_CYAN, true);
+        graphics.drawString(this.font, rowLevels[row], x + 100, y + 3, COLOR_CYAN, true);
         
         // Effect
-        graphics.drawString(this.font, "§8" + effect, x, y + 15, 0xFF555555, false);
+        graphics.drawString(this.font, rowEffects[row], x, y + 15, 0xFF555555, false);
         
         // Cost for next level
-        int cost = AscendancyClient.getUpgradeCost(level);
-        boolean canAfford = AscendancyClient.canAfford(level);
-        int costColor = canAfford ? COLOR_GREEN : COLOR_RED;
-        graphics.drawString(this.font, "§7Next: §f" + cost + " pts", x + 140, y + 15, costColor, false);
+        int costColor = rowAffordable[row] ? COLOR_GREEN : COLOR_RED;
+        graphics.drawString(this.font, rowCosts[row], x + 140, y + 15, costColor, false);
+    }
+    
+    private List<UpgradeDefinition> getUpgradesInCategory() {
+        UpgradeDefinition.Category category = CATEGORY_KEYS[selectedCategory];
+        List<UpgradeDefinition> result = new ArrayList<>();
+        for (UpgradeDefinition upgrade : bound.upgrades()) {
+            if (upgrade.category() == category) {
+                result.add(upgrade);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Rows tighten up when a datapack adds more than fit at the default spacing
+     */
+    private static int getRowSpacing(int rows) {
+        return rows <= 0 ? 34 : Math.min(34, UPGRADE_AREA_HEIGHT / rows);
     }
     
     private void drawSoulProgressBar(GuiGraphics graphics, int panelX, int y) {
         int barX = panelX + 20;
         int barWidth = panelWidth - 40;
         int barHeight = 16;
-        
-        float progress = AscendancyClient.getSoulProgress();
-        int percent = (int)(progress * 100);
+        boolean ready = bound.canAscend();
         
         // Background
         graphics.fill(barX, y, barX + barWidth, y + barHeight, 0xFF0A0A15);
         graphics.renderOutline(barX, y, barWidth, barHeight, 0xFF333355);
         
         // Filled portion
-        int fillWidth = (int)(barWidth * progress);
+        int fillWidth = (int)(barWidth * bound.soulProgress());
         if (fillWidth > 0) {
-            int fillColor = AscendancyClient.canAscend() ? COLOR_GREEN : COLOR_GOLD;
+            int fillColor = ready ? COLOR_GREEN : COLOR_GOLD;
             graphics.fill(barX + 1, y + 1, barX + fillWidth - 1, y + barHeight - 1, fillColor);
         }
         
         // Text
-        String text = "Soul Energy: " + percent + "% (" + AscendancyClient.soulXP + "/" + AscendancyClient.maxSoulXP + ")";
-        graphics.drawCenteredString(this.font, text, centerX, y + 4, COLOR_WHITE);
+        graphics.drawCenteredString(this.font, soulText, centerX, y + 4, COLOR_WHITE);
         
         // Ready message
-        if (AscendancyClient.canAscend()) {
-            graphics.drawCenteredString(this.font, 
-                Component.literal("§a§l✦ Ready to Ascend! ✦"),
-                centerX, y + barHeight + 5, COLOR_GREEN);
+        if (ready) {
+            graphics.drawCenteredString(this.font, READY_TEXT, centerX, y + barHeight + 5, COLOR_GREEN);
         }
     }
     
@@ -1,6 +1,8 @@
 package com.uipg9.ascendancy.client.gui;
 
 import com.uipg9.ascendancy.client.AscendancyClient;
+import com.uipg9.ascendancy.client.ClientSnapshot;
+import com.uipg9.ascendancy.data.UpgradeDefinition;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.ChatFormatting;
@@ -11,9 +13,11 @@ import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.client.resources.sounds.SimpleSoundInstance;
 import net.minecraft.network.chat.Component;
 import net.minecraft.sounds.SoundEvents;
+import net.minecraft.util.FormattedCharSequence;
 import net.minecraft.util.Mth;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -55,15 +59,21 @@ public class GuideScreen extends Screen {
     private final List<GuideEntry> entries = new ArrayList<>();
     private int currentSection = 0;
     
+    // Wrapped layout per section, valid for one content width + GUI scale
+    private final Layout[] layouts = new Layout[SECTIONS.length];
+    private int layoutWidth = -1;
+    private double layoutScale = -1;
+    
     // Sections
     private static final String[] SECTIONS = {
         "Overview", "Getting Started", "Soul Energy", "Ascension", 
         "Upgrades", "New Features", "Tips & Tricks", "Quick Reference"
     };
     
+    private static final Component TITLE = Component.literal("§6§l✦ Ascendancy Guide ✦");
+    
     public GuideScreen() {
         super(Component.literal("Ascendancy Guide"));
-        buildContent();
     }
     
     private void buildContent() {
@@ -212,7 +222,7 @@ public class GuideScreen extends Screen {
         addText("Level 0→1: 1 point");
         addText("Level 1→2: 2 points");
         addText("Costs scale by §e1.3x§f each level!");
-        addText("No cap - upgrade forever!");
+        addText("Built-ins have no cap - upgrade forever!");
     }
     
     private void buildNewFeatures() {
@@ -311,19 +321,16 @@ public class GuideScreen extends Screen {
         addText("§f[Percentage]§7 - How close to ascend");
         addSpacer();
         addSubtitle("§eYour Current Stats:");
-        addText("Ascension Count: §e" + AscendancyClient.ascensionCount);
-        addText("Prestige Points: §e" + AscendancyClient.prestigePoints);
-        addText("Total Earned: §e" + AscendancyClient.totalPrestigeEarned);
+        ClientSnapshot data = AscendancyClient.snapshot();
+        addText("Ascension Count: §e" + data.ascensionCount());
+        addText("Prestige Points: §e" + data.prestigePoints());
+        addText("Total Earned: §e" + data.totalPrestigeEarned());
         addSpacer();
         addSubtitle("§eYour Upgrades:");
-        addText("Vitality: §c" + AscendancyClient.healthLevel);
-        addText("Swiftness: §a" + AscendancyClient.speedLevel);
-        addText("Reach: §a" + AscendancyClient.reachLevel);
-        addText("Haste: §a" + AscendancyClient.miningLevel);
-        addText("Fortune: §d" + AscendancyClient.luckLevel);
-        addText("Might: §c" + AscendancyClient.damageLevel);
-        addText("Resilience: §c" + AscendancyClient.defenseLevel);
-        addText("Wisdom: §d" + AscendancyClient.experienceLevel);
+        for (UpgradeDefinition upgrade : data.upgrades()) {
+            if (upgrade.category() == UpgradeDefinition.Category.HIDDEN) continue;
+            addText(upgrade.name() + ": §f" + data.upgradeLevel(upgrade.ordinal()));
+        }
     }
     
     // Helper methods for content
@@ -363,7 +370,6 @@ public class GuideScreen extends Screen {
                     currentSection = section;
                     scrollOffset = 0;
                     targetScroll = 0;
-                    buildContent();
                 }
             ).bounds(panelX + 5, buttonY + (i * 22), 90, 18).build();
             this.addRenderableWidget(btn);
@@ -395,9 +401,7 @@ public class GuideScreen extends Screen {
         graphics.fill(panelX + 1, panelY + 1, panelX + panelWidth - 1, panelY + 3, COLOR_GOLD);
         
         // Title
-        graphics.drawCenteredString(this.font, 
-            Component.literal("§6§l✦ Ascendancy Guide ✦"), 
-            centerX, panelY + 8, COLOR_GOLD);
+        graphics.drawCenteredString(this.font, TITLE, centerX, panelY + 8, COLOR_GOLD);
         
         // Section divider
         graphics.fill(panelX + 100, panelY + 22, panelX + 101, panelY + panelHeight - 5, COLOR_BORDER);
@@ -405,7 +409,7 @@ public class GuideScreen extends Screen {
         // Content area background
         int contentX = panelX + 105;
         int contentY = panelY + 25;
-        int contentWidth = panelWidth - 115;
+        int contentWidth = getContentWidth();
         int contentHeight = panelHeight - 35;
         
         graphics.fill(contentX, contentY, contentX + contentWidth, contentY + contentHeight, 0xFF0A0A0A);
@@ -414,10 +418,14 @@ public class GuideScreen extends Screen {
         // Enable scissor for content scrolling
         graphics.enableScissor(contentX + 2, contentY + 2, contentX + contentWidth - 2, contentY + contentHeight - 2);
         
-        // Render content
-        int y = contentY + 5 - (int)scrollOffset;
-        for (GuideEntry entry : entries) {
-            y = renderEntry(graphics, entry, contentX + 5, y, contentWidth - 15);
+        // Render only the visible window of lines
+        Layout layout = currentLayout();
+        int scroll = (int)scrollOffset;
+        int originY = contentY + 5 - scroll;
+        int visibleBottom = scroll + contentHeight;
+        for (int i = layout.firstVisible(scroll - 5); i < layout.lines.length && layout.y[i] < visibleBottom; i++) {
+            graphics.drawString(this.font, layout.lines[i], contentX + 5 + layout.x[i], originY + layout.y[i],
+                layout.colors[i], layout.shadows[i]);
         }
         
         graphics.disableScissor();
@@ -435,40 +443,127 @@ public class GuideScreen extends Screen {
         super.render(graphics, mouseX, mouseY, delta);
     }
     
-    private int renderEntry(GuiGraphics graphics, GuideEntry entry, int x, int y, int maxWidth) {
-        switch (entry.type) {
-            case TITLE:
-                graphics.drawString(this.font, "§6§l" + entry.text, x, y + 2, COLOR_GOLD, true);
-                return y + LINE_HEIGHT + 6;
-            case SUBTITLE:
-                graphics.drawString(this.font, entry.text, x, y + 1, COLOR_WHITE, false);
-                return y + LINE_HEIGHT + 2;
-            case TEXT:
-                graphics.drawString(this.font, "§7" + entry.text, x + 2, y, COLOR_GRAY, false);
-                return y + LINE_HEIGHT;
-            case SPACER:
-                return y + 6;
+    // ==================== LAYOUT CACHE ====================
+    
+    /**
+     * Wrapped lines of one section with their offsets from the top of the content
+     */
+    private static final class Layout {
+        final FormattedCharSequence[] lines;
+        final int[] x;
+        final int[] y;
+        final int[] colors;
+        final boolean[] shadows;
+        final int totalHeight;
+        
+        Layout(List<FormattedCharSequence> lines, List<int[]> placement, List<Boolean> shadows, int totalHeight) {
+            int n = lines.size();
+            this.lines = lines.toArray(new FormattedCharSequence[0]);
+            this.x = new int[n];
+            this.y = new int[n];
+            this.colors = new int[n];
+            this.shadows = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                int[] p = placement.get(i);
+                this.x[i] = p[0];
+                this.y[i] = p[1];
+                this.colors[i] = p[2];
+                this.shadows[i] = shadows.get(i);
+            }
+            this.totalHeight = totalHeight;
+        }
+        
+        /**
+         * Index of the first line whose bottom is below the given offset (y is ascending)
+         */
+        int firstVisible(int top) {
+            int lo = 0;
+            int hi = y.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (y[mid] + LINE_HEIGHT <= top) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
         }
-        return y + LINE_HEIGHT;
     }
     
-    private int getMaxScroll(int contentHeight) {
-        int totalHeight = 0;
+    /**
+     * Width of the scrolling content box, shared by rendering, scrolling and hit testing
+     */
+    private int getContentWidth() {
+        return panelWidth - 115;
+    }
+    
+    /**
+     * Current section wrapped to the content box, less its scrollbar margin
+     */
+    private Layout currentLayout() {
+        return getLayout(getContentWidth() - 15);
+    }
+    
+    private Layout getLayout(int maxWidth) {
+        double scale = this.minecraft.getWindow().getGuiScale();
+        if (maxWidth != layoutWidth || scale != layoutScale) {
+            Arrays.fill(layouts, null);
+            layoutWidth = maxWidth;
+            layoutScale = scale;
+        }
+        Layout layout = layouts[currentSection];
+        if (layout == null) {
+            buildContent();
+            layout = buildLayout(maxWidth);
+            layouts[currentSection] = layout;
+        }
+        return layout;
+    }
+    
+    /**
+     * Wrap every entry once; entry spacing matches the original single-line layout
+     */
+    private Layout buildLayout(int maxWidth) {
+        List<FormattedCharSequence> lines = new ArrayList<>();
+        List<int[]> placement = new ArrayList<>();
+        List<Boolean> shadows = new ArrayList<>();
+        int y = 0;
+        
         for (GuideEntry entry : entries) {
-            totalHeight += switch (entry.type) {
-                case TITLE -> LINE_HEIGHT + 6;
-                case SUBTITLE -> LINE_HEIGHT + 2;
-                case TEXT -> LINE_HEIGHT;
-                case SPACER -> 6;
-            };
+            String text;
+            int x;
+            int yOffset;
+            int color;
+            boolean shadow;
+            int height;
+            switch (entry.type) {
+                case TITLE -> { text = "§6§l" + entry.text; x = 0; yOffset = 2; color = COLOR_GOLD; shadow = true; height = LINE_HEIGHT + 6; }
+                case SUBTITLE -> { text = entry.text; x = 0; yOffset = 1; color = COLOR_WHITE; shadow = false; height = LINE_HEIGHT + 2; }
+                case TEXT -> { text = "§7" + entry.text; x = 2; yOffset = 0; color = COLOR_GRAY; shadow = false; height = LINE_HEIGHT; }
+                default -> { y += 6; continue; }
+            }
+            
+            List<FormattedCharSequence> wrapped = this.font.split(Component.literal(text), maxWidth - x);
+            for (int i = 0; i < wrapped.size(); i++) {
+                lines.add(wrapped.get(i));
+                placement.add(new int[] { x, y + yOffset + i * LINE_HEIGHT, color });
+                shadows.add(shadow);
+            }
+            y += height + Math.max(0, wrapped.size() - 1) * LINE_HEIGHT;
         }
+        return new Layout(lines, placement, shadows, y);
+    }
+    
+    private int getMaxScroll(int contentHeight) {
+        int totalHeight = currentLayout().totalHeight;
         return Math.max(0, totalHeight - contentHeight + 20);
     }
     
     @Override
     public boolean mouseScrolled(double mouseX, double mouseY, double horizontalAmount, double verticalAmount) {
         int contentX = panelX + 105;
-        int contentWidth = panelWidth - 115;
+        int contentWidth = getContentWidth();
         int contentY = panelY + 25;
         int contentHeight = panelHeight - 35;
         
@@ -1,6 +1,7 @@
 package com.uipg9.ascendancy.client.gui;
 
 import com.uipg9.ascendancy.client.AscendancyClient;
+import com.uipg9.ascendancy.data.UpgradeRegistry;
 import com.uipg9.ascendancy.network.AscendancyNetworking;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -197,7 +198,7 @@ public class ItemSelectionScreen extends Screen {
      */
     private int getKeepAmount() {
         // Base: 1, +1 per Keeper level
-        return 1 + AscendancyClient.keeperLevel;
+        return 1 + AscendancyClient.snapshot().upgradeLevel(UpgradeRegistry.KEEPER);
     }
     
     private void playClickSound() {
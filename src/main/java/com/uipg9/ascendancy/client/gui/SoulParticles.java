@@ -0,0 +1,119 @@
+package com.uipg9.ascendancy.client.gui;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+
+/**
+ * Fixed-capacity soul particle swarm for the ascension loading screen.
+ *
+ * State is kept as parallel arrays and stepped once per tick (that's where the trig
+ * happens); frames only interpolate between the previous and current positions.
+ * Particles orbit the screen center on a flattened ellipse and drift outward.
+ */
+@Environment(EnvType.CLIENT)
+public class SoulParticles {
+
+    private static final int CAPACITY = 256;
+    private static final int SPAWN_PER_TICK = 6;
+    private static final int MIN_LIFE = 30;
+    private static final int MAX_LIFE = 70;
+
+    private static final int COLOR_GOLD = 0xFFD700;
+    private static final int COLOR_PURPLE = 0xAA55FF;
+
+    private final RandomSource random = RandomSource.create();
+
+    // Polar state, stepped per tick
+    private final float[] angle = new float[CAPACITY];
+    private final float[] radius = new float[CAPACITY];
+    private final float[] spin = new float[CAPACITY];
+    private final float[] drift = new float[CAPACITY];
+
+    // Offsets from center at the previous and current tick
+    private final float[] prevX = new float[CAPACITY];
+    private final float[] prevY = new float[CAPACITY];
+    private final float[] x = new float[CAPACITY];
+    private final float[] y = new float[CAPACITY];
+
+    private final int[] age = new int[CAPACITY];
+    private final int[] life = new int[CAPACITY];
+    private final int[] size = new int[CAPACITY];
+    private final int[] color = new int[CAPACITY];
+
+    // Live particles are packed into [0, count)
+    private int count = 0;
+
+    public void tick() {
+        // Age out, swapping the last live particle into the freed slot
+        for (int i = 0; i < count; ) {
+            if (++age[i] >= life[i]) {
+                moveParticle(--count, i);
+            } else {
+                i++;
+            }
+        }
+
+        for (int n = 0; n < SPAWN_PER_TICK && count < CAPACITY; n++) {
+            spawn(count++);
+        }
+
+        for (int i = 0; i < count; i++) {
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            angle[i] += spin[i];
+            radius[i] += drift[i];
+            x[i] = Mth.cos(angle[i]) * radius[i];
+            y[i] = Mth.sin(angle[i]) * radius[i] * 0.5f; // Elliptical
+        }
+    }
+
+    private void spawn(int i) {
+        angle[i] = random.nextFloat() * Mth.TWO_PI;
+        radius[i] = 30 + random.nextFloat() * 60;
+        spin[i] = (0.01f + random.nextFloat() * 0.03f) * (random.nextBoolean() ? 1 : -1);
+        drift[i] = 0.2f + random.nextFloat() * 0.8f;
+        x[i] = prevX[i] = Mth.cos(angle[i]) * radius[i];
+        y[i] = prevY[i] = Mth.sin(angle[i]) * radius[i] * 0.5f;
+        age[i] = 0;
+        life[i] = MIN_LIFE + random.nextInt(MAX_LIFE - MIN_LIFE);
+        size[i] = 1 + random.nextInt(3);
+        color[i] = random.nextBoolean() ? COLOR_GOLD : COLOR_PURPLE;
+    }
+
+    private void moveParticle(int from, int to) {
+        angle[to] = angle[from];
+        radius[to] = radius[from];
+        spin[to] = spin[from];
+        drift[to] = drift[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        x[to] = x[from];
+        y[to] = y[from];
+        age[to] = age[from];
+        life[to] = life[from];
+        size[to] = size[from];
+        color[to] = color[from];
+    }
+
+    /**
+     * Draw every live particle. Fills go into the frame's GUI render state, which
+     * batches consecutive quads of the same pipeline into a single vertex buffer.
+     */
+    public void render(GuiGraphics graphics, int centerX, int centerY, float partialTick, float alpha) {
+        float maxAlpha = alpha * 100;
+        for (int i = 0; i < count; i++) {
+            // Fade in and out over the particle's life
+            float t = (age[i] + partialTick) / life[i];
+            int a = (int)(maxAlpha * Mth.sin(t * Mth.PI));
+            if (a <= 0) continue;
+
+            int px = centerX + (int) Mth.lerp(partialTick, prevX[i], x[i]);
+            int py = centerY + (int) Mth.lerp(partialTick, prevY[i], y[i]);
+            int s = size[i];
+            graphics.fill(px - s, py - s, px + s, py + s, (a << 24) | color[i]);
+        }
+    }
+}
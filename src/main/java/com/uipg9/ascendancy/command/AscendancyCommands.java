@@ -0,0 +1,127 @@
+package com.uipg9.ascendancy.command;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.uipg9.ascendancy.systems.SessionManager;
+import com.uipg9.ascendancy.systems.SoulCravingManager;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Player commands:
+ * - /ascendancy cravings: progress on this life's Soul's Cravings
+ *
+ * Admin commands (permission level 2):
+ * - /ascendancy sessions: per-subsystem player counts and estimated heap use
+ * - /ascendancy profiles: online and recently seen players, most ascended first
+ * - /ascendancy profile <name|uuid>: one player's profile, online or offline
+ */
+public class AscendancyCommands {
+
+    private static final int MAX_LISTED_PROFILES = 10;
+
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+            dispatcher.register(Commands.literal("ascendancy")
+                .then(Commands.literal("cravings").executes(AscendancyCommands::cravings))
+                .then(Commands.literal("sessions")
+                    .requires(Commands.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                    .executes(AscendancyCommands::sessions))
+                .then(Commands.literal("profiles")
+                    .requires(Commands.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                    .executes(AscendancyCommands::profiles))
+                .then(Commands.literal("profile")
+                    .requires(Commands.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                    .then(Commands.argument("player", StringArgumentType.word())
+                        .executes(AscendancyCommands::profile)))));
+    }
+
+    private static int cravings(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        ServerPlayer player = context.getSource().getPlayerOrException();
+        if (!SessionManager.isReady(player)) return 0;
+
+        String text = "§d§l✦ Your Soul Craves... ✦\n" + SoulCravingManager.getProgressDisplay(player);
+        context.getSource().sendSuccess(() -> Component.literal(text), false);
+        return 1;
+    }
+
+    private static int sessions(CommandContext<CommandSourceStack> context) {
+        List<SessionManager.Metrics> metrics = SessionManager.metrics();
+        long totalBytes = 0;
+        StringBuilder lines = new StringBuilder("§6✦ Ascendancy sessions ✦");
+        for (SessionManager.Metrics entry : metrics) {
+            totalBytes += entry.estimatedBytes();
+            lines.append("\n§7").append(entry.name()).append(": §f").append(entry.trackedPlayers())
+                .append(" players §8(~").append(entry.estimatedBytes() / 1024).append(" KiB)");
+        }
+        lines.append("\n§7Total: §f~").append(totalBytes / 1024).append(" KiB");
+
+        String text = lines.toString();
+        context.getSource().sendSuccess(() -> Component.literal(text), false);
+        return metrics.size();
+    }
+
+    private static int profiles(CommandContext<CommandSourceStack> context) {
+        List<SessionManager.OfflineProfile> profiles = SessionManager.profiles(context.getSource().getServer());
+        profiles.sort(Comparator.comparingInt(SessionManager.OfflineProfile::ascensionCount).reversed());
+
+        StringBuilder lines = new StringBuilder("§6✦ Ascendancy profiles (" + profiles.size() + ") ✦");
+        for (SessionManager.OfflineProfile profile : profiles.subList(0, Math.min(MAX_LISTED_PROFILES, profiles.size()))) {
+            lines.append('\n').append(describe(profile));
+        }
+
+        String text = lines.toString();
+        context.getSource().sendSuccess(() -> Component.literal(text), false);
+        return profiles.size();
+    }
+
+    private static int profile(CommandContext<CommandSourceStack> context) {
+        MinecraftServer server = context.getSource().getServer();
+        String query = StringArgumentType.getString(context, "player");
+        UUID playerId = resolve(server, query);
+        SessionManager.OfflineProfile profile = playerId != null ? SessionManager.getProfile(server, playerId) : null;
+        if (profile == null) {
+            context.getSource().sendFailure(Component.literal("No Ascendancy profile for " + query));
+            return 0;
+        }
+
+        String text = describe(profile);
+        context.getSource().sendSuccess(() -> Component.literal(text), false);
+        return 1;
+    }
+
+    // ==================== INTERNAL ====================
+
+    /**
+     * A UUID as typed, or the player with that name among online and recently seen players
+     */
+    private static UUID resolve(MinecraftServer server, String query) {
+        try {
+            return UUID.fromString(query);
+        } catch (IllegalArgumentException notUuid) {
+            ServerPlayer online = server.getPlayerList().getPlayerByName(query);
+            if (online != null) return online.getUUID();
+            for (SessionManager.OfflineProfile profile : SessionManager.profiles(server)) {
+                if (profile.name().equalsIgnoreCase(query)) return profile.playerId();
+            }
+            return null;
+        }
+    }
+
+    private static String describe(SessionManager.OfflineProfile profile) {
+        long minutesAgo = Math.max(0, (System.currentTimeMillis() - profile.lastSeen()) / 60_000L);
+        return "§e" + profile.name() + " §7- ascensions: §f" + profile.ascensionCount()
+            + "§7, prestige earned: §f" + profile.totalPrestigeEarned()
+            + "§7, achievements: §f" + profile.achievementsUnlocked()
+            + "§8 (seen " + minutesAgo + " min ago)";
+    }
+}
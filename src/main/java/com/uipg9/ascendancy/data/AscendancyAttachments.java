@@ -1,12 +1,13 @@
 package com.uipg9.ascendancy.data;
 
+import com.mojang.serialization.Codec;
 import com.uipg9.ascendancy.AscendancyMod;
 import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
 import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
 import net.minecraft.resources.Identifier;
 
 /**
- * Registers the Ascendancy data attachment using Fabric API.
+ * Registers the Ascendancy data attachments using Fabric API.
  * This handles automatic persistence and death copying.
  */
 public class AscendancyAttachments {
@@ -24,6 +25,39 @@ public class AscendancyAttachments {
             .initializer(() -> AscendancyData.DEFAULT)
     );
     
+    /**
+     * Constellation chosen for the current life, by enum name.
+     * Stored on the player so it survives relogging; cleared on ascension.
+     */
+    public static final AttachmentType<String> CONSTELLATION = AttachmentRegistry.create(
+        Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "constellation"),
+        builder -> builder
+            .persistent(Codec.STRING)
+            .copyOnDeath()
+    );
+    
+    /**
+     * Player-placed rewardable blocks in a chunk (see {@link PlacedBlockMask}).
+     * Persistent with the chunk; only attached to chunks that have some.
+     */
+    public static final AttachmentType<PlacedBlockMask> PLACED_BLOCKS = AttachmentRegistry.create(
+        Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "placed_blocks"),
+        builder -> builder
+            .persistent(PlacedBlockMask.CODEC)
+            .initializer(PlacedBlockMask::new)
+    );
+    
+    /**
+     * Legacy vault chests in a chunk and what has been paged out of them
+     * (see {@link LegacyVaultIndex}). Persistent with the chunk.
+     */
+    public static final AttachmentType<LegacyVaultIndex> LEGACY_VAULTS = AttachmentRegistry.create(
+        Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "legacy_vaults"),
+        builder -> builder
+            .persistent(LegacyVaultIndex.CODEC)
+            .initializer(LegacyVaultIndex::new)
+    );
+
     /**
      * Call this during mod initialization to ensure the attachment is registered.
      */
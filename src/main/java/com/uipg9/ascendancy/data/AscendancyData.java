@@ -1,13 +1,27 @@
 package com.uipg9.ascendancy.data;
 
 import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import com.uipg9.ascendancy.AscendancyMod;
+import net.minecraft.resources.Identifier;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * Immutable data record for Ascendancy player stats.
  * Used with Fabric Data Attachment API for automatic persistence.
- * 
- * INFINITE PROGRESSION: No max upgrade level - costs scale exponentially!
+ *
+ * INFINITE PROGRESSION: costs scale exponentially; levels are only capped by an
+ * upgrade's optional max_level (0 = uncapped, as for every built-in).
+ *
+ * Upgrade levels live in a single array indexed by {@link UpgradeRegistry} ordinal,
+ * so new upgrades need no schema change. Levels of upgrades the registry doesn't have
+ * right now (a disabled datapack, a JSON that failed to parse) are kept by id and come
+ * back with the upgrade.
  */
 public record AscendancyData(
     int soulXP,
@@ -16,138 +30,238 @@ public record AscendancyData(
     int lastKnownXP,
     boolean notified,
     int totalPrestigeEarned,
-    // Original upgrades
-    int healthLevel,
-    int speedLevel,
-    int reachLevel,
-    int miningLevel,
-    // New upgrade categories
-    int luckLevel,
-    int damageLevel,
-    int defenseLevel,
-    int experienceLevel,
-    // v2.1 upgrades
-    int keeperLevel,  // Items to keep on ascension
-    int wisdomLevel   // Soul XP multiplier
+    int[] upgradeLevels,  // Indexed by UpgradeDefinition.ordinal(), may be shorter than the registry
+    Map<Identifier, Integer> unknownUpgrades  // Levels of upgrades not currently registered, by id
 ) {
-    
+
     // Default values for new players
     public static final AscendancyData DEFAULT = new AscendancyData(
-        0, 0, 0, 0, false, 0,
-        0, 0, 0, 0,
-        0, 0, 0, 0,
-        0, 0  // v2.1 defaults
+        0, 0, 0, 0, false, 0, new int[0], Map.of()
     );
-    
+
     /**
-     * Codec for serialization/deserialization.
-     * This is used by Fabric API to persist the data.
-     * NOTE: RecordCodecBuilder has 16-field limit. We have 16 now - at the limit!
+     * Pre-registry layout: one named field per upgrade. Read-only, for old saves.
      */
-    public static final Codec<AscendancyData> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+    private static final Codec<AscendancyData> LEGACY_CODEC = RecordCodecBuilder.create(instance -> instance.group(
         Codec.INT.fieldOf("soul_xp").forGetter(AscendancyData::soulXP),
         Codec.INT.fieldOf("prestige_points").forGetter(AscendancyData::prestigePoints),
         Codec.INT.fieldOf("ascension_count").forGetter(AscendancyData::ascensionCount),
         Codec.INT.fieldOf("last_known_xp").forGetter(AscendancyData::lastKnownXP),
         Codec.BOOL.fieldOf("notified").forGetter(AscendancyData::notified),
         Codec.INT.optionalFieldOf("total_prestige_earned", 0).forGetter(AscendancyData::totalPrestigeEarned),
-        Codec.INT.fieldOf("health_level").forGetter(AscendancyData::healthLevel),
-        Codec.INT.fieldOf("speed_level").forGetter(AscendancyData::speedLevel),
-        Codec.INT.fieldOf("reach_level").forGetter(AscendancyData::reachLevel),
-        Codec.INT.fieldOf("mining_level").forGetter(AscendancyData::miningLevel),
-        Codec.INT.optionalFieldOf("luck_level", 0).forGetter(AscendancyData::luckLevel),
-        Codec.INT.optionalFieldOf("damage_level", 0).forGetter(AscendancyData::damageLevel),
-        Codec.INT.optionalFieldOf("defense_level", 0).forGetter(AscendancyData::defenseLevel),
-        Codec.INT.optionalFieldOf("experience_level", 0).forGetter(AscendancyData::experienceLevel),
-        Codec.INT.optionalFieldOf("keeper_level", 0).forGetter(AscendancyData::keeperLevel),
-        Codec.INT.optionalFieldOf("wisdom_level", 0).forGetter(AscendancyData::wisdomLevel)
-    ).apply(instance, AscendancyData::new));
-    
+        Codec.INT.fieldOf("health_level").forGetter(d -> d.upgradeLevel(UpgradeRegistry.VITALITY)),
+        Codec.INT.fieldOf("speed_level").forGetter(d -> d.upgradeLevel(UpgradeRegistry.SWIFTNESS)),
+        Codec.INT.fieldOf("reach_level").forGetter(d -> d.upgradeLevel(UpgradeRegistry.REACH)),
+        Codec.INT.fieldOf("mining_level").forGetter(d -> d.upgradeLevel(UpgradeRegistry.HASTE)),
+        Codec.INT.optionalFieldOf("luck_level", 0).forGetter(d -> d.upgradeLevel(UpgradeRegistry.FORTUNE)),
+        Codec.INT.optionalFieldOf("damage_level", 0).forGetter(d -> d.upgradeLevel(UpgradeRegistry.MIGHT)),
+        Codec.INT.optionalFieldOf("defense_level", 0).forGetter(d -> d.upgradeLevel(UpgradeRegistry.RESILIENCE)),
+        Codec.INT.optionalFieldOf("experience_level", 0).forGetter(d -> d.upgradeLevel(UpgradeRegistry.EXPERIENCE)),
+        Codec.INT.optionalFieldOf("keeper_level", 0).forGetter(d -> d.upgradeLevel(UpgradeRegistry.KEEPER)),
+        Codec.INT.optionalFieldOf("wisdom_level", 0).forGetter(d -> d.upgradeLevel(UpgradeRegistry.WISDOM))
+    ).apply(instance, (soulXP, prestige, ascensions, lastXP, notified, totalEarned,
+                       health, speed, reach, mining, luck, damage, defense, experience, keeper, wisdom) ->
+        new AscendancyData(soulXP, prestige, ascensions, lastXP, notified, totalEarned,
+            new int[] { health, speed, reach, mining, luck, damage, defense, experience, keeper, wisdom }, Map.of())));
+
+    /**
+     * Named-field layout with an id -> level upgrade map. Read-only since the compact encoding.
+     */
+    private static final Codec<AscendancyData> NAMED_CODEC = RecordCodecBuilder.create(instance -> instance.group(
+        Codec.INT.fieldOf("soul_xp").forGetter(AscendancyData::soulXP),
+        Codec.INT.fieldOf("prestige_points").forGetter(AscendancyData::prestigePoints),
+        Codec.INT.fieldOf("ascension_count").forGetter(AscendancyData::ascensionCount),
+        Codec.INT.fieldOf("last_known_xp").forGetter(AscendancyData::lastKnownXP),
+        Codec.BOOL.fieldOf("notified").forGetter(AscendancyData::notified),
+        Codec.INT.optionalFieldOf("total_prestige_earned", 0).forGetter(AscendancyData::totalPrestigeEarned),
+        Codec.unboundedMap(Identifier.CODEC, Codec.INT).fieldOf("upgrades").forGetter(AscendancyData::upgradesById)
+    ).apply(instance, (soulXP, prestige, ascensions, lastXP, notified, totalEarned, upgrades) ->
+        new AscendancyData(soulXP, prestige, ascensions, lastXP, notified, totalEarned,
+            UpgradeRegistry.toLevels(upgrades), UpgradeRegistry.unknownLevels(upgrades))));
+
+    // ==================== COMPACT ENCODING ====================
+
+    /*
+     * Compact layout, an int array plus datapack upgrade levels by id:
+     *   stats[0]     schema version
+     *   stats[1..6]  soulXP, prestigePoints, ascensionCount, lastKnownXP, notified (0/1), totalPrestigeEarned
+     *   stats[7]     B = number of built-in levels that follow
+     *   stats[8..]   B built-in levels by ordinal
+     *   upgrades     id -> level for datapack upgrades with a non-zero level, and for upgrades
+ *                that are not registered right now; omitted when empty
+     *
+     * Version 1 was a bare array with (id hash, level) pairs appended. Hashes can collide,
+     * so it is only read now, to migrate existing saves.
+     */
+    private static final int COMPACT_VERSION = 2;
+    private static final int HASHED_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private record Compact(int[] stats, Map<Identifier, Integer> upgrades) {
+        static final Codec<Compact> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.INT_STREAM.xmap(IntStream::toArray, Arrays::stream).fieldOf("stats").forGetter(Compact::stats),
+            Codec.unboundedMap(Identifier.CODEC, Codec.INT).optionalFieldOf("upgrades", Map.of()).forGetter(Compact::upgrades)
+        ).apply(instance, Compact::new));
+    }
+
+    private static final Codec<AscendancyData> COMPACT_CODEC =
+        Compact.CODEC.comapFlatMap(AscendancyData::fromCompact, AscendancyData::toCompact);
+
+    private static final Codec<AscendancyData> HASHED_CODEC =
+        Codec.INT_STREAM.comapFlatMap(stream -> fromHashed(stream.toArray()), data -> IntStream.of(data.toCompact().stats()));
+
+    /**
+     * Codec for serialization/deserialization.
+     * This is used by Fabric API to persist the data.
+     * Always writes the compact layout; older saves are migrated on read.
+     */
+    public static final Codec<AscendancyData> CODEC = Codec.withAlternative(
+        COMPACT_CODEC,
+        Codec.withAlternative(HASHED_CODEC, Codec.withAlternative(NAMED_CODEC, LEGACY_CODEC))
+    );
+
+    private Compact toCompact() {
+        int builtins = Math.min(UpgradeRegistry.BUILTIN_COUNT, upgradeLevels.length);
+        int[] stats = new int[HEADER_SIZE + builtins];
+        stats[0] = COMPACT_VERSION;
+        stats[1] = soulXP;
+        stats[2] = prestigePoints;
+        stats[3] = ascensionCount;
+        stats[4] = lastKnownXP;
+        stats[5] = notified ? 1 : 0;
+        stats[6] = totalPrestigeEarned;
+        stats[7] = builtins;
+        System.arraycopy(upgradeLevels, 0, stats, HEADER_SIZE, builtins);
+
+        Map<Identifier, Integer> extras = new LinkedHashMap<>(unknownUpgrades);
+        for (int i = builtins; i < upgradeLevels.length; i++) {
+            if (upgradeLevels[i] == 0) continue;
+            UpgradeDefinition def = UpgradeRegistry.byOrdinal(i);
+            if (def != null) extras.put(def.id(), upgradeLevels[i]);
+        }
+        return new Compact(stats, extras);
+    }
+
+    private static DataResult<AscendancyData> fromCompact(Compact compact) {
+        int[] in = compact.stats();
+        return readStats(in, COMPACT_VERSION, 0).map(data -> {
+            compact.upgrades().forEach((id, level) -> {
+                UpgradeDefinition def = UpgradeRegistry.byId(id);
+                if (def != null) data.upgradeLevels[def.ordinal()] = level;
+            });
+            return data.withUnknownUpgrades(UpgradeRegistry.unknownLevels(compact.upgrades()));
+        });
+    }
+
+    private static DataResult<AscendancyData> fromHashed(int[] in) {
+        int pairs = in.length >= HEADER_SIZE ? (in.length - HEADER_SIZE - in[7]) / 2 : 0;
+        return readStats(in, HASHED_VERSION, pairs * 2).map(data -> {
+            for (int pos = in.length - pairs * 2; pos < in.length; pos += 2) {
+                UpgradeDefinition match = null;
+                int matches = 0;
+                for (UpgradeDefinition def : UpgradeRegistry.all()) {
+                    if (def.id().toString().hashCode() == in[pos]) {
+                        match = def;
+                        matches++;
+                    }
+                }
+                if (matches == 1) {
+                    data.upgradeLevels[match.ordinal()] = in[pos + 1];
+                } else {
+                    AscendancyMod.LOGGER.warn("Dropping levels for {} upgrade hash {}",
+                        matches == 0 ? "unknown" : "ambiguous", in[pos]);
+                }
+            }
+            return data;
+        });
+    }
+
+    /**
+     * Header and built-in levels, with the level array sized for the current registry.
+     * {@code tail} is the number of ints expected after the built-in levels.
+     */
+    private static DataResult<AscendancyData> readStats(int[] in, int version, int tail) {
+        if (in.length < HEADER_SIZE) {
+            return DataResult.error(() -> "Compact player data too short: " + in.length);
+        }
+        if (in[0] != version) {
+            int found = in[0];
+            return DataResult.error(() -> "Unknown player data version " + found);
+        }
+
+        int builtins = in[7];
+        if (builtins < 0 || tail < 0 || HEADER_SIZE + builtins + tail != in.length) {
+            return DataResult.error(() -> "Malformed compact player data");
+        }
+
+        int[] levels = new int[Math.max(UpgradeRegistry.size(), builtins)];
+        System.arraycopy(in, HEADER_SIZE, levels, 0, builtins);
+        return DataResult.success(new AscendancyData(in[1], in[2], in[3], in[4], in[5] != 0, in[6], levels, Map.of()));
+    }
+
+    // ==================== UPGRADE LEVELS ====================
+
+    public int upgradeLevel(int ordinal) {
+        return ordinal >= 0 && ordinal < upgradeLevels.length ? upgradeLevels[ordinal] : 0;
+    }
+
+    public AscendancyData withUpgradeLevel(int ordinal, int value) {
+        int[] levels = Arrays.copyOf(upgradeLevels, Math.max(upgradeLevels.length, ordinal + 1));
+        levels[ordinal] = value;
+        return withUpgradeLevels(levels);
+    }
+
+    public AscendancyData withUpgradeLevels(int[] levels) {
+        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
+            levels, unknownUpgrades);
+    }
+
+    public AscendancyData withUnknownUpgrades(Map<Identifier, Integer> unknown) {
+        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
+            upgradeLevels, unknown);
+    }
+
+    /**
+     * Every non-zero level by upgrade id, registered or not
+     */
+    public Map<Identifier, Integer> upgradesById() {
+        Map<Identifier, Integer> result = new LinkedHashMap<>(UpgradeRegistry.fromLevels(upgradeLevels));
+        result.putAll(unknownUpgrades);
+        return result;
+    }
+
     // ==================== BUILDER METHODS ====================
-    
+
     public AscendancyData withSoulXP(int value) {
         return new AscendancyData(value, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
+            upgradeLevels, unknownUpgrades);
     }
-    
+
     public AscendancyData withPrestigePoints(int value) {
         return new AscendancyData(soulXP, value, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
+            upgradeLevels, unknownUpgrades);
     }
-    
+
     public AscendancyData withAscensionCount(int value) {
         return new AscendancyData(soulXP, prestigePoints, value, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
+            upgradeLevels, unknownUpgrades);
     }
-    
+
     public AscendancyData withLastKnownXP(int value) {
         return new AscendancyData(soulXP, prestigePoints, ascensionCount, value, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
+            upgradeLevels, unknownUpgrades);
     }
-    
+
     public AscendancyData withNotified(boolean value) {
         return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, value, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
+            upgradeLevels, unknownUpgrades);
     }
-    
+
     public AscendancyData withTotalPrestigeEarned(int value) {
         return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, value,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
+            upgradeLevels, unknownUpgrades);
     }
-    
-    // Original upgrades
-    public AscendancyData withHealthLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            value, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
-    }
-    
-    public AscendancyData withSpeedLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, value, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
-    }
-    
-    public AscendancyData withReachLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, value, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
-    }
-    
-    public AscendancyData withMiningLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, value, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
-    }
-    
-    // New upgrades
-    public AscendancyData withLuckLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, value, damageLevel, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
-    }
-    
-    public AscendancyData withDamageLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, value, defenseLevel, experienceLevel, keeperLevel, wisdomLevel);
-    }
-    
-    public AscendancyData withDefenseLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, value, experienceLevel, keeperLevel, wisdomLevel);
-    }
-    
-    public AscendancyData withExperienceLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, value, keeperLevel, wisdomLevel);
-    }
-    
-    // v2.1 upgrades
-    public AscendancyData withKeeperLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, value, wisdomLevel);
-    }
-    
-    public AscendancyData withWisdomLevel(int value) {
-        return new AscendancyData(soulXP, prestigePoints, ascensionCount, lastKnownXP, notified, totalPrestigeEarned,
-            healthLevel, speedLevel, reachLevel, miningLevel, luckLevel, damageLevel, defenseLevel, experienceLevel, keeperLevel, value);
-    }
-    
+
     /**
      * Reset data for a new ascension cycle.
      * Keeps all upgrades, resets soul XP, increments count
@@ -160,9 +274,8 @@ public record AscendancyData(
             newLastKnownXP,
             false, // Reset notification
             totalPrestigeEarned + prestigeReward, // Track total earned
-            healthLevel, speedLevel, reachLevel, miningLevel,
-            luckLevel, damageLevel, defenseLevel, experienceLevel,
-            keeperLevel, wisdomLevel // v2.1 upgrades persist
+            upgradeLevels, // Upgrades persist
+            unknownUpgrades
         );
     }
 }
@@ -0,0 +1,125 @@
+package com.uipg9.ascendancy.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Per-chunk index of legacy vault chests (see LegacyVaultManager).
+ *
+ * The vault files themselves never change after ascension writes them. What has been
+ * paged out of each one is kept here instead, so it is saved together with the chest
+ * contents it moved into: a crash rolls both back or neither.
+ *
+ * Mutable: callers must mark the chunk unsaved after changing it.
+ */
+public class LegacyVaultIndex {
+
+    /**
+     * One vault chest: items still in the vault, and how many of each pool entry were paged out
+     */
+    public static final class Entry {
+        private int remaining;
+        private final int[] taken;
+
+        private Entry(int remaining, int[] taken) {
+            this.remaining = remaining;
+            this.taken = taken;
+        }
+
+        public int remaining() {
+            return remaining;
+        }
+
+        public int taken(int index) {
+            return index < taken.length ? taken[index] : 0;
+        }
+
+        public void take(int index, int amount) {
+            if (index >= taken.length) return;
+            taken[index] += amount;
+            remaining = Math.max(0, remaining - amount);
+        }
+    }
+
+    private record Stored(long pos, int remaining, int[] taken) {
+        static final Codec<Stored> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.LONG.fieldOf("pos").forGetter(Stored::pos),
+            Codec.INT.fieldOf("remaining").forGetter(Stored::remaining),
+            Codec.INT_STREAM.xmap(IntStream::toArray, Arrays::stream).fieldOf("taken").forGetter(Stored::taken)
+        ).apply(instance, Stored::new));
+    }
+
+    public static final Codec<LegacyVaultIndex> CODEC = Stored.CODEC.listOf().xmap(
+        LegacyVaultIndex::fromStored, LegacyVaultIndex::toStored);
+
+    // Chest position -> entry
+    private final Long2ObjectMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+
+    // ==================== CHUNK ACCESS ====================
+
+    /**
+     * The vault behind the chest at this position, or null. Chunks without vaults answer
+     * from a null attachment, without allocating.
+     */
+    @Nullable
+    public static Entry find(LevelChunk chunk, BlockPos pos) {
+        LegacyVaultIndex index = chunk.getAttached(AscendancyAttachments.LEGACY_VAULTS);
+        return index != null ? index.entries.get(pos.asLong()) : null;
+    }
+
+    /**
+     * Positions of the vault chests in this chunk
+     */
+    public static List<BlockPos> positions(LevelChunk chunk) {
+        LegacyVaultIndex index = chunk.getAttached(AscendancyAttachments.LEGACY_VAULTS);
+        if (index == null) return List.of();
+        List<BlockPos> positions = new ArrayList<>(index.entries.size());
+        for (long pos : index.entries.keySet()) positions.add(BlockPos.of(pos));
+        return positions;
+    }
+
+    public static void add(LevelChunk chunk, BlockPos pos, int remaining, int poolSize) {
+        chunk.getAttachedOrCreate(AscendancyAttachments.LEGACY_VAULTS).entries
+            .put(pos.asLong(), new Entry(remaining, new int[poolSize]));
+        chunk.markUnsaved();
+    }
+
+    public static void remove(LevelChunk chunk, BlockPos pos) {
+        LegacyVaultIndex index = chunk.getAttached(AscendancyAttachments.LEGACY_VAULTS);
+        if (index == null || index.entries.remove(pos.asLong()) == null) return;
+
+        if (index.entries.isEmpty()) {
+            chunk.removeAttached(AscendancyAttachments.LEGACY_VAULTS);
+        }
+        chunk.markUnsaved();
+    }
+
+    // ==================== INTERNAL ====================
+
+    private static LegacyVaultIndex fromStored(List<Stored> list) {
+        LegacyVaultIndex index = new LegacyVaultIndex();
+        for (Stored stored : list) {
+            index.entries.put(stored.pos(), new Entry(stored.remaining(), stored.taken()));
+        }
+        return index;
+    }
+
+    private List<Stored> toStored() {
+        List<Stored> list = new ArrayList<>(entries.size());
+        for (Long2ObjectMap.Entry<Entry> entry : entries.long2ObjectEntrySet()) {
+            Entry value = entry.getValue();
+            list.add(new Stored(entry.getLongKey(), value.remaining, value.taken.clone()));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,535 @@
+package com.uipg9.ascendancy.data;
+
+import com.uipg9.ascendancy.AscendancyConfig;
+import com.uipg9.ascendancy.AscendancyMod;
+import it.unimi.dsi.fastutil.HashCommon;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.storage.LevelResource;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Optional progression store for very large player bases (storage.mapped_store=true).
+ *
+ * One memory-mapped file of fixed-size records: progression snapshot, achievement
+ * counters and craving slots per player. The file is an open-addressing hash table keyed
+ * by UUID (linear probing, the all-zero UUID marks an empty slot), so a lookup is a few
+ * reads from the page cache with no decompression, and an admin scan is a sequential
+ * pass over the file.
+ *
+ * Record contents are guarded by lock stripes (slot index modulo {@link #STRIPES});
+ * claiming a new slot is serialised. Dirty pages are forced to disk every
+ * {@link #FORCE_INTERVAL} ticks on the store's IO thread and at server stop. The table
+ * never grows at runtime: when it is over its load factor it refuses new players (callers
+ * fall back to NBT) and is rebuilt larger on the next startup.
+ */
+public class MappedProgressStore {
+
+    private static final String FILE_NAME = "ascendancy_progress.bin";
+    private static final int MAGIC = 0x41534350; // "ASCP"
+    private static final int VERSION = 1;
+
+    private static final int STRIPES = 64;
+    private static final int FORCE_INTERVAL = 1200; // 1 minute
+    private static final int MIN_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 20; // Keeps the mapping under 2 GiB
+
+    public static final int MAX_UPGRADES = 32;
+    public static final int MAX_ACHIEVEMENTS = 64;
+    public static final int MAX_CRAVINGS = 4;
+    private static final int NAME_BYTES = 16;
+    private static final int CRAVING_ID_BYTES = 63;
+
+    // ==================== LAYOUT ====================
+
+    private static final int HEADER_SIZE = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_RECORD_SIZE = 8;
+    private static final int H_CAPACITY = 12;
+    private static final int H_COUNT = 16;
+
+    private static final int RECORD_SIZE = 1024;
+    private static final int KEY_MSB = 0;
+    private static final int KEY_LSB = 8;
+    private static final int FLAGS = 16;
+    private static final int SOUL_XP = 20;
+    private static final int PRESTIGE = 24;
+    private static final int ASCENSIONS = 28;
+    private static final int TOTAL_PRESTIGE = 32;
+    private static final int LAST_SEEN = 36;
+    private static final int NAME = 44;                                             // length byte + 16
+    private static final int UPGRADE_COUNT = 64;
+    private static final int UPGRADES = 68;                                         // 32 ints
+    private static final int UNLOCKED = UPGRADES + MAX_UPGRADES * 4;                // 196, long
+    private static final int PROGRESS = UNLOCKED + 8;                               // 204, 64 ints
+    private static final int CRAVING_COUNT = PROGRESS + MAX_ACHIEVEMENTS * 4;       // 460
+    private static final int CRAVING_COMPLETED = CRAVING_COUNT + 4;                 // 464
+    private static final int CRAVINGS = CRAVING_COMPLETED + 4;                      // 468
+    private static final int CRAVING_SIZE = 1 + CRAVING_ID_BYTES + 4 + 4;           // id, target, progress
+
+    public static final int HAS_DATA = 1;
+    public static final int HAS_ACHIEVEMENTS = 2;
+    public static final int HAS_CRAVINGS = 4;
+
+    /**
+     * One player's record, decoded onto the heap. Edit it inside {@link #update}.
+     */
+    public static final class ProgressRecord {
+        public final UUID playerId;
+        public int flags;
+        public String name = "";
+        public long lastSeen;
+        public int soulXP;
+        public int prestigePoints;
+        public int ascensionCount;
+        public int totalPrestigeEarned;
+        public int[] upgradeLevels = new int[0];
+        public long unlockedAchievements;
+        public final int[] achievementProgress = new int[MAX_ACHIEVEMENTS];
+        public String[] cravingIds = new String[0];
+        public int[] cravingTargets = new int[0];
+        public int[] cravingProgress = new int[0];
+        public int cravingCompleted;
+
+        ProgressRecord(UUID playerId) {
+            this.playerId = playerId;
+        }
+
+        public boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+    }
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Ascendancy-Store-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Nullable
+    private static volatile MappedProgressStore instance;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int maxCount;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Object claimLock = new Object();
+    private int count;                      // Guarded by claimLock
+    private boolean fullWarned = false;     // Guarded by claimLock
+    private volatile boolean dirty = false;
+
+    private MappedProgressStore(MappedByteBuffer buffer, int capacity, int count) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.maxCount = capacity / 4 * 3;
+        this.count = count;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            if (!AscendancyConfig.mappedStore) return;
+            Path path = server.getWorldPath(LevelResource.ROOT).resolve(FILE_NAME);
+            try {
+                instance = open(path, AscendancyConfig.mappedStoreCapacity);
+            } catch (IOException e) {
+                AscendancyMod.LOGGER.error("Failed to open {}, using NBT storage", FILE_NAME, e);
+            }
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            MappedProgressStore store = instance;
+            if (store != null && server.getTickCount() % FORCE_INTERVAL == 0 && store.dirty) {
+                IO.execute(store::force);
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            MappedProgressStore store = instance;
+            instance = null;
+            if (store != null) store.force();
+        });
+    }
+
+    /**
+     * The open store, or null when the NBT files are in use
+     */
+    @Nullable
+    public static MappedProgressStore get() {
+        return instance;
+    }
+
+    /**
+     * Record a player's progression snapshot (on leave), so offline lookups and admin scans
+     * see current values
+     */
+    public static void snapshot(ServerPlayer player) {
+        MappedProgressStore store = instance;
+        if (store == null) return;
+        AscendancyData data = PlayerDataManager.getData(player);
+        String name = player.getName().getString();
+        store.update(player.getUUID(), record -> {
+            record.flags |= HAS_DATA;
+            record.name = name;
+            record.lastSeen = System.currentTimeMillis();
+            record.soulXP = data.soulXP();
+            record.prestigePoints = data.prestigePoints();
+            record.ascensionCount = data.ascensionCount();
+            record.totalPrestigeEarned = data.totalPrestigeEarned();
+            record.upgradeLevels = data.upgradeLevels();
+        });
+    }
+
+    private static MappedProgressStore open(Path path, int wantedPlayers) throws IOException {
+        int capacity = tableSize(wantedPlayers / 3L * 4);
+        int count = 0;
+        boolean exists = Files.exists(path);
+
+        if (exists) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            int fileCapacity;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                channel.read(header, 0);
+                if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION
+                        || header.getInt(H_RECORD_SIZE) != RECORD_SIZE) {
+                    throw new IOException("Unrecognised progress store layout in " + path);
+                }
+                fileCapacity = header.getInt(H_CAPACITY);
+                count = header.getInt(H_COUNT);
+                capacity = Math.max(capacity, tableSize(count * 2L));
+                if (capacity > fileCapacity) {
+                    rebuild(path, channel, fileCapacity, capacity);
+                }
+            }
+            capacity = Math.max(capacity, fileCapacity);
+        }
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        }
+        if (!exists) {
+            buffer.putInt(H_MAGIC, MAGIC);
+            buffer.putInt(H_VERSION, VERSION);
+            buffer.putInt(H_RECORD_SIZE, RECORD_SIZE);
+            buffer.putInt(H_CAPACITY, capacity);
+            buffer.putInt(H_COUNT, 0);
+            buffer.force();
+        }
+
+        AscendancyMod.LOGGER.info("Opened progress store: {} players, capacity {} ({} MiB mapped)",
+            count, capacity, (HEADER_SIZE + (long) capacity * RECORD_SIZE) >> 20);
+        return new MappedProgressStore(buffer, capacity, count);
+    }
+
+    /**
+     * Rehash every record into a larger table. Written through a channel (not a mapping)
+     * so the new file can replace the old one on every platform.
+     */
+    private static void rebuild(Path path, FileChannel old, int oldCapacity, int newCapacity) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long[] keys = new long[newCapacity * 2];
+        int mask = newCapacity - 1;
+        int moved = 0;
+
+        try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            for (int slot = 0; slot < oldCapacity; slot++) {
+                record.clear();
+                old.read(record, offset(slot));
+                long msb = record.getLong(KEY_MSB);
+                long lsb = record.getLong(KEY_LSB);
+                if (msb == 0 && lsb == 0) continue;
+
+                int newSlot = home(msb, lsb, mask);
+                while (keys[newSlot * 2] != 0 || keys[newSlot * 2 + 1] != 0) newSlot = (newSlot + 1) & mask;
+                keys[newSlot * 2] = msb;
+                keys[newSlot * 2 + 1] = lsb;
+
+                record.flip();
+                target.write(record, offset(newSlot));
+                moved++;
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(H_MAGIC, MAGIC).putInt(H_VERSION, VERSION).putInt(H_RECORD_SIZE, RECORD_SIZE)
+                .putInt(H_CAPACITY, newCapacity).putInt(H_COUNT, moved);
+            target.write(header, 0);
+            // Extend to full size so the mapping never reads past the end
+            target.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) newCapacity * RECORD_SIZE - 1);
+            target.force(true);
+        }
+        old.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        AscendancyMod.LOGGER.info("Rebuilt progress store from capacity {} to {} ({} players)",
+            oldCapacity, newCapacity, moved);
+    }
+
+    // ==================== RECORD ACCESS ====================
+
+    /**
+     * Copy of a player's record, or null if they have none. Safe to call from any thread.
+     */
+    @Nullable
+    public ProgressRecord read(UUID playerId) {
+        int slot = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        if (slot < 0) return null;
+
+        ReentrantLock lock = stripes[slot & (STRIPES - 1)];
+        lock.lock();
+        try {
+            return decode(playerId, offset(slot));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read-modify-write a player's record, creating it if needed. Returns false if the
+     * store is full and the player has no record yet. Safe to call from any thread.
+     */
+    public boolean update(UUID playerId, Consumer<ProgressRecord> edit) {
+        int slot = findOrClaim(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        if (slot < 0) return false;
+
+        ReentrantLock lock = stripes[slot & (STRIPES - 1)];
+        lock.lock();
+        try {
+            ProgressRecord record = decode(playerId, offset(slot));
+            edit.accept(record);
+            encode(record, offset(slot));
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Visit every record in file order, e.g. for admin tools and leaderboards
+     */
+    public void forEach(Consumer<ProgressRecord> action) {
+        for (int slot = 0; slot < capacity; slot++) {
+            ProgressRecord record;
+            ReentrantLock lock = stripes[slot & (STRIPES - 1)];
+            lock.lock();
+            try {
+                int base = offset(slot);
+                long msb = buffer.getLong(base + KEY_MSB);
+                long lsb = buffer.getLong(base + KEY_LSB);
+                if (msb == 0 && lsb == 0) continue;
+                record = decode(new UUID(msb, lsb), base);
+            } finally {
+                lock.unlock();
+            }
+            action.accept(record);
+        }
+    }
+
+    public int size() {
+        synchronized (claimLock) {
+            return count;
+        }
+    }
+
+    private void force() {
+        dirty = false;
+        buffer.force();
+    }
+
+    // ==================== HASH TABLE ====================
+
+    private static int tableSize(long slots) {
+        return (int) Math.min(MAX_CAPACITY, HashCommon.nextPowerOfTwo(Math.max(MIN_CAPACITY, slots)));
+    }
+
+    private static int home(long msb, long lsb, int mask) {
+        return (int) HashCommon.mix(msb ^ lsb) & mask;
+    }
+
+    private static long offset(int slot) {
+        return HEADER_SIZE + (long) slot * RECORD_SIZE;
+    }
+
+    /**
+     * Probe without locking. A slot claimed concurrently may be missed; claiming re-probes
+     * under the claim lock, so that never creates a duplicate.
+     */
+    private int find(long msb, long lsb) {
+        int mask = capacity - 1;
+        int slot = home(msb, lsb, mask);
+        for (int i = 0; i < capacity; i++) {
+            int base = (int) offset(slot);
+            long keyMsb = buffer.getLong(base + KEY_MSB);
+            long keyLsb = buffer.getLong(base + KEY_LSB);
+            if (keyMsb == msb && keyLsb == lsb) return slot;
+            if (keyMsb == 0 && keyLsb == 0) return -1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int findOrClaim(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) return -1;
+        int slot = find(msb, lsb);
+        if (slot >= 0) return slot;
+
+        synchronized (claimLock) {
+            int mask = capacity - 1;
+            slot = home(msb, lsb, mask);
+            while (true) {
+                int base = (int) offset(slot);
+                long keyMsb = buffer.getLong(base + KEY_MSB);
+                long keyLsb = buffer.getLong(base + KEY_LSB);
+                if (keyMsb == msb && keyLsb == lsb) return slot;
+                if (keyMsb == 0 && keyLsb == 0) break;
+                slot = (slot + 1) & mask;
+            }
+
+            if (count >= maxCount) {
+                if (!fullWarned) {
+                    fullWarned = true;
+                    AscendancyMod.LOGGER.error("Progress store is full ({} players); new players use NBT until "
+                        + "restart. Raise storage.mapped_store_capacity.", count);
+                }
+                return -1;
+            }
+
+            ReentrantLock lock = stripes[slot & (STRIPES - 1)];
+            lock.lock();
+            try {
+                int base = (int) offset(slot);
+                buffer.put(base, new byte[RECORD_SIZE]);
+                buffer.putLong(base + KEY_LSB, lsb);
+                buffer.putLong(base + KEY_MSB, msb);
+            } finally {
+                lock.unlock();
+            }
+            count++;
+            buffer.putInt(H_COUNT, count);
+            return slot;
+        }
+    }
+
+    // ==================== ENCODING ====================
+
+    private ProgressRecord decode(UUID playerId, long offset) {
+        int base = (int) offset;
+        ProgressRecord record = new ProgressRecord(playerId);
+        record.flags = buffer.getInt(base + FLAGS);
+        record.soulXP = buffer.getInt(base + SOUL_XP);
+        record.prestigePoints = buffer.getInt(base + PRESTIGE);
+        record.ascensionCount = buffer.getInt(base + ASCENSIONS);
+        record.totalPrestigeEarned = buffer.getInt(base + TOTAL_PRESTIGE);
+        record.lastSeen = buffer.getLong(base + LAST_SEEN);
+        record.name = getString(base + NAME, NAME_BYTES);
+
+        int upgrades = Math.min(buffer.getInt(base + UPGRADE_COUNT), MAX_UPGRADES);
+        record.upgradeLevels = new int[upgrades];
+        for (int i = 0; i < upgrades; i++) record.upgradeLevels[i] = buffer.getInt(base + UPGRADES + i * 4);
+
+        record.unlockedAchievements = buffer.getLong(base + UNLOCKED);
+        for (int i = 0; i < MAX_ACHIEVEMENTS; i++) {
+            record.achievementProgress[i] = buffer.getInt(base + PROGRESS + i * 4);
+        }
+
+        int cravings = Math.min(buffer.getInt(base + CRAVING_COUNT), MAX_CRAVINGS);
+        record.cravingIds = new String[cravings];
+        record.cravingTargets = new int[cravings];
+        record.cravingProgress = new int[cravings];
+        record.cravingCompleted = buffer.getInt(base + CRAVING_COMPLETED);
+        for (int i = 0; i < cravings; i++) {
+            int slot = base + CRAVINGS + i * CRAVING_SIZE;
+            record.cravingIds[i] = getString(slot, CRAVING_ID_BYTES);
+            record.cravingTargets[i] = buffer.getInt(slot + 1 + CRAVING_ID_BYTES);
+            record.cravingProgress[i] = buffer.getInt(slot + 5 + CRAVING_ID_BYTES);
+        }
+        return record;
+    }
+
+    private void encode(ProgressRecord record, long offset) {
+        // Checked before anything is written, so a rejected record leaves the old one intact
+        if (!fits(record.name, NAME_BYTES) || !fitsCravings(record.cravingIds)) {
+            throw new IllegalArgumentException("Progress record for " + record.name + " does not fit its slot");
+        }
+        int base = (int) offset;
+        buffer.putInt(base + FLAGS, record.flags);
+        buffer.putInt(base + SOUL_XP, record.soulXP);
+        buffer.putInt(base + PRESTIGE, record.prestigePoints);
+        buffer.putInt(base + ASCENSIONS, record.ascensionCount);
+        buffer.putInt(base + TOTAL_PRESTIGE, record.totalPrestigeEarned);
+        buffer.putLong(base + LAST_SEEN, record.lastSeen);
+        putString(base + NAME, record.name);
+
+        // Upgrades beyond MAX_UPGRADES (datapack additions) stay in the player attachment only
+        int upgrades = Math.min(record.upgradeLevels.length, MAX_UPGRADES);
+        buffer.putInt(base + UPGRADE_COUNT, upgrades);
+        for (int i = 0; i < upgrades; i++) buffer.putInt(base + UPGRADES + i * 4, record.upgradeLevels[i]);
+
+        buffer.putLong(base + UNLOCKED, record.unlockedAchievements);
+        for (int i = 0; i < MAX_ACHIEVEMENTS; i++) {
+            buffer.putInt(base + PROGRESS + i * 4, record.achievementProgress[i]);
+        }
+
+        int cravings = record.cravingIds.length;
+        buffer.putInt(base + CRAVING_COUNT, cravings);
+        buffer.putInt(base + CRAVING_COMPLETED, record.cravingCompleted);
+        for (int i = 0; i < cravings; i++) {
+            int slot = base + CRAVINGS + i * CRAVING_SIZE;
+            putString(slot, record.cravingIds[i]);
+            buffer.putInt(slot + 1 + CRAVING_ID_BYTES, record.cravingTargets[i]);
+            buffer.putInt(slot + 5 + CRAVING_ID_BYTES, record.cravingProgress[i]);
+        }
+    }
+
+    /**
+     * Whether these craving ids fit a record as they are. Ids are never cut short: callers
+     * keep anything that does not fit in NBT instead.
+     */
+    public static boolean fitsCravings(String[] ids) {
+        if (ids.length > MAX_CRAVINGS) return false;
+        for (String id : ids) {
+            if (!fits(id, CRAVING_ID_BYTES)) return false;
+        }
+        return true;
+    }
+
+    private static boolean fits(String value, int maxBytes) {
+        return value.getBytes(StandardCharsets.UTF_8).length <= maxBytes;
+    }
+
+    /**
+     * Length byte followed by UTF-8; the caller has checked it fits the field
+     */
+    private void putString(int index, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.put(index, (byte) bytes.length);
+        buffer.put(index + 1, bytes);
+    }
+
+    private String getString(int index, int maxBytes) {
+        int length = Math.min(buffer.get(index) & 0xFF, maxBytes);
+        byte[] bytes = new byte[length];
+        buffer.get(index + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
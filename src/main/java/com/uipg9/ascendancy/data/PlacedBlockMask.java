@@ -0,0 +1,218 @@
+package com.uipg9.ascendancy.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.piston.PistonStructureResolver;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Per-chunk record of player-placed blocks that would otherwise pay Soul XP when broken.
+ *
+ * One bit per block position, 4096 bits (64 longs) per 16x16x16 section. Sections are
+ * only allocated once something is marked in them and dropped again when they empty,
+ * so a chunk nobody has built ores in carries no attachment at all.
+ *
+ * A mark describes the block the player placed, not the position: any change to a
+ * different block clears it (LevelChunkMixin), and pistons carry it along with the
+ * block they move (PistonBaseBlockMixin).
+ *
+ * Mutable: callers must mark the chunk unsaved after changing it.
+ */
+public class PlacedBlockMask {
+
+    private static final int WORDS_PER_SECTION = 4096 / 64;
+
+    private record Section(int y, long[] bits) {
+        static final Codec<Section> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.INT.fieldOf("y").forGetter(Section::y),
+            Codec.LONG_STREAM.xmap(LongStream::toArray, Arrays::stream).fieldOf("bits").forGetter(Section::bits)
+        ).apply(instance, (y, bits) -> new Section(y, Arrays.copyOf(bits, WORDS_PER_SECTION))));
+    }
+
+    public static final Codec<PlacedBlockMask> CODEC = Section.CODEC.listOf().xmap(
+        PlacedBlockMask::fromSections, PlacedBlockMask::toSections);
+
+    // Section Y coordinate -> bits
+    private final Int2ObjectMap<long[]> sections = new Int2ObjectOpenHashMap<>();
+
+    // The last marked block removed, kept for the break event that follows it in the same
+    // tick: the mark is already cleared by then (server thread only)
+    @Nullable
+    private static ResourceKey<Level> removedDimension;
+    private static long removedPos;
+    private static long removedTick = -1;
+
+    // ==================== CHUNK ACCESS ====================
+
+    /**
+     * Remember that a player placed a rewardable block here
+     */
+    public static void markPlaced(Level level, BlockPos pos) {
+        LevelChunk chunk = level.getChunkAt(pos);
+        chunk.getAttachedOrCreate(AscendancyAttachments.PLACED_BLOCKS).set(pos);
+        chunk.markUnsaved();
+    }
+
+    /**
+     * Forget the block at this position. Returns whether a player had placed it.
+     * Chunks without placed blocks answer from a null attachment, without allocating.
+     */
+    public static boolean consumePlaced(Level level, BlockPos pos) {
+        if (level.dimension() == removedDimension && removedPos == pos.asLong() && removedTick == level.getGameTime()) {
+            removedDimension = null;
+            return true;
+        }
+        return clear(level.getChunkAt(pos), pos);
+    }
+
+    /**
+     * The block at pos is about to become newState. Clears the mark when a different block
+     * replaces the placed one, except when a moving piston settles into the block it carried.
+     */
+    public static void onStateChange(LevelChunk chunk, BlockPos pos, BlockState newState) {
+        PlacedBlockMask mask = chunk.getAttached(AscendancyAttachments.PLACED_BLOCKS);
+        if (mask == null || !mask.get(pos)) return;
+
+        BlockState old = chunk.getBlockState(pos);
+        if (old.is(newState.getBlock()) || old.is(Blocks.MOVING_PISTON)) return;
+
+        clear(chunk, pos);
+        removedDimension = chunk.getLevel().dimension();
+        removedPos = pos.asLong();
+        removedTick = chunk.getLevel().getGameTime();
+    }
+
+    /**
+     * Where a piston move is about to take marked blocks. Resolved before the move, since
+     * the move itself clears the marks at the old positions.
+     */
+    public static List<BlockPos> findCarried(Level level, BlockPos pistonPos, Direction facing,
+                                             boolean extending) {
+        if (!hasMarksNear(level, pistonPos)) return List.of();
+
+        PistonStructureResolver resolver = new PistonStructureResolver(level, pistonPos, facing, extending);
+        if (!resolver.resolve()) return List.of();
+
+        List<BlockPos> carried = new ArrayList<>(0);
+        for (BlockPos moved : resolver.getToPush()) {
+            PlacedBlockMask mask = level.getChunkAt(moved).getAttached(AscendancyAttachments.PLACED_BLOCKS);
+            if (mask != null && mask.get(moved)) carried.add(moved.relative(resolver.getPushDirection()));
+        }
+        return carried;
+    }
+
+    /**
+     * Whether any loaded chunk a piston at this position can reach carries marks. A move
+     * shifts at most {@link PistonStructureResolver#MAX_PUSH_DEPTH} connected blocks, so
+     * none of them lies further than that plus one from the piston.
+     */
+    private static boolean hasMarksNear(Level level, BlockPos pistonPos) {
+        int reach = PistonStructureResolver.MAX_PUSH_DEPTH + 1;
+        int minX = SectionPos.blockToSectionCoord(pistonPos.getX() - reach);
+        int maxX = SectionPos.blockToSectionCoord(pistonPos.getX() + reach);
+        int minZ = SectionPos.blockToSectionCoord(pistonPos.getZ() - reach);
+        int maxZ = SectionPos.blockToSectionCoord(pistonPos.getZ() + reach);
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(x, z);
+                if (chunk != null && chunk.hasAttached(AscendancyAttachments.PLACED_BLOCKS)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean clear(LevelChunk chunk, BlockPos pos) {
+        PlacedBlockMask mask = chunk.getAttached(AscendancyAttachments.PLACED_BLOCKS);
+        if (mask == null || !mask.clear(pos)) return false;
+
+        if (mask.isEmpty()) {
+            chunk.removeAttached(AscendancyAttachments.PLACED_BLOCKS);
+        }
+        chunk.markUnsaved();
+        return true;
+    }
+
+    // ==================== BITS ====================
+
+    public boolean get(BlockPos pos) {
+        long[] bits = sections.get(SectionPos.blockToSectionCoord(pos.getY()));
+        if (bits == null) return false;
+        int index = index(pos);
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void set(BlockPos pos) {
+        long[] bits = sections.computeIfAbsent(SectionPos.blockToSectionCoord(pos.getY()),
+            y -> new long[WORDS_PER_SECTION]);
+        int index = index(pos);
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Clear a position. Returns whether it was set.
+     */
+    public boolean clear(BlockPos pos) {
+        int sectionY = SectionPos.blockToSectionCoord(pos.getY());
+        long[] bits = sections.get(sectionY);
+        if (bits == null) return false;
+
+        int index = index(pos);
+        long mask = 1L << index;
+        if ((bits[index >>> 6] & mask) == 0) return false;
+
+        bits[index >>> 6] &= ~mask;
+        if (isEmpty(bits)) sections.remove(sectionY);
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    // ==================== INTERNAL ====================
+
+    /**
+     * Bit index within a section: y-major, then z, then x
+     */
+    private static int index(BlockPos pos) {
+        return ((pos.getY() & 15) << 8) | ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    private static PlacedBlockMask fromSections(List<Section> list) {
+        PlacedBlockMask mask = new PlacedBlockMask();
+        for (Section section : list) {
+            if (!isEmpty(section.bits())) mask.sections.put(section.y(), section.bits());
+        }
+        return mask;
+    }
+
+    private List<Section> toSections() {
+        List<Section> list = new ArrayList<>(sections.size());
+        for (Int2ObjectMap.Entry<long[]> entry : sections.int2ObjectEntrySet()) {
+            list.add(new Section(entry.getIntKey(), entry.getValue()));
+        }
+        return list;
+    }
+}
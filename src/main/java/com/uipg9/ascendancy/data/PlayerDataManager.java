@@ -86,96 +86,22 @@ public class PlayerDataManager {
         setData(player, getData(player).withNotified(value));
     }
     
-    // ==================== ORIGINAL UPGRADES ====================
+    // ==================== UPGRADES ====================
     
-    public static int getHealthLevel(ServerPlayer player) {
-        return getData(player).healthLevel();
+    public static int getUpgradeLevel(ServerPlayer player, int ordinal) {
+        return getData(player).upgradeLevel(ordinal);
     }
     
-    public static void setHealthLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withHealthLevel(level));
+    public static void setUpgradeLevel(ServerPlayer player, int ordinal, int level) {
+        setData(player, getData(player).withUpgradeLevel(ordinal, level));
     }
     
-    public static int getSpeedLevel(ServerPlayer player) {
-        return getData(player).speedLevel();
-    }
-    
-    public static void setSpeedLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withSpeedLevel(level));
-    }
-    
-    public static int getReachLevel(ServerPlayer player) {
-        return getData(player).reachLevel();
-    }
-    
-    public static void setReachLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withReachLevel(level));
-    }
-    
-    public static int getMiningLevel(ServerPlayer player) {
-        return getData(player).miningLevel();
-    }
-    
-    public static void setMiningLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withMiningLevel(level));
-    }
-    
-    // ==================== NEW UPGRADES ====================
-    
-    public static int getLuckLevel(ServerPlayer player) {
-        return getData(player).luckLevel();
-    }
-    
-    public static void setLuckLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withLuckLevel(level));
-    }
-    
-    public static int getDamageLevel(ServerPlayer player) {
-        return getData(player).damageLevel();
-    }
-    
-    public static void setDamageLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withDamageLevel(level));
-    }
-    
-    public static int getDefenseLevel(ServerPlayer player) {
-        return getData(player).defenseLevel();
-    }
-    
-    public static void setDefenseLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withDefenseLevel(level));
-    }
-    
-    public static int getExperienceLevel(ServerPlayer player) {
-        return getData(player).experienceLevel();
-    }
-    
-    public static void setExperienceLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withExperienceLevel(level));
-    }
-    
-    // ==================== V2.1 UPGRADES ====================
-    
     public static int getKeeperLevel(ServerPlayer player) {
-        return getData(player).keeperLevel();
-    }
-    
-    public static void setKeeperLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withKeeperLevel(level));
+        return getUpgradeLevel(player, UpgradeRegistry.KEEPER);
     }
     
     public static int getWisdomLevel(ServerPlayer player) {
-        return getData(player).wisdomLevel();
-    }
-    
-    public static void setWisdomLevel(ServerPlayer player, int level) {
-        setData(player, getData(player).withWisdomLevel(level));
-    }
-    
-    // ==================== UPGRADE COST (INFINITE SCALING) ====================
-    
-    public static int getUpgradeCost(int currentLevel) {
-        return AscendancyMod.getUpgradeCost(currentLevel);
+        return getUpgradeLevel(player, UpgradeRegistry.WISDOM);
     }
     
     // ==================== ASCENSION ====================
@@ -0,0 +1,42 @@
+package com.uipg9.ascendancy.data;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * World-wide NBT files keyed by player UUID (achievements, bonds, chronicle, cravings).
+ *
+ * Join loads read these off the server thread while saves rewrite them on it, so writes
+ * go to a temporary file that is moved over the old one: a reader always sees either the
+ * previous or the new file, never a half-written one.
+ */
+public class SaveFiles {
+
+    /**
+     * Whole file, or an empty tag if it does not exist yet. Safe to call from any thread.
+     */
+    public static CompoundTag readRoot(Path path) throws IOException {
+        if (!Files.exists(path)) return new CompoundTag();
+        return NbtIo.readCompressed(path, NbtAccounter.unlimitedHeap());
+    }
+
+    /**
+     * One player's entry, or an empty tag. Safe to call from any thread.
+     */
+    public static CompoundTag readPlayer(Path path, UUID playerId) throws IOException {
+        return readRoot(path).getCompoundOrEmpty(playerId.toString());
+    }
+
+    public static void writeAtomic(CompoundTag root, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        NbtIo.writeCompressed(root, temp);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,545 @@
+package com.uipg9.ascendancy.data;
+
+import com.uipg9.ascendancy.AscendancyConfig;
+import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.logic.AttributeHandler;
+import com.uipg9.ascendancy.network.AscendancyNetworking;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Prestige, upgrade levels and ascension count shared between server processes on one
+ * host (storage.shared_store_dir).
+ *
+ * Each player has a small record file in the shared directory: a header with a change
+ * sequence number and a CRC, then an uncompressed NBT payload. Readers hold a shared lock
+ * on the record's lock file and writers an exclusive one, so locking is per record. Writers
+ * replace the record with a temporary file and an atomic move, so a crash mid-write leaves
+ * the previous record in place. All file work runs on one IO thread; the server thread only
+ * takes snapshots and applies results. The player attachment stays the working copy; this
+ * store sits in front of it:
+ *
+ * - On join the record is revalidated against the local cache by reading only the header.
+ *   The payload is read only when the sequence moved, and the result replaces the
+ *   attachment's shared fields.
+ * - Every {@link #POLL_INTERVAL} ticks, and on leave, the changes made on this server since
+ *   the last write are written as deltas on top of whatever the record holds by then, so
+ *   concurrent writers never lose each other's work. Writing well inside the attachment's
+ *   autosave interval keeps the record from ever being older than the saved attachment
+ *   that join overwrites.
+ * - Players with nothing to write get their headers rechecked at the same interval, and
+ *   changes from another server (e.g. the one a proxy just moved the player away from)
+ *   are merged in.
+ *
+ * Upgrades are keyed by id, so servers with different datapacks only touch the upgrades
+ * they know. Merged levels never exceed an upgrade's max_level.
+ */
+public class SharedProgressStore {
+
+    private static final int MAGIC = 0x41535053; // "ASPS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;   // magic, version, sequence, length, crc
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SEQUENCE = 8;
+    private static final int H_LENGTH = 16;
+    private static final int H_CRC = 20;
+
+    private static final int STRIPES = 64;
+    private static final int POLL_INTERVAL = 200; // 10 seconds
+    private static final int MAX_CACHED = 4096;
+
+    /**
+     * The shared fields of one player. Sequence 0 means there is no record yet.
+     */
+    public record SharedProgress(long sequence, int prestigePoints, int totalPrestigeEarned, int ascensionCount,
+                                 Map<String, Integer> upgrades) {
+        static final SharedProgress EMPTY = new SharedProgress(0, 0, 0, 0, Map.of());
+
+        /**
+         * This record plus the changes from base to ours (upgrades: only ids in ours)
+         */
+        SharedProgress rebase(SharedProgress base, SharedProgress ours, long newSequence) {
+            Map<String, Integer> merged = new HashMap<>(upgrades);
+            ours.upgrades.forEach((id, level) -> {
+                int value = Math.max(0, merged.getOrDefault(id, 0) + level - base.upgrades.getOrDefault(id, 0));
+                Identifier parsed = Identifier.tryParse(id);
+                UpgradeDefinition def = parsed != null ? UpgradeRegistry.byId(parsed) : null;
+                if (def != null) value = def.clampLevel(value);
+                if (value > 0) merged.put(id, value);
+                else merged.remove(id);
+            });
+            return new SharedProgress(newSequence,
+                Math.max(0, prestigePoints + ours.prestigePoints - base.prestigePoints),
+                Math.max(0, totalPrestigeEarned + ours.totalPrestigeEarned - base.totalPrestigeEarned),
+                Math.max(0, ascensionCount + ours.ascensionCount - base.ascensionCount),
+                merged);
+        }
+
+        /**
+         * Same values as other for everything this record holds (sequence ignored)
+         */
+        boolean sameAs(SharedProgress other) {
+            if (prestigePoints != other.prestigePoints || totalPrestigeEarned != other.totalPrestigeEarned
+                    || ascensionCount != other.ascensionCount) {
+                return false;
+            }
+            for (Map.Entry<String, Integer> entry : upgrades.entrySet()) {
+                if (other.upgrades.getOrDefault(entry.getKey(), 0).intValue() != entry.getValue()) return false;
+            }
+            return true;
+        }
+    }
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Ascendancy-Shared-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // One process may touch the same file from several threads; file locks are per process
+    private static final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    static {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    /**
+     * A record that exists but cannot be trusted (e.g. a write torn by a crash)
+     */
+    private static final class CorruptRecordException extends IOException {
+        final long sequence;
+
+        CorruptRecordException(String message, long sequence) {
+            super(message);
+            this.sequence = sequence;
+        }
+    }
+
+    @Nullable
+    private static volatile Path directory;
+
+    // What each online player's shared fields were last synced from (server thread only)
+    private static final Map<UUID, SharedProgress> bases = new HashMap<>();
+
+    // Latest snapshot handed to the IO thread per player, until its write lands (server thread only).
+    // Later writes are deltas from it; its sequence is unknown until then, so it is -1.
+    private static final Map<UUID, SharedProgress> pending = new HashMap<>();
+
+    // Last record seen per player, kept after they leave so a rejoin revalidates by header only
+    private static final Map<UUID, SharedProgress> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, SharedProgress> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            if (AscendancyConfig.sharedStoreDir.isEmpty()) return;
+            Path path = Path.of(AscendancyConfig.sharedStoreDir).toAbsolutePath();
+            try {
+                Files.createDirectories(path);
+                directory = path;
+                AscendancyMod.LOGGER.info("Sharing progression through {}", path);
+            } catch (IOException e) {
+                AscendancyMod.LOGGER.error("Failed to open shared progression directory {}", path, e);
+            }
+        });
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (directory != null && !bases.isEmpty() && server.getTickCount() % POLL_INTERVAL == 0) poll(server);
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            // Leave writes of the players the shutdown disconnected
+            CompletableFuture.runAsync(() -> {}, IO).join();
+            directory = null;
+            bases.clear();
+            pending.clear();
+            synchronized (cache) {
+                cache.clear();
+            }
+        });
+    }
+
+    // ==================== SESSION ====================
+
+    /**
+     * Join loader (off the server thread): revalidate or read the player's record.
+     * Runs behind any write still queued on the IO thread, e.g. from a quick relog.
+     */
+    public static Consumer<ServerPlayer> read(MinecraftServer server, UUID playerId) throws IOException {
+        if (directory == null) return player -> {};
+
+        SharedProgress cached;
+        synchronized (cache) {
+            cached = cache.get(playerId);
+        }
+        SharedProgress remote;
+        try {
+            remote = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return readRecord(playerId, cached);
+                } catch (CorruptRecordException e) {
+                    // Reseeded from this server's values on leave
+                    AscendancyMod.LOGGER.warn("Ignoring shared progression for {}: {}", playerId, e.getMessage());
+                    return SharedProgress.EMPTY;
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, IO).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+        SharedProgress loaded = remote;
+        return player -> install(player, loaded);
+    }
+
+    /**
+     * Leave: write this server's changes since the last write on top of the current record
+     */
+    public static void write(ServerPlayer player) {
+        SharedProgress base = bases.remove(player.getUUID());
+        if (directory == null || base == null) return;
+        submit(player.level().getServer(), player.getUUID(), base, fromData(PlayerDataManager.getData(player)));
+    }
+
+    public static int trackedPlayers() {
+        return bases.size();
+    }
+
+    private static void install(ServerPlayer player, SharedProgress remote) {
+        remember(player.getUUID(), remote);
+        // The read queued behind the last session's leave write, so it already holds it
+        pending.remove(player.getUUID());
+        if (remote.sequence() > 0) {
+            PlayerDataManager.setData(player, toData(PlayerDataManager.getData(player), remote));
+            bases.put(player.getUUID(), remote);
+        } else {
+            // First time shared: the next write seeds the record with this server's values
+            bases.put(player.getUUID(), SharedProgress.EMPTY);
+        }
+    }
+
+    private static void poll(MinecraftServer server) {
+        List<Map.Entry<UUID, SharedProgress>> online = new ArrayList<>(bases.size());
+        for (UUID playerId : List.copyOf(bases.keySet())) {
+            SharedProgress base = bases.get(playerId);
+            ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+            // A write already merges whatever the record holds, so only the rest need a header check
+            if (player == null || pending.containsKey(playerId)) continue;
+            if (submit(server, playerId, base, fromData(PlayerDataManager.getData(player)))) continue;
+            online.add(Map.entry(playerId, base));
+        }
+
+        IO.execute(() -> {
+            for (Map.Entry<UUID, SharedProgress> entry : online) {
+                try {
+                    SharedProgress remote = readRecord(entry.getKey(), entry.getValue());
+                    if (remote != entry.getValue() && remote.sequence() > 0) {
+                        server.execute(() -> merge(server, entry.getKey(), entry.getValue(), remote));
+                    }
+                } catch (IOException e) {
+                    AscendancyMod.LOGGER.warn("Failed to revalidate shared progression for {}", entry.getKey(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Server thread: queue a write of the changes from base (or from a write still in flight)
+     * to ours. Returns false if there was nothing to write.
+     */
+    private static boolean submit(MinecraftServer server, UUID playerId, SharedProgress base, SharedProgress ours) {
+        SharedProgress from = pending.getOrDefault(playerId, base);
+        if (ours.sameAs(from)) return false;
+
+        SharedProgress snapshot = new SharedProgress(-1, ours.prestigePoints(), ours.totalPrestigeEarned(),
+            ours.ascensionCount(), ours.upgrades());
+        pending.put(playerId, snapshot);
+        IO.execute(() -> {
+            try {
+                SharedProgress written = writeRecord(playerId, from, ours);
+                server.execute(() -> landed(server, playerId, snapshot, written));
+            } catch (IOException e) {
+                AscendancyMod.LOGGER.error("Failed to write shared progression for {}", playerId, e);
+                server.execute(() -> {
+                    if (pending.get(playerId) == snapshot) pending.remove(playerId);
+                });
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Server thread: a write finished. Whatever another server wrote in the meantime is
+     * folded into the attachment, on top of anything bought since the snapshot.
+     */
+    private static void landed(MinecraftServer server, UUID playerId, SharedProgress snapshot, SharedProgress written) {
+        remember(playerId, written);
+        // A newer write is queued behind this one and will carry these values too
+        if (pending.get(playerId) != snapshot) return;
+        pending.remove(playerId);
+
+        ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+        if (player == null || !bases.containsKey(playerId)) return;
+        bases.put(playerId, written);
+
+        if (!snapshot.sameAs(written)) {
+            AscendancyData data = PlayerDataManager.getData(player);
+            SharedProgress merged = fromData(data).rebase(snapshot, written, written.sequence());
+            PlayerDataManager.setData(player, toData(data, merged));
+            AttributeHandler.applyUpgrades(player);
+            AscendancyNetworking.syncToClient(player);
+        }
+    }
+
+    /**
+     * Server thread: fold another server's changes into the online player's attachment
+     */
+    private static void merge(MinecraftServer server, UUID playerId, SharedProgress base, SharedProgress remote) {
+        // Gone, or already re-synced (bases are only set once the player's session is installed)
+        ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+        if (player == null || bases.get(playerId) != base || pending.containsKey(playerId)) return;
+
+        AscendancyData data = PlayerDataManager.getData(player);
+        SharedProgress merged = fromData(data).rebase(base, remote, remote.sequence());
+        PlayerDataManager.setData(player, toData(data, merged));
+        bases.put(playerId, remote);
+        remember(playerId, remote);
+
+        AttributeHandler.applyUpgrades(player);
+        AscendancyNetworking.syncToClient(player);
+        AscendancyMod.LOGGER.info("Merged shared progression for {} (sequence {})",
+            player.getName().getString(), remote.sequence());
+    }
+
+    private static void remember(UUID playerId, SharedProgress progress) {
+        synchronized (cache) {
+            cache.put(playerId, progress);
+        }
+    }
+
+    // ==================== CONVERSION ====================
+
+    private static SharedProgress fromData(AscendancyData data) {
+        // Every upgrade known here, zeros included, so a level dropped to zero is a change too
+        Map<String, Integer> upgrades = new HashMap<>();
+        for (UpgradeDefinition def : UpgradeRegistry.all()) {
+            upgrades.put(def.id().toString(), data.upgradeLevel(def.ordinal()));
+        }
+        return new SharedProgress(0, data.prestigePoints(), data.totalPrestigeEarned(), data.ascensionCount(), upgrades);
+    }
+
+    private static AscendancyData toData(AscendancyData data, SharedProgress progress) {
+        int[] levels = new int[UpgradeRegistry.size()];
+        for (UpgradeDefinition def : UpgradeRegistry.all()) {
+            levels[def.ordinal()] = def.clampLevel(progress.upgrades().getOrDefault(def.id().toString(), 0));
+        }
+        return data.withPrestigePoints(progress.prestigePoints())
+            .withTotalPrestigeEarned(progress.totalPrestigeEarned())
+            .withAscensionCount(progress.ascensionCount())
+            .withUpgradeLevels(levels);
+    }
+
+    // ==================== RECORD FILES ====================
+
+    private static Path pathOf(UUID playerId) throws IOException {
+        Path root = directory;
+        if (root == null) throw new IOException("Shared progression store is closed");
+        String name = playerId.toString();
+        return root.resolve(name.substring(0, 2)).resolve(name + ".dat");
+    }
+
+    private static ReentrantLock stripe(UUID playerId) {
+        return stripes[playerId.hashCode() & (STRIPES - 1)];
+    }
+
+    private static Path lockPathOf(Path path) {
+        return path.resolveSibling(path.getFileName() + ".lock");
+    }
+
+    /**
+     * The player's record under a shared lock. Returns {@code known} itself when its
+     * sequence is still current (only the header is read).
+     */
+    private static SharedProgress readRecord(UUID playerId, @Nullable SharedProgress known) throws IOException {
+        Path path = pathOf(playerId);
+        if (!Files.exists(path)) return SharedProgress.EMPTY;
+
+        ReentrantLock lock = stripe(playerId);
+        lock.lock();
+        try (FileChannel lockChannel = FileChannel.open(lockPathOf(path),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock fileLock = lockChannel.lock(0, Long.MAX_VALUE, true)) {
+            return readCurrent(path, known);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebase ours onto the current record under an exclusive lock and replace it with the
+     * result under the next sequence number
+     */
+    private static SharedProgress writeRecord(UUID playerId, SharedProgress base, SharedProgress ours) throws IOException {
+        Path path = pathOf(playerId);
+        Files.createDirectories(path.getParent());
+
+        ReentrantLock lock = stripe(playerId);
+        lock.lock();
+        try (FileChannel lockChannel = FileChannel.open(lockPathOf(path),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock fileLock = lockChannel.lock()) {
+            SharedProgress written;
+            try {
+                SharedProgress current = readCurrent(path, null);
+                if (base.sequence() == 0 && current.sequence() > 0) {
+                    // Seeded elsewhere since this server last read it: adding our whole values
+                    // on top would count them twice, so they replace the record instead
+                    AscendancyMod.LOGGER.warn("Shared progression for {} was created elsewhere (sequence {}), replacing",
+                        playerId, current.sequence());
+                    written = current.rebase(current, ours, current.sequence() + 1);
+                } else {
+                    // A base of -1 follows an earlier write from this server, whose sequence was not known yet
+                    if (base.sequence() > 0 && current.sequence() != base.sequence()) {
+                        AscendancyMod.LOGGER.info("Shared progression for {} changed elsewhere (sequence {} -> {}), merging",
+                            playerId, base.sequence(), current.sequence());
+                    }
+                    written = current.rebase(base, ours, current.sequence() + 1);
+                }
+            } catch (CorruptRecordException e) {
+                AscendancyMod.LOGGER.warn("Replacing shared progression for {}: {}", playerId, e.getMessage());
+                written = SharedProgress.EMPTY.rebase(SharedProgress.EMPTY, ours, Math.max(e.sequence, base.sequence()) + 1);
+            }
+
+            byte[] payload = encode(written);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(H_MAGIC, MAGIC)
+                .putInt(H_VERSION, VERSION)
+                .putLong(H_SEQUENCE, written.sequence())
+                .putInt(H_LENGTH, payload.length)
+                .putInt(H_CRC, (int) crc.getValue());
+
+            // Readers see the old record or the new one, never a mix
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, header, 0);
+                writeFully(channel, ByteBuffer.wrap(payload), HEADER_SIZE);
+                channel.force(false);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The record as it is now, or EMPTY if there is none. Caller holds the lock file.
+     */
+    private static SharedProgress readCurrent(Path path, @Nullable SharedProgress known) throws IOException {
+        if (!Files.exists(path)) return SharedProgress.EMPTY;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() == 0) return SharedProgress.EMPTY;
+            return readLocked(channel, path, known);
+        }
+    }
+
+    private static SharedProgress readLocked(FileChannel channel, Path path, @Nullable SharedProgress known)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+            throw new CorruptRecordException("Unrecognised record " + path, 0);
+        }
+
+        long sequence = header.getLong(H_SEQUENCE);
+        if (known != null && known.sequence() == sequence) return known;
+
+        int length = header.getInt(H_LENGTH);
+        if (length < 0 || HEADER_SIZE + (long) length > channel.size()) {
+            throw new CorruptRecordException("Truncated record " + path, sequence);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        if ((int) crc.getValue() != header.getInt(H_CRC)) {
+            throw new CorruptRecordException("Checksum mismatch in " + path, sequence);
+        }
+        return decode(sequence, NbtIo.read(new DataInputStream(new ByteArrayInputStream(payload.array()))));
+    }
+
+    private static byte[] encode(SharedProgress progress) throws IOException {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("prestige_points", progress.prestigePoints());
+        tag.putInt("total_prestige_earned", progress.totalPrestigeEarned());
+        tag.putInt("ascension_count", progress.ascensionCount());
+        CompoundTag upgrades = new CompoundTag();
+        progress.upgrades().forEach(upgrades::putInt);
+        tag.put("upgrades", upgrades);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            NbtIo.write(tag, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SharedProgress decode(long sequence, CompoundTag tag) {
+        CompoundTag upgradesTag = tag.getCompoundOrEmpty("upgrades");
+        Map<String, Integer> upgrades = new HashMap<>();
+        for (String id : upgradesTag.keySet()) {
+            upgrades.put(id, upgradesTag.getIntOr(id, 0));
+        }
+        return new SharedProgress(sequence, tag.getIntOr("prestige_points", 0),
+            tag.getIntOr("total_prestige_earned", 0), tag.getIntOr("ascension_count", 0), upgrades);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new CorruptRecordException("Unexpected end of record", 0);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
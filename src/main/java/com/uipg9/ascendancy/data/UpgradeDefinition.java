@@ -0,0 +1,104 @@
+package com.uipg9.ascendancy.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.util.StringRepresentable;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A single purchasable upgrade.
+ * Built-in upgrades are declared in {@link UpgradeRegistry}; datapacks can override
+ * them or add new ones under data/<namespace>/ascendancy/upgrades/<name>.json.
+ *
+ * Upgrades without an attribute (Keeper, Wisdom) are read by the systems that use them.
+ */
+public record UpgradeDefinition(
+    Identifier id,
+    int ordinal,              // Dense index into per-player level arrays
+    String name,              // Display name, may contain § colors
+    String effect,            // Short per-level description for the shop
+    Category category,
+    @Nullable Holder<Attribute> attribute,
+    double perLevel,
+    AttributeModifier.Operation operation,
+    double costBase,
+    double costGrowth,
+    int maxLevel,             // Highest purchasable level (0 = no cap)
+    String achievementBonus   // Achievement effect type folded into this modifier ("" = none)
+) {
+
+    /**
+     * Shop tab the upgrade is listed under
+     */
+    public enum Category implements StringRepresentable {
+        COMBAT("combat"),
+        UTILITY("utility"),
+        SPECIAL("special"),
+        HIDDEN("hidden");
+
+        public static final Codec<Category> CODEC = StringRepresentable.fromEnum(Category::values);
+
+        private final String serializedName;
+
+        Category(String serializedName) {
+            this.serializedName = serializedName;
+        }
+
+        @Override
+        public String getSerializedName() {
+            return serializedName;
+        }
+    }
+
+    /**
+     * JSON layout for datapack upgrades. Id and ordinal come from the file path and registry.
+     */
+    public static final Codec<UpgradeDefinition> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+        Codec.STRING.fieldOf("name").forGetter(UpgradeDefinition::name),
+        Codec.STRING.optionalFieldOf("effect", "").forGetter(UpgradeDefinition::effect),
+        Category.CODEC.optionalFieldOf("category", Category.SPECIAL).forGetter(UpgradeDefinition::category),
+        BuiltInRegistries.ATTRIBUTE.holderByNameCodec().optionalFieldOf("attribute")
+            .forGetter(def -> java.util.Optional.ofNullable(def.attribute())),
+        Codec.DOUBLE.optionalFieldOf("per_level", 0.0).forGetter(UpgradeDefinition::perLevel),
+        AttributeModifier.Operation.CODEC.optionalFieldOf("operation", AttributeModifier.Operation.ADD_VALUE)
+            .forGetter(UpgradeDefinition::operation),
+        Codec.DOUBLE.optionalFieldOf("cost_base", 1.0).forGetter(UpgradeDefinition::costBase),
+        Codec.DOUBLE.optionalFieldOf("cost_growth", 1.3).forGetter(UpgradeDefinition::costGrowth),
+        Codec.intRange(0, Integer.MAX_VALUE).optionalFieldOf("max_level", 0).forGetter(UpgradeDefinition::maxLevel),
+        Codec.STRING.optionalFieldOf("achievement_bonus", "").forGetter(UpgradeDefinition::achievementBonus)
+    ).apply(instance, (name, effect, category, attribute, perLevel, operation, costBase, costGrowth, maxLevel, bonus) ->
+        new UpgradeDefinition(null, -1, name, effect, category, attribute.orElse(null),
+            perLevel, operation, costBase, costGrowth, maxLevel, bonus)));
+
+    /**
+     * Cost to buy the next level. Infinite scaling unless the upgrade sets max_level.
+     */
+    public int getCost(int currentLevel) {
+        if (currentLevel == 0) return (int) Math.ceil(costBase);
+        return (int) Math.ceil(costBase * Math.pow(costGrowth, currentLevel));
+    }
+
+    public boolean isMaxed(int currentLevel) {
+        return maxLevel > 0 && currentLevel >= maxLevel;
+    }
+
+    /**
+     * Level clamped to max_level (unchanged when uncapped)
+     */
+    public int clampLevel(int level) {
+        return maxLevel > 0 ? Math.min(level, maxLevel) : level;
+    }
+
+    /**
+     * Copy with the registry-assigned identity
+     */
+    public UpgradeDefinition withIdentity(Identifier id, int ordinal) {
+        return new UpgradeDefinition(id, ordinal, name, effect, category, attribute,
+            perLevel, operation, costBase, costGrowth, maxLevel, achievementBonus);
+    }
+}
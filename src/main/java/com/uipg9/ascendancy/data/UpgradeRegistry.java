@@ -0,0 +1,252 @@
+package com.uipg9.ascendancy.data;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.JsonOps;
+import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.logic.AttributeHandler;
+import com.uipg9.ascendancy.network.AscendancyNetworking;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.core.Holder;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.packs.PackType;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registry of all purchasable upgrades.
+ *
+ * Built-in upgrades keep fixed ordinals 0-9 (the order of the old per-upgrade fields),
+ * so the constants below stay valid. Datapack upgrades are appended after them in
+ * identifier order. Player levels are stored as an int[] indexed by ordinal.
+ *
+ * Datapack path: data/<namespace>/ascendancy/upgrades/<name>.json
+ */
+public class UpgradeRegistry {
+
+    public static final String DIRECTORY = "ascendancy/upgrades";
+
+    // Built-in ordinals
+    public static final int VITALITY = 0;
+    public static final int SWIFTNESS = 1;
+    public static final int REACH = 2;
+    public static final int HASTE = 3;
+    public static final int FORTUNE = 4;
+    public static final int MIGHT = 5;
+    public static final int RESILIENCE = 6;
+    public static final int EXPERIENCE = 7;
+    public static final int KEEPER = 8;
+    public static final int WISDOM = 9;
+    public static final int BUILTIN_COUNT = 10;
+
+    private static final List<UpgradeDefinition> BUILTIN = List.of(
+        builtin("vitality", VITALITY, "§c❤ Vitality", "+2 Hearts/lvl", UpgradeDefinition.Category.COMBAT,
+            Attributes.MAX_HEALTH, 4.0, AttributeModifier.Operation.ADD_VALUE, ""),
+        builtin("swiftness", SWIFTNESS, "§a⚡ Swiftness", "+3% Speed/lvl", UpgradeDefinition.Category.UTILITY,
+            Attributes.MOVEMENT_SPEED, 0.03, AttributeModifier.Operation.ADD_MULTIPLIED_BASE, "speed"),
+        builtin("titans_reach", REACH, "§a✋ Titan's Reach", "+0.5 Reach/lvl", UpgradeDefinition.Category.UTILITY,
+            Attributes.BLOCK_INTERACTION_RANGE, 0.5, AttributeModifier.Operation.ADD_VALUE, ""),
+        builtin("haste", HASTE, "§a⛏ Haste", "+8% Mining/lvl", UpgradeDefinition.Category.UTILITY,
+            Attributes.BLOCK_BREAK_SPEED, 0.08, AttributeModifier.Operation.ADD_MULTIPLIED_BASE, "mining"),
+        builtin("fortune", FORTUNE, "§d🍀 Fortune", "+5% Luck/lvl", UpgradeDefinition.Category.SPECIAL,
+            Attributes.LUCK, 0.05, AttributeModifier.Operation.ADD_VALUE, ""),
+        builtin("might", MIGHT, "§c⚔ Might", "+5% Damage/lvl", UpgradeDefinition.Category.COMBAT,
+            Attributes.ATTACK_DAMAGE, 0.05, AttributeModifier.Operation.ADD_MULTIPLIED_BASE, "damage"),
+        builtin("resilience", RESILIENCE, "§c🛡 Resilience", "+1 Armor/lvl", UpgradeDefinition.Category.COMBAT,
+            Attributes.ARMOR, 1.0, AttributeModifier.Operation.ADD_VALUE, ""),
+        // Not sold in the shop; kept so existing levels survive
+        builtin("experience", EXPERIENCE, "§d✦ Experience", "", UpgradeDefinition.Category.HIDDEN,
+            null, 0.0, AttributeModifier.Operation.ADD_VALUE, ""),
+        // Read by AscensionManager / AscendancyMod directly
+        builtin("keeper", KEEPER, "§d📦 Keeper", "+1 Keep Amount", UpgradeDefinition.Category.SPECIAL,
+            null, 1.0, AttributeModifier.Operation.ADD_VALUE, ""),
+        builtin("wisdom", WISDOM, "§d✦ Wisdom", "+10% Soul XP/lvl", UpgradeDefinition.Category.SPECIAL,
+            null, 0.10, AttributeModifier.Operation.ADD_VALUE, "")
+    );
+
+    private static volatile List<UpgradeDefinition> entries = BUILTIN;
+    private static volatile Map<Identifier, UpgradeDefinition> byId = index(BUILTIN);
+
+    // Entries before the last reload, used to remap online players if ordinals moved
+    private static volatile List<UpgradeDefinition> previousEntries = BUILTIN;
+
+    // ==================== LOOKUP ====================
+
+    public static List<UpgradeDefinition> all() {
+        return entries;
+    }
+
+    public static int size() {
+        return entries.size();
+    }
+
+    @Nullable
+    public static UpgradeDefinition byOrdinal(int ordinal) {
+        List<UpgradeDefinition> current = entries;
+        return ordinal >= 0 && ordinal < current.size() ? current.get(ordinal) : null;
+    }
+
+    @Nullable
+    public static UpgradeDefinition byId(Identifier id) {
+        return byId.get(id);
+    }
+
+    // ==================== LEVEL ARRAY CONVERSION ====================
+
+    /**
+     * Build a level array from a persisted id -> level map. Unknown ids are left out;
+     * see {@link #unknownLevels}.
+     */
+    public static int[] toLevels(Map<Identifier, Integer> levelsById) {
+        int[] levels = new int[size()];
+        levelsById.forEach((id, level) -> {
+            UpgradeDefinition def = byId(id);
+            if (def != null) levels[def.ordinal()] = level;
+        });
+        return levels;
+    }
+
+    /**
+     * The entries of a persisted id -> level map whose upgrade isn't registered, kept
+     * so the levels come back if the upgrade does
+     */
+    public static Map<Identifier, Integer> unknownLevels(Map<Identifier, Integer> levelsById) {
+        Map<Identifier, Integer> unknown = new LinkedHashMap<>();
+        levelsById.forEach((id, level) -> {
+            if (byId(id) == null && level != 0) unknown.put(id, level);
+        });
+        return unknown.isEmpty() ? Map.of() : Map.copyOf(unknown);
+    }
+
+    /**
+     * Persisted form of a level array. Zero levels are omitted.
+     */
+    public static Map<Identifier, Integer> fromLevels(int[] levels) {
+        List<UpgradeDefinition> current = entries;
+        Map<Identifier, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < levels.length && i < current.size(); i++) {
+            if (levels[i] != 0) {
+                result.put(current.get(i).id(), levels[i]);
+            }
+        }
+        return result;
+    }
+
+    // ==================== DATAPACK LOADING ====================
+
+    public static void register() {
+        ResourceManagerHelper.get(PackType.SERVER_DATA).registerReloadListener(new Loader());
+
+        // Move online players' levels to the new ordinals, drop modifiers of upgrades that
+        // are gone or changed attribute, and resend the registry
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            List<UpgradeDefinition> before = previousEntries;
+            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                AscendancyData data = PlayerDataManager.getData(player);
+                PlayerDataManager.setData(player, remap(before, data));
+                AttributeHandler.removeStaleModifiers(player, before);
+                AttributeHandler.forget(player);
+                AttributeHandler.applyUpgrades(player);
+                AscendancyNetworking.syncRegistryToClient(player);
+                AscendancyNetworking.syncToClient(player);
+            }
+            previousEntries = entries;
+        });
+    }
+
+    /**
+     * Levels by the new ordinals. Levels of upgrades that left the registry are parked by
+     * id, and parked levels of upgrades that came back are restored.
+     */
+    private static AscendancyData remap(List<UpgradeDefinition> before, AscendancyData data) {
+        if (before == entries) return data;
+        int[] levels = data.upgradeLevels();
+        Map<Identifier, Integer> byOldId = new LinkedHashMap<>(data.unknownUpgrades());
+        for (int i = 0; i < levels.length && i < before.size(); i++) {
+            if (levels[i] != 0) byOldId.put(before.get(i).id(), levels[i]);
+        }
+        return data.withUpgradeLevels(toLevels(byOldId)).withUnknownUpgrades(unknownLevels(byOldId));
+    }
+
+    private static void apply(Map<Identifier, UpgradeDefinition> loaded) {
+        List<UpgradeDefinition> result = new ArrayList<>(BUILTIN.size() + loaded.size());
+        Map<Identifier, UpgradeDefinition> remaining = new TreeMap<>(loaded);
+
+        // Built-ins keep their ordinal even when overridden
+        for (UpgradeDefinition builtin : BUILTIN) {
+            UpgradeDefinition override = remaining.remove(builtin.id());
+            result.add(override != null ? override.withIdentity(builtin.id(), builtin.ordinal()) : builtin);
+        }
+        for (Map.Entry<Identifier, UpgradeDefinition> entry : remaining.entrySet()) {
+            result.add(entry.getValue().withIdentity(entry.getKey(), result.size()));
+        }
+
+        previousEntries = entries;
+        entries = List.copyOf(result);
+        byId = index(entries);
+        AscendancyMod.LOGGER.info("Loaded {} upgrades ({} from datapacks)", entries.size(), loaded.size());
+    }
+
+    private static class Loader implements SimpleSynchronousResourceReloadListener {
+        @Override
+        public Identifier getFabricId() {
+            return Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "upgrades");
+        }
+
+        @Override
+        public void onResourceManagerReload(ResourceManager manager) {
+            Map<Identifier, UpgradeDefinition> loaded = new HashMap<>();
+            Map<Identifier, Resource> resources = manager.listResources(DIRECTORY, path -> path.getPath().endsWith(".json"));
+
+            for (Map.Entry<Identifier, Resource> entry : resources.entrySet()) {
+                Identifier file = entry.getKey();
+                String name = file.getPath().substring(DIRECTORY.length() + 1, file.getPath().length() - ".json".length());
+                Identifier id = Identifier.fromNamespaceAndPath(file.getNamespace(), name);
+
+                try (Reader reader = entry.getValue().openAsReader()) {
+                    JsonElement json = JsonParser.parseReader(reader);
+                    UpgradeDefinition.CODEC.parse(JsonOps.INSTANCE, json)
+                        .resultOrPartial(error -> AscendancyMod.LOGGER.error("Invalid upgrade {}: {}", id, error))
+                        .ifPresent(def -> loaded.put(id, def));
+                } catch (Exception e) {
+                    AscendancyMod.LOGGER.error("Failed to read upgrade {}", file, e);
+                }
+            }
+
+            apply(loaded);
+        }
+    }
+
+    // ==================== INTERNAL ====================
+
+    private static UpgradeDefinition builtin(String path, int ordinal, String name, String effect,
+                                             UpgradeDefinition.Category category, @Nullable Holder<Attribute> attribute,
+                                             double perLevel, AttributeModifier.Operation operation, String achievementBonus) {
+        return new UpgradeDefinition(Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, path), ordinal,
+            name, effect, category, attribute, perLevel, operation,
+            AscendancyMod.BASE_UPGRADE_COST, AscendancyMod.UPGRADE_COST_GROWTH, 0, achievementBonus);
+    }
+
+    private static Map<Identifier, UpgradeDefinition> index(List<UpgradeDefinition> list) {
+        Map<Identifier, UpgradeDefinition> map = new HashMap<>();
+        for (UpgradeDefinition def : list) {
+            map.put(def.id(), def);
+        }
+        return Map.copyOf(map);
+    }
+}
@@ -2,27 +2,31 @@ package com.uipg9.ascendancy.logic;
 
 import com.uipg9.ascendancy.AscendancyMod;
 import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.mixin.PlayerAdvancementsAccessor;
 import com.uipg9.ascendancy.network.AscendancyNetworking;
 import com.uipg9.ascendancy.systems.*;
+import net.minecraft.advancements.AdvancementNode;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerAdvancements;
+import net.minecraft.server.ServerAdvancementManager;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.effect.MobEffects;
+import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.ChestBlock;
-import net.minecraft.world.level.block.entity.ChestBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.block.state.properties.ChestType;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.tags.StructureTags;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Manages the Ascension process - A New World Awaits!
@@ -42,7 +46,7 @@ import java.util.List;
  * - Player keeps ONE chosen item (amount based on Keeper upgrade)
  * - Mysterious village spawn with blindness fade
  * - World reset: clear weather, dawn (time=0)
- * - Legacy chest preserves old items at departure site
+ * - Legacy chest preserves old items at departure site (backed by a vault, no slot limit)
  */
 public class AscensionManager {
     
@@ -59,106 +63,303 @@ public class AscensionManager {
     private static final int BLINDNESS_DURATION = 160; // 8 seconds (ticks) - slowly fades
     private static final int NIGHT_VISION_DURATION = 600; // 30 seconds after awakening
     
+    // ==================== STAGED ASCENSION ====================
+    
+    /**
+     * Ascension phases, run one per tick by {@link AscensionPipeline}.
+     * PREPARE only reads, so cancelling before LEGACY leaves the player untouched.
+     * LEGACY collects and wipes in one step (no tick in between to duplicate items in);
+     * from then on the items only exist in the {@link Ascension}, and every later phase
+     * is safe to run again.
+     */
+    public enum Phase {
+        PREPARE,       // Rewards and the departure point
+        LEGACY,        // Collect items, wipe inventory, return the heirloom
+        VAULT,         // Legacy chest, vault and echo site
+        RECORD,        // Chronicle, achievements, constellation
+        ADVANCEMENTS,  // Bulk advancement reset
+        LOCATE,        // Village search for the new spawn
+        ARRIVE,        // Teleport, awakening effects, new morning
+        NEW_LIFE;      // Prestige, craving, chronicle, pets, sync
+        
+        public static final Phase[] VALUES = values();
+    }
+    
+    /**
+     * State carried between the phases of one player's ascension
+     */
+    public static final class Ascension {
+        public final UUID playerId;
+        private int keepSlot;
+        private ItemStack keepItem;        // What was in keepSlot when the request was made
+        private int nextPhase = 0;
+        
+        private BlockPos oldPos;
+        private int currentAscensionCount;
+        private int prestigeReward;
+        private int cravingBonus;
+        private int achievementBonus;
+        private BlockPos newSpawn;
+        private boolean committed;     // LEGACY collected the items; the player is (being) wiped
+        private ItemStack keptItem = ItemStack.EMPTY;
+        private List<ItemStack> legacyItems = List.of();
+        private List<String> echoArmor = List.of();
+        private BlockPos chestPos;
+        private boolean vaulted;
+        private boolean echoRegistered;
+        private boolean chronicled;
+        private boolean achievementsCounted;
+        private boolean rewarded;      // NEW_LIFE granted prestige (it may run again after a failure)
+        private int failures;          // Consecutive failures of the next phase
+        
+        private Ascension(ServerPlayer player, int keepSlot) {
+            this.playerId = player.getUUID();
+            this.keepSlot = keepSlot;
+            this.keepItem = keepSlot >= 0 && keepSlot < player.getInventory().getContainerSize()
+                ? player.getInventory().getItem(keepSlot).copy() : ItemStack.EMPTY;
+        }
+        
+        /**
+         * A repeated request while still queued replaces the chosen item
+         */
+        void mergeRequest(Ascension newer) {
+            if (nextPhase == 0) {
+                keepSlot = newer.keepSlot;
+                keepItem = newer.keepItem;
+            }
+        }
+        
+        /**
+         * The inventory may have changed while the request was queued: follow the chosen
+         * item to its current slot. Returns false if the player no longer has it.
+         */
+        boolean revalidateKeepSlot(ServerPlayer player) {
+            if (keepItem.isEmpty()) {
+                keepSlot = -1;
+                return true;
+            }
+            Inventory inventory = player.getInventory();
+            if (keepSlot < inventory.getContainerSize()
+                    && ItemStack.isSameItemSameComponents(inventory.getItem(keepSlot), keepItem)) {
+                return true;
+            }
+            for (int slot = 0; slot < inventory.getContainerSize(); slot++) {
+                if (ItemStack.isSameItemSameComponents(inventory.getItem(slot), keepItem)) {
+                    keepSlot = slot;
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        public int completedPhases() {
+            return nextPhase;
+        }
+        
+        public boolean isDone() {
+            return nextPhase >= Phase.VALUES.length;
+        }
+        
+        public Phase nextPhase() {
+            return Phase.VALUES[Math.min(nextPhase, Phase.VALUES.length - 1)];
+        }
+        
+        /**
+         * LEGACY has taken the player's items, so the remaining phases must still happen
+         */
+        public boolean isCommitted() {
+            return committed;
+        }
+        
+        /**
+         * Count a failure of the next phase. Returns true once it has failed maxAttempts
+         * times in a row and was skipped instead of being retried again.
+         */
+        boolean failPhase(int maxAttempts) {
+            if (++failures < maxAttempts) return false;
+            failures = 0;
+            nextPhase++;
+            return true;
+        }
+    }
+    
     /**
      * Perform ascension with a chosen item to keep.
+     * The request is queued and the work spread over several ticks by {@link AscensionPipeline}.
      * @param player The player ascending
      * @param keepSlot The inventory slot of the item to keep (-1 for none)
      */
     public static void performAscensionWithItem(ServerPlayer player, int keepSlot) {
-        ServerLevel level = (ServerLevel) player.level();
-        BlockPos oldPos = player.blockPosition();
+        AscensionPipeline.start(player, new Ascension(player, keepSlot));
+    }
+    
+    /**
+     * Run the next phase of an ascension. A phase that throws stays next, so phases from
+     * LEGACY on are written to be safe to run again.
+     */
+    static void runNextPhase(ServerPlayer player, Ascension ascension) {
+        switch (ascension.nextPhase()) {
+            case PREPARE -> prepare(player, ascension);
+            case LEGACY -> leaveLegacy(player, ascension);
+            case VAULT -> vaultLegacy(player, ascension);
+            case RECORD -> recordAscension(player, ascension);
+            case ADVANCEMENTS -> revokeAllAdvancements(player);
+            case LOCATE -> ascension.newSpawn = calculateVillageSpawnLocation((ServerLevel) player.level(), ascension.oldPos);
+            case ARRIVE -> arrive(player, ascension);
+            case NEW_LIFE -> beginNewLife(player, ascension);
+        }
+        ascension.nextPhase++;
+        ascension.failures = 0;
+    }
+    
+    private static void prepare(ServerPlayer player, Ascension ascension) {
+        // Nothing here may change the player: a later failure before LEGACY cancels the ascension
+        ascension.oldPos = player.blockPosition();
         
         // Get ascension count BEFORE incrementing for reward calculation
-        int currentAscensionCount = PlayerDataManager.getAscensionCount(player);
-        int prestigeReward = AscendancyMod.getPrestigeReward(currentAscensionCount);
+        ascension.currentAscensionCount = PlayerDataManager.getAscensionCount(player);
+        ascension.prestigeReward = AscendancyMod.getPrestigeReward(ascension.currentAscensionCount);
         
         // v2.5 - Check for bonus prestige from Soul's Craving
-        int cravingBonus = SoulCravingManager.getBonusPrestige(player);
+        ascension.cravingBonus = SoulCravingManager.getBonusPrestige(player);
         
         // v2.5 - Check for bonus from Achievements
-        int achievementBonus = (int) AchievementManager.getTotalBonus(player, "prestige");
-        
-        // v2.5 - Record Chronicle entry for ascension
-        ChronicleManager.recordEvent(player, "ascension", 
-            "Ascended from life #" + (currentAscensionCount + 1) + " with " + prestigeReward + " prestige earned.");
-        
-        // v2.5 - Save Chronicle before new life
-        ChronicleManager.saveToHistory(player);
-        
-        // v2.5 - Update Achievement progress
-        AchievementManager.addProgress(player, AchievementManager.Achievement.FIRST_ASCENSION, 1);
-        AchievementManager.addProgress(player, AchievementManager.Achievement.VETERAN, 1);
-        AchievementManager.addProgress(player, AchievementManager.Achievement.LEGEND, 1);
-        AchievementManager.addProgress(player, AchievementManager.Achievement.ETERNAL, 1);
+        ascension.achievementBonus = (int) AchievementManager.getTotalBonus(player, "prestige");
         
         AscendancyMod.LOGGER.info("Player {} beginning rebirth from {} (Ascension #{}, +{} pts, craving bonus: {}, achievement bonus: {})", 
-            player.getName().getString(), oldPos, currentAscensionCount + 1, prestigeReward, cravingBonus, achievementBonus);
-        
-        // 1. SAVE CHOSEN ITEM (with amount limit based on Keeper level)
-        ItemStack keptItem = ItemStack.EMPTY;
-        if (keepSlot >= 0 && keepSlot < player.getInventory().getContainerSize()) {
-            ItemStack original = player.getInventory().getItem(keepSlot);
-            if (!original.isEmpty()) {
-                int keepAmount = getKeepAmount(player);
-                int actualAmount = Math.min(keepAmount, original.getCount());
-                keptItem = original.copyWithCount(actualAmount);
-                
-                // Process as Heirloom - adds lore and special properties!
-                keptItem = HeirloomManager.processHeirloom(keptItem, player, currentAscensionCount + 1);
-                
-                AscendancyMod.LOGGER.info("Player keeping heirloom {} x{}", keptItem.getDisplayName().getString(), actualAmount);
+            player.getName().getString(), ascension.oldPos, ascension.currentAscensionCount + 1,
+            ascension.prestigeReward, ascension.cravingBonus, ascension.achievementBonus);
+    }
+    
+    private static void leaveLegacy(ServerPlayer player, Ascension ascension) {
+        if (!ascension.committed) {
+            // 1. SAVE CHOSEN ITEM (with amount limit based on Keeper level)
+            int keepSlot = ascension.keepSlot;
+            if (keepSlot >= 0 && keepSlot < player.getInventory().getContainerSize()) {
+                ItemStack original = player.getInventory().getItem(keepSlot);
+                if (!original.isEmpty()) {
+                    int keepAmount = getKeepAmount(player);
+                    ascension.keptItem = original.copyWithCount(Math.min(keepAmount, original.getCount()));
+                }
             }
+            
+            // 2. Collect ALL items and the armor the Echo will wear, before wiping
+            ascension.legacyItems = collectAllItems(player);
+            ascension.echoArmor = EchoManager.getArmorIds(player);
+            
+            // From here on the items only live in the ascension: it can no longer be cancelled
+            ascension.committed = true;
         }
         
-        // 2. Collect ALL items before wiping (for legacy chest)
-        List<ItemStack> allItems = collectAllItems(player);
+        // 3. WIPE PLAYER completely - NO keep inventory! (advancements follow later)
+        // Safe to repeat if a step below fails and the phase is retried
+        wipePlayer(player);
         
-        // 3. CREATE LEGACY SITE at old location + Register Echo spawn point
-        BlockPos chestPos = createLegacySite(level, oldPos, allItems);
-        EchoManager.registerLegacySite(player, chestPos);
+        // XP still queued belongs to the life being left
+        SoulXPAwards.discard(player);
         
-        // 4. Clear constellation for new life selection
-        ConstellationManager.clearConstellation(player);
+        // 4. Return kept item to first slot, processed as an Heirloom - adds lore and special properties!
+        if (!ascension.keptItem.isEmpty()) {
+            ItemStack heirloom = HeirloomManager.processHeirloom(ascension.keptItem, player, ascension.currentAscensionCount + 1);
+            player.getInventory().setItem(0, heirloom);
+            AscendancyMod.LOGGER.info("Player keeping heirloom {} x{}", heirloom.getDisplayName().getString(), heirloom.getCount());
+        }
+    }
+    
+    private static void vaultLegacy(ServerPlayer player, Ascension ascension) {
+        ServerLevel level = (ServerLevel) player.level();
         
-        // 5. WIPE PLAYER completely - NO keep inventory!
-        wipePlayer(player);
+        // 5. CREATE LEGACY SITE at old location. The position is fixed on the first attempt,
+        // so a retry rewrites the same vault instead of leaving a second copy of the items
+        if (ascension.chestPos == null) {
+            ascension.chestPos = findLegacySitePos(level, ascension.oldPos);
+        }
+        if (!ascension.vaulted) {
+            createLegacySite(level, ascension.chestPos, ascension.legacyItems);
+            ascension.vaulted = true;
+            ascension.legacyItems = List.of();
+        }
+        
+        // 6. Register Echo spawn point
+        if (!ascension.echoRegistered) {
+            EchoManager.registerLegacySite(player, ascension.chestPos, ascension.echoArmor);
+            ascension.echoRegistered = true;
+        }
+    }
+    
+    private static void recordAscension(ServerPlayer player, Ascension ascension) {
+        // Retried if anything below throws, so each step only runs once
+        if (!ascension.chronicled) {
+            // v2.5 - Record Chronicle entry for ascension
+            ChronicleManager.recordEvent(player, "ascension", 
+                "Ascended from life #" + (ascension.currentAscensionCount + 1) + " with " + ascension.prestigeReward + " prestige earned.");
+            
+            // v2.5 - Save Chronicle before new life
+            ChronicleManager.saveToHistory(player);
+            ascension.chronicled = true;
+        }
         
-        // 6. Return kept item to first slot
-        if (!keptItem.isEmpty()) {
-            player.getInventory().setItem(0, keptItem);
+        if (!ascension.achievementsCounted) {
+            // Marked first: a partial count is better than counting the same ascension twice
+            ascension.achievementsCounted = true;
+            
+            // v2.5 - Update Achievement progress
+            AchievementManager.addProgress(player, AchievementManager.Achievement.FIRST_ASCENSION, 1);
+            AchievementManager.addProgress(player, AchievementManager.Achievement.VETERAN, 1);
+            AchievementManager.addProgress(player, AchievementManager.Achievement.LEGEND, 1);
+            AchievementManager.addProgress(player, AchievementManager.Achievement.ETERNAL, 1);
         }
         
-        // 7. CALCULATE NEW POSITION (village spawn)
-        BlockPos newSpawn = calculateVillageSpawnLocation(level, oldPos);
+        // 7. Clear constellation for new life selection
+        ConstellationManager.clearConstellation(player);
+    }
+    
+    private static void arrive(ServerPlayer player, Ascension ascension) {
+        ServerLevel level = (ServerLevel) player.level();
+        BlockPos newSpawn = ascension.newSpawn;
+        if (newSpawn == null) {
+            // LOCATE was skipped after failing repeatedly - wake up on the surface where they left
+            newSpawn = level.getHeightmapPos(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, ascension.oldPos);
+            ascension.newSpawn = newSpawn;
+            AscendancyMod.LOGGER.warn("No new spawn located for {}, arriving at {}", player.getName().getString(), newSpawn);
+        }
         
-        // 7. TELEPORT to village ground level and set as spawn
+        // 8. TELEPORT to village ground level
         player.teleportTo(newSpawn.getX() + 0.5, newSpawn.getY(), newSpawn.getZ() + 0.5);
         
         // Note: With reduced distance (50k blocks), lag should be minimal now
         // Player will respawn at world spawn if they die, but that's acceptable
         
-        // 8. APPLY AWAKENING EFFECTS - The Mystery Experience
+        // 9. APPLY AWAKENING EFFECTS - The Mystery Experience
         applyAwakeningEffects(player);
         
-        // 9. RESET WORLD PARAMETERS - New morning!
+        // 10. RESET WORLD PARAMETERS - New morning!
         level.setDayTime(0L); // Dawn - a new day begins
         level.setWeatherParameters(24000, 0, false, false); // Clear weather for a full day
-        
-        // 10. RESET FOR ASCENSION (handles count increment and prestige points)
-        PlayerDataManager.resetForAscension(player);
-        
-        // v2.5 - Add bonus prestige from craving and achievements
-        if (cravingBonus > 0 || achievementBonus > 0) {
-            int totalBonus = cravingBonus + achievementBonus;
-            PlayerDataManager.addPrestigePoints(player, totalBonus);
-            if (cravingBonus > 0) {
-                AscendancyMod.LOGGER.info("Player {} earned {} bonus prestige from Soul's Craving", 
-                    player.getName().getString(), cravingBonus);
-            }
-            if (achievementBonus > 0) {
-                AscendancyMod.LOGGER.info("Player {} earned {} bonus prestige from Achievements", 
-                    player.getName().getString(), achievementBonus);
+    }
+    
+    private static void beginNewLife(ServerPlayer player, Ascension ascension) {
+        // Retried if anything below throws, so the rewards are only granted once
+        if (!ascension.rewarded) {
+            // 11. RESET FOR ASCENSION (handles count increment and prestige points)
+            PlayerDataManager.resetForAscension(player);
+            
+            // v2.5 - Add bonus prestige from craving and achievements
+            int cravingBonus = ascension.cravingBonus;
+            int achievementBonus = ascension.achievementBonus;
+            if (cravingBonus > 0 || achievementBonus > 0) {
+                int totalBonus = cravingBonus + achievementBonus;
+                PlayerDataManager.addPrestigePoints(player, totalBonus);
+                if (cravingBonus > 0) {
+                    AscendancyMod.LOGGER.info("Player {} earned {} bonus prestige from Soul's Craving", 
+                        player.getName().getString(), cravingBonus);
+                }
+                if (achievementBonus > 0) {
+                    AscendancyMod.LOGGER.info("Player {} earned {} bonus prestige from Achievements", 
+                        player.getName().getString(), achievementBonus);
+                }
             }
+            ascension.rewarded = true;
         }
         
         // v2.5 - Generate new Soul's Craving for this life
@@ -170,14 +371,14 @@ public class AscensionManager {
         // v2.5 - Restore bonded pets from previous life
         AncestralBondManager.restorePets(player);
         
-        // 11. SYNC DATA - no chat notification during loading screen
+        // 12. SYNC DATA - no chat notification during loading screen
         AscendancyNetworking.syncToClient(player);
         
         // Send subtle notification (player sees loading screen)
         player.displayClientMessage(Component.literal("§6§l✦ You awaken in a new world... ✦"), true);
         
         AscendancyMod.LOGGER.info("Player {} reborn at {}. Ascension #{}", 
-            player.getName().getString(), newSpawn, PlayerDataManager.getAscensionCount(player));
+            player.getName().getString(), ascension.newSpawn, PlayerDataManager.getAscensionCount(player));
     }
     
     /**
@@ -348,47 +549,33 @@ public class AscensionManager {
     }
     
     /**
-     * Create the legacy site with a double chest containing items
-     * Also stores location for Echo boss spawning
-     * @return The position of the chest for Echo registration
+     * Surface position for the legacy chest above where the player left
      */
-    private static BlockPos createLegacySite(ServerLevel level, BlockPos pos, List<ItemStack> items) {
-        // Find a safe surface position
+    private static BlockPos findLegacySitePos(ServerLevel level, BlockPos pos) {
         int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, pos.getX(), pos.getZ());
-        BlockPos chestPos = new BlockPos(pos.getX(), surfaceY, pos.getZ());
-        
+        return new BlockPos(pos.getX(), surfaceY, pos.getZ());
+    }
+    
+    /**
+     * Create the legacy site: a single chest backed by an off-world vault.
+     * Items are paged into the chest when it's opened (see LegacyVaultManager),
+     * so nothing is lost to slot limits and no block entity fill is needed here.
+     * Placing it again at the same position replaces the vault rather than adding one.
+     */
+    private static void createLegacySite(ServerLevel level, BlockPos chestPos, List<ItemStack> items) {
         // Clear space above
-        level.setBlock(chestPos.above(), Blocks.AIR.defaultBlockState(), 3);
         level.setBlock(chestPos.above().above(), Blocks.AIR.defaultBlockState(), 3);
         
-        // Place double chest - ensure proper facing
         level.setBlock(chestPos, Blocks.CHEST.defaultBlockState()
-            .setValue(ChestBlock.TYPE, ChestType.LEFT)
-            .setValue(ChestBlock.FACING, Direction.NORTH), 3);
-        level.setBlock(chestPos.east(), Blocks.CHEST.defaultBlockState()
-            .setValue(ChestBlock.TYPE, ChestType.RIGHT)
             .setValue(ChestBlock.FACING, Direction.NORTH), 3);
         
-        // Schedule item filling for next tick (ensures block entity exists)
-        level.getServer().execute(() -> {
-            if (level.getBlockEntity(chestPos) instanceof ChestBlockEntity chest) {
-                int slot = 0;
-                for (ItemStack item : items) {
-                    if (slot >= 54) break; // Double chest has 54 slots
-                    chest.setItem(slot++, item);
-                }
-                chest.setChanged();
-                AscendancyMod.LOGGER.info("Filled legacy chest with {} items at {}", slot, chestPos);
-            } else {
-                AscendancyMod.LOGGER.warn("Failed to get chest block entity at {}", chestPos);
-            }
-        });
-        
         // Place a glowstone marker on top of chest for visibility
         level.setBlock(chestPos.above(), Blocks.GLOWSTONE.defaultBlockState(), 3);
         
+        // Last, so a retry never finds a vault that items were already paged out of
+        LegacyVaultManager.createVault(level, chestPos, items);
+        
         AscendancyMod.LOGGER.info("Created legacy site at {}", chestPos);
-        return chestPos;
     }
     
     /**
@@ -412,27 +599,36 @@ public class AscensionManager {
         // Reset vanilla experience (we have our own Soul XP system)
         player.setExperienceLevels(0);
         player.setExperiencePoints(0);
-        
-        // Revoke all advancements
-        revokeAllAdvancements(player);
     }
     
     /**
-     * Revoke all advancements to reset progress
+     * Revoke all advancements to reset progress.
+     * Swaps the progress map for an empty one in a single step instead of revoking
+     * criterion by criterion (each revoke fires listeners and queues an update).
+     * The next flushDirty sends one reset packet since isFirstPacket is set.
      */
     private static void revokeAllAdvancements(ServerPlayer player) {
-        var tracker = player.getAdvancements();
         MinecraftServer server = player.level().getServer();
-        
-        if (server != null) {
-            server.getAdvancements().getAllAdvancements().forEach(advancement -> {
-                var progress = tracker.getOrStartProgress(advancement);
-                if (progress.isDone()) {
-                    for (String criterion : progress.getCompletedCriteria()) {
-                        tracker.revoke(advancement, criterion);
-                    }
-                }
-            });
+        if (server == null) return;
+        
+        PlayerAdvancements advancements = player.getAdvancements();
+        PlayerAdvancementsAccessor accessor = (PlayerAdvancementsAccessor) advancements;
+        ServerAdvancementManager manager = server.getAdvancements();
+        
+        advancements.stopListening();
+        accessor.ascendancy$getProgress().clear();
+        accessor.ascendancy$getVisible().clear();
+        accessor.ascendancy$getProgressChanged().clear();
+        accessor.ascendancy$getRootsToUpdate().clear();
+        accessor.ascendancy$setFirstPacket(true);
+        
+        // Same order as vanilla load: automatic grants, then one listener pass
+        accessor.ascendancy$checkForAutomaticTriggers(manager);
+        accessor.ascendancy$registerListeners(manager);
+        
+        // Recompute visibility for every tree so the reset packet re-adds the roots
+        for (AdvancementNode root : accessor.ascendancy$getTree().roots()) {
+            accessor.ascendancy$getRootsToUpdate().add(root);
         }
     }
 }
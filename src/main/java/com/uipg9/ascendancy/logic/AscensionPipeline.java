@@ -0,0 +1,217 @@
+package com.uipg9.ascendancy.logic;
+
+import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.network.AscendancyNetworking;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Runs ascensions as per-player state machines, behind a server-wide admission queue.
+ *
+ * Requests wait in a FIFO queue until one of {@link #MAX_CONCURRENT} slots frees up.
+ * Leaving the queue any other way (disconnect, server stop, the chosen item gone) cancels
+ * the request: the player keeps everything and is told why.
+ * Each admitted ascension advances one {@link AscensionManager.Phase} per server tick,
+ * round-robin, and the tick stops starting new phases once the time budget is spent.
+ * The budget is only checked between phases. LOCATE's structure search is the one phase
+ * that can overrun it on its own, so it only starts at the top of a tick and no other
+ * ascension work follows it that tick: at most one search per tick, whatever it costs.
+ * Progress (or queue position) is reported to the client's loading screen.
+ *
+ * A phase that throws before LEGACY has collected the items cancels the ascension: PREPARE
+ * only reads, so nothing has been taken or recorded yet. From then on the items exist only
+ * in the ascension, so a failed phase is retried on the next turn and skipped after
+ * {@link #MAX_PHASE_ATTEMPTS}; the teleport and the new life's prestige still happen.
+ */
+public class AscensionPipeline {
+
+    // Ascensions running at once - each one does a structure search and chunk loads
+    private static final int MAX_CONCURRENT = 2;
+
+    // Stop starting phases once a tick has spent this long on ascensions
+    private static final long TICK_BUDGET_NANOS = 10_000_000L; // 10ms
+
+    // Attempts at a phase after LEGACY before it is skipped
+    private static final int MAX_PHASE_ATTEMPTS = 3;
+
+    // Requests waiting for a slot, in arrival order
+    private static final Map<UUID, AscensionManager.Ascension> queued = new LinkedHashMap<>();
+
+    // Admitted ascensions; served from the head, requeued at the tail after each phase
+    private static final ArrayDeque<AscensionManager.Ascension> running = new ArrayDeque<>();
+    private static final Map<UUID, AscensionManager.Ascension> runningById = new HashMap<>();
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(AscensionPipeline::tick);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            // Nothing may be left half-wiped in the save
+            for (UUID playerId : runningById.keySet().toArray(new UUID[0])) {
+                ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+                if (player != null) drain(player);
+            }
+            for (UUID playerId : queued.keySet()) {
+                ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+                if (player != null) cancel(player, "the server is stopping");
+            }
+            queued.clear();
+            running.clear();
+            runningById.clear();
+        });
+    }
+
+    /**
+     * Queue an ascension. A duplicate request from the same player is merged into the pending one.
+     */
+    static void start(ServerPlayer player, AscensionManager.Ascension ascension) {
+        UUID playerId = player.getUUID();
+        if (runningById.containsKey(playerId)) return;
+
+        AscensionManager.Ascension pending = queued.get(playerId);
+        if (pending != null) {
+            pending.mergeRequest(ascension);
+            return;
+        }
+
+        queued.put(playerId, ascension);
+        AscendancyNetworking.sendAscensionProgress(player, 0, false, queued.size());
+    }
+
+    public static boolean isAscending(ServerPlayer player) {
+        UUID playerId = player.getUUID();
+        return runningById.containsKey(playerId) || queued.containsKey(playerId);
+    }
+
+    public static int trackedPlayers() {
+        return runningById.size() + queued.size();
+    }
+
+    private static void tick(MinecraftServer server) {
+        if (running.isEmpty() && queued.isEmpty()) return;
+        long start = System.nanoTime();
+
+        admit(server);
+        boolean ranPhase = false;
+
+        // Each running ascension gets at most one phase per tick
+        for (int i = running.size(); i > 0 && !running.isEmpty(); i--) {
+            if (System.nanoTime() - start > TICK_BUDGET_NANOS) break;
+
+            AscensionManager.Ascension ascension = running.pollFirst();
+            ServerPlayer player = server.getPlayerList().getPlayer(ascension.playerId);
+            if (player == null) {
+                // Disconnect handler drains first; this only catches players removed some other way
+                runningById.remove(ascension.playerId);
+                continue;
+            }
+
+            // A structure search can't be split: it only starts at the top of a tick, and ends it
+            boolean heavy = ascension.nextPhase() == AscensionManager.Phase.LOCATE;
+            if (heavy && ranPhase) {
+                running.addFirst(ascension);
+                break;
+            }
+            ranPhase = true;
+            
+            if (!runPhase(player, ascension)) {
+                runningById.remove(ascension.playerId);
+                cancel(player, "something went wrong, and you keep everything");
+                continue;
+            }
+            boolean done = ascension.isDone();
+            AscendancyNetworking.sendAscensionProgress(player, ascension.completedPhases(), done, 0);
+            if (done) {
+                runningById.remove(ascension.playerId);
+            } else {
+                running.addLast(ascension);
+            }
+            if (heavy) break;
+        }
+    }
+
+    /**
+     * Move queued requests into free slots and tell the rest where they stand
+     */
+    private static void admit(MinecraftServer server) {
+        if (queued.isEmpty() || runningById.size() >= MAX_CONCURRENT) return;
+
+        Iterator<AscensionManager.Ascension> it = queued.values().iterator();
+        while (it.hasNext() && runningById.size() < MAX_CONCURRENT) {
+            AscensionManager.Ascension ascension = it.next();
+            it.remove();
+            ServerPlayer player = server.getPlayerList().getPlayer(ascension.playerId);
+            if (player == null) continue;
+            if (!ascension.revalidateKeepSlot(player)) {
+                cancel(player, "the item you chose to keep is no longer in your inventory");
+                continue;
+            }
+            running.addLast(ascension);
+            runningById.put(ascension.playerId, ascension);
+        }
+
+        int position = 1;
+        for (AscensionManager.Ascension waiting : queued.values()) {
+            ServerPlayer player = server.getPlayerList().getPlayer(waiting.playerId);
+            if (player != null) {
+                AscendancyNetworking.sendAscensionProgress(player, 0, false, position++);
+            }
+        }
+    }
+
+    /**
+     * Player leaving or server stopping. A running ascension finishes every remaining phase
+     * now; a request still waiting in the queue is cancelled instead.
+     */
+    public static void drain(ServerPlayer player) {
+        UUID playerId = player.getUUID();
+        if (queued.remove(playerId) != null) {
+            AscendancyMod.LOGGER.info("Cancelled queued ascension for {}", player.getName().getString());
+            return;
+        }
+        AscensionManager.Ascension ascension = runningById.remove(playerId);
+        if (ascension == null) return;
+        running.remove(ascension);
+
+        while (!ascension.isDone()) {
+            if (!runPhase(player, ascension)) return;
+        }
+        AscendancyMod.LOGGER.info("Finished remaining ascension phases for {}", player.getName().getString());
+    }
+
+    /**
+     * End a request that took nothing from the player, and close their loading screen
+     */
+    private static void cancel(ServerPlayer player, String reason) {
+        AscendancyNetworking.sendAscensionCancelled(player);
+        player.displayClientMessage(Component.literal("§cAscension cancelled: " + reason + "."), false);
+        AscendancyMod.LOGGER.info("Cancelled ascension for {}: {}", player.getName().getString(), reason);
+    }
+
+    /**
+     * Run the next phase. Returns false if the ascension was cancelled.
+     */
+    private static boolean runPhase(ServerPlayer player, AscensionManager.Ascension ascension) {
+        AscensionManager.Phase phase = ascension.nextPhase();
+        try {
+            AscensionManager.runNextPhase(player, ascension);
+            return true;
+        } catch (Exception e) {
+            AscendancyMod.LOGGER.error("Ascension phase {} failed for {}", phase, player.getName().getString(), e);
+            if (!ascension.isCommitted()) return false;
+            if (ascension.failPhase(MAX_PHASE_ATTEMPTS)) {
+                AscendancyMod.LOGGER.error("Skipping ascension phase {} for {} after {} attempts",
+                    phase, player.getName().getString(), MAX_PHASE_ATTEMPTS);
+            }
+            return true;
+        }
+    }
+}
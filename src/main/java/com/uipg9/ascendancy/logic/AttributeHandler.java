@@ -1,18 +1,29 @@
 package com.uipg9.ascendancy.logic;
 
 import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.AscendancyData;
 import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.data.UpgradeDefinition;
+import com.uipg9.ascendancy.data.UpgradeRegistry;
+import com.uipg9.ascendancy.systems.AchievementManager;
 import net.minecraft.resources.Identifier;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.ai.attributes.AttributeInstance;
 import net.minecraft.world.entity.ai.attributes.AttributeModifier;
 import net.minecraft.world.entity.ai.attributes.Attributes;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Handles permanent attribute modifications from Ascendancy upgrades.
  * Uses Mojang Official Mappings for 1.21.11
  * 
- * INFINITE PROGRESSION - No caps! Costs scale exponentially.
+ * INFINITE PROGRESSION - Costs scale exponentially. No caps unless an upgrade sets
+ * max_level (0 = uncapped, as for every built-in).
  * 
  * Original Upgrades:
  * - Vitality: +2 Hearts (4.0 HP) per level
@@ -25,87 +36,53 @@ import net.minecraft.world.entity.ai.attributes.Attributes;
  * - Might: +5% Attack Damage per level
  * - Resilience: +4% Armor per level (decreasing returns)
  * - Wisdom: +10% Soul XP gain per level (handled in tick logic)
+ * 
+ * Achievement rewards (speed, mining, damage) share the upgrade modifiers.
+ * Values, attributes and costs come from {@link UpgradeRegistry}.
  */
 public class AttributeHandler {
     
-    // Unique identifiers for each attribute modifier
-    private static final Identifier HEALTH_ID = Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "vitality");
-    private static final Identifier SPEED_ID = Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "swiftness");
-    private static final Identifier REACH_ID = Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "titans_reach");
-    private static final Identifier MINING_ID = Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "haste");
-    private static final Identifier LUCK_ID = Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "fortune");
-    private static final Identifier DAMAGE_ID = Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "might");
-    private static final Identifier ARMOR_ID = Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "resilience");
-    
-    // Upgrade values per level (balanced for infinite progression)
-    private static final double HEALTH_PER_LEVEL = 4.0;   // +2 hearts = +4 HP
-    private static final double SPEED_PER_LEVEL = 0.03;   // +3% movement speed (reduced for balance)
-    private static final double REACH_PER_LEVEL = 0.5;    // +0.5 block reach (reduced for balance)
-    private static final double MINING_PER_LEVEL = 0.08;  // +8% mining speed
-    private static final double LUCK_PER_LEVEL = 0.05;    // +5% luck
-    private static final double DAMAGE_PER_LEVEL = 0.05;  // +5% attack damage
-    private static final double ARMOR_PER_LEVEL = 1.0;    // +1 armor point
+    // Last value applied per (player, upgrade), indexed by UpgradeDefinition ordinal. NaN = unknown.
+    // Achievement rewards that touch the same attribute are folded into the upgrade value.
+    private static final Map<UUID, double[]> appliedValues = new HashMap<>();
     
     /**
-     * Apply all upgrades from player data
+     * Apply all upgrades from player data.
+     * Only attributes whose value actually changed are touched, so repeated calls
+     * (join, purchase, achievement unlock) don't dirty-sync every attribute.
      */
     public static void applyUpgrades(ServerPlayer player) {
-        // Original upgrades
-        applyModifier(
-            player.getAttribute(Attributes.MAX_HEALTH),
-            HEALTH_ID,
-            PlayerDataManager.getHealthLevel(player) * HEALTH_PER_LEVEL,
-            AttributeModifier.Operation.ADD_VALUE
-        );
-        
-        applyModifier(
-            player.getAttribute(Attributes.MOVEMENT_SPEED),
-            SPEED_ID,
-            PlayerDataManager.getSpeedLevel(player) * SPEED_PER_LEVEL,
-            AttributeModifier.Operation.ADD_MULTIPLIED_BASE
-        );
-        
-        applyModifier(
-            player.getAttribute(Attributes.BLOCK_INTERACTION_RANGE),
-            REACH_ID,
-            PlayerDataManager.getReachLevel(player) * REACH_PER_LEVEL,
-            AttributeModifier.Operation.ADD_VALUE
-        );
-        
-        applyModifier(
-            player.getAttribute(Attributes.BLOCK_BREAK_SPEED),
-            MINING_ID,
-            PlayerDataManager.getMiningLevel(player) * MINING_PER_LEVEL,
-            AttributeModifier.Operation.ADD_MULTIPLIED_BASE
-        );
-        
-        // New upgrades
-        applyModifier(
-            player.getAttribute(Attributes.LUCK),
-            LUCK_ID,
-            PlayerDataManager.getLuckLevel(player) * LUCK_PER_LEVEL,
-            AttributeModifier.Operation.ADD_VALUE
-        );
-        
-        applyModifier(
-            player.getAttribute(Attributes.ATTACK_DAMAGE),
-            DAMAGE_ID,
-            PlayerDataManager.getDamageLevel(player) * DAMAGE_PER_LEVEL,
-            AttributeModifier.Operation.ADD_MULTIPLIED_BASE
-        );
+        List<UpgradeDefinition> upgrades = UpgradeRegistry.all();
+        AscendancyData data = PlayerDataManager.getData(player);
+        double[] applied = appliedValues.compute(player.getUUID(),
+            (k, cache) -> cache != null && cache.length == upgrades.size() ? cache : newCache(upgrades.size()));
+        boolean maxHealthChanged = false;
         
-        applyModifier(
-            player.getAttribute(Attributes.ARMOR),
-            ARMOR_ID,
-            PlayerDataManager.getDefenseLevel(player) * ARMOR_PER_LEVEL,
-            AttributeModifier.Operation.ADD_VALUE
-        );
-        
-        // Experience (Wisdom) is handled in tickSoulXP via PlayerDataManager.getExperienceLevel()
+        for (UpgradeDefinition upgrade : upgrades) {
+            // Keeper / Wisdom etc. are read directly by the systems that use them
+            if (upgrade.attribute() == null) continue;
+            
+            double value = data.upgradeLevel(upgrade.ordinal()) * upgrade.perLevel();
+            if (!upgrade.achievementBonus().isEmpty()) {
+                value += AchievementManager.getTotalBonus(player, upgrade.achievementBonus());
+            }
+            if (applied[upgrade.ordinal()] == value) continue;
+            
+            AttributeInstance attribute = player.getAttribute(upgrade.attribute());
+            if (attribute == null) {
+                AscendancyMod.LOGGER.warn("Attribute instance is null for {}", upgrade.id());
+                continue;
+            }
+            
+            if (syncModifier(attribute, upgrade.id(), value, upgrade.operation())
+                    && upgrade.attribute().equals(Attributes.MAX_HEALTH)) {
+                maxHealthChanged = true;
+            }
+            applied[upgrade.ordinal()] = value;
+        }
         
-        // Ensure player health is updated if max health changed
-        int healthLevel = PlayerDataManager.getHealthLevel(player);
-        if (healthLevel > 0 && player.getHealth() < player.getMaxHealth()) {
+        // Only top up health when max health actually moved
+        if (maxHealthChanged && player.getHealth() < player.getMaxHealth()) {
             player.setHealth(player.getMaxHealth());
         }
         
@@ -113,137 +90,93 @@ public class AttributeHandler {
     }
     
     /**
-     * Apply a single modifier to an attribute
+     * Reapply upgrades to a freshly respawned player entity.
+     * The new entity doesn't share the old one's modifier state, so the cache is dropped first.
      */
-    private static void applyModifier(AttributeInstance attribute, Identifier id, 
-                                       double value, AttributeModifier.Operation operation) {
-        if (attribute == null) {
-            AscendancyMod.LOGGER.warn("Attribute instance is null for {}", id);
-            return;
-        }
-        
-        attribute.removeModifier(id);
-        
-        if (value > 0) {
-            attribute.addPermanentModifier(new AttributeModifier(id, value, operation));
-        }
-    }
-    
-    // ==================== PURCHASE METHODS (NO CAPS!) ====================
-    
-    public static boolean purchaseVitality(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getHealthLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setHealthLevel(player, currentLevel + 1);
-            applyUpgrades(player);
-            return true;
+    public static void onRespawn(ServerPlayer player, boolean alive) {
+        forget(player);
+        applyUpgrades(player);
+        if (!alive) {
+            player.setHealth(player.getMaxHealth());
         }
-        return false;
     }
     
-    public static boolean purchaseSwiftness(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getSpeedLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setSpeedLevel(player, currentLevel + 1);
-            applyUpgrades(player);
-            return true;
-        }
-        return false;
+    /**
+     * Drop the applied-value cache for a player (disconnect / respawn)
+     */
+    public static void forget(ServerPlayer player) {
+        appliedValues.remove(player.getUUID());
     }
     
-    public static boolean purchaseReach(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getReachLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setReachLevel(player, currentLevel + 1);
-            applyUpgrades(player);
-            return true;
+    /**
+     * Remove modifiers left by upgrades a datapack reload dropped or moved to another attribute.
+     * {@code before} is the registry as it was before the reload; call ahead of applyUpgrades.
+     */
+    public static void removeStaleModifiers(ServerPlayer player, List<UpgradeDefinition> before) {
+        for (UpgradeDefinition old : before) {
+            if (old.attribute() == null) continue;
+            UpgradeDefinition current = UpgradeRegistry.byId(old.id());
+            if (current != null && old.attribute().equals(current.attribute())) continue;
+            
+            AttributeInstance attribute = player.getAttribute(old.attribute());
+            if (attribute != null && attribute.getModifier(old.id()) != null) {
+                attribute.removeModifier(old.id());
+            }
         }
-        return false;
     }
     
-    public static boolean purchaseHaste(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getMiningLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setMiningLevel(player, currentLevel + 1);
-            applyUpgrades(player);
-            return true;
-        }
-        return false;
+    public static int trackedPlayers() {
+        return appliedValues.size();
     }
     
-    public static boolean purchaseLuck(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getLuckLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setLuckLevel(player, currentLevel + 1);
-            applyUpgrades(player);
-            return true;
-        }
-        return false;
+    private static double[] newCache(int size) {
+        double[] cache = new double[size];
+        Arrays.fill(cache, Double.NaN);
+        return cache;
     }
     
-    public static boolean purchaseDamage(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getDamageLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setDamageLevel(player, currentLevel + 1);
-            applyUpgrades(player);
+    /**
+     * Make the attribute carry exactly one modifier with the given value.
+     * Compares against the live modifier first, so a cold cache (e.g. right after join,
+     * when modifiers were loaded from the player file) still avoids a remove/re-add.
+     * @return true if the attribute was modified
+     */
+    private static boolean syncModifier(AttributeInstance attribute, Identifier id,
+                                        double value, AttributeModifier.Operation operation) {
+        AttributeModifier existing = attribute.getModifier(id);
+        
+        if (value <= 0) {
+            if (existing == null) return false;
+            attribute.removeModifier(id);
             return true;
         }
-        return false;
-    }
-    
-    public static boolean purchaseDefense(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getDefenseLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setDefenseLevel(player, currentLevel + 1);
-            applyUpgrades(player);
-            return true;
+        
+        if (existing != null && existing.amount() == value && existing.operation() == operation) {
+            return false;
         }
-        return false;
-    }
-    
-    public static boolean purchaseExperience(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getExperienceLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setExperienceLevel(player, currentLevel + 1);
-            // No attribute modification - handled in tickSoulXP
-            return true;
+        
+        if (existing != null) {
+            attribute.removeModifier(id);
         }
-        return false;
+        attribute.addPermanentModifier(new AttributeModifier(id, value, operation));
+        return true;
     }
     
-    /**
-     * Keeper upgrade: +1 item count to keep on ascension per level
-     * Base keeps 1 item, each level adds 1 more (e.g. level 5 = keep 6 items)
-     */
-    public static boolean purchaseKeeper(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getKeeperLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
-        if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setKeeperLevel(player, currentLevel + 1);
-            // No attribute modification - handled in AscensionManager
-            return true;
-        }
-        return false;
-    }
+    // ==================== PURCHASE ====================
     
     /**
-     * Wisdom upgrade: +10% Soul XP gain per level
-     * Now handled in onMobKill event since we don't track vanilla XP anymore
+     * Buy the next level of an upgrade, unless it is at its max_level (0 = uncapped).
+     * Upgrades without an attribute (Keeper, Wisdom) only bump the level.
      */
-    public static boolean purchaseWisdom(ServerPlayer player) {
-        int currentLevel = PlayerDataManager.getWisdomLevel(player);
-        int cost = PlayerDataManager.getUpgradeCost(currentLevel);
+    public static boolean purchase(ServerPlayer player, UpgradeDefinition upgrade) {
+        int currentLevel = PlayerDataManager.getUpgradeLevel(player, upgrade.ordinal());
+        if (upgrade.isMaxed(currentLevel)) return false;
+        int cost = upgrade.getCost(currentLevel);
         if (PlayerDataManager.spendPrestigePoints(player, cost)) {
-            PlayerDataManager.setWisdomLevel(player, currentLevel + 1);
-            // No attribute modification - handled in onMobKill
+            PlayerDataManager.setUpgradeLevel(player, upgrade.ordinal(), currentLevel + 1);
+            if (upgrade.attribute() != null) {
+                applyUpgrades(player);
+            }
             return true;
         }
         return false;
@@ -0,0 +1,60 @@
+package com.uipg9.ascendancy.logic;
+
+import com.uipg9.ascendancy.AscendancyMod;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.tag.convention.v2.ConventionalItemTags;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Soul XP for taking smelted items out of a furnace, blast furnace or smoker.
+ *
+ * Rewards are looked up in a table indexed by item registry id, rebuilt from item tags
+ * whenever tags (re)load: ingots and gems pay as smelted ore, foods as cooked food,
+ * anything else as other. One take, including a shift-click of a full stack, is one award.
+ */
+public class SmeltingRewards {
+
+    // Base Soul XP per item, indexed by BuiltInRegistries.ITEM id
+    private static volatile int[] rewards = new int[0];
+
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            if (!client) rebuild();
+        });
+    }
+
+    /**
+     * Award Soul XP for a stack taken from a furnace output slot
+     */
+    public static void onTaken(ServerPlayer player, ItemStack stack, int count) {
+        if (count <= 0 || stack.isEmpty()) return;
+        AscendancyMod.awardSoulXPStatic(player, getReward(stack.getItem()) * count, "§6🔥");
+    }
+
+    public static int getReward(Item item) {
+        int[] table = rewards;
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < table.length ? table[id] : AscendancyMod.SOUL_XP_SMELT_OTHER;
+    }
+
+    private static void rebuild() {
+        int[] table = new int[BuiltInRegistries.ITEM.size()];
+        for (Item item : BuiltInRegistries.ITEM) {
+            Holder<Item> holder = BuiltInRegistries.ITEM.wrapAsHolder(item);
+            int reward;
+            if (holder.is(ConventionalItemTags.INGOTS) || holder.is(ConventionalItemTags.GEMS)) {
+                reward = AscendancyMod.SOUL_XP_SMELT_ORE;
+            } else if (holder.is(ConventionalItemTags.FOODS)) {
+                reward = AscendancyMod.SOUL_XP_SMELT_FOOD;
+            } else {
+                reward = AscendancyMod.SOUL_XP_SMELT_OTHER;
+            }
+            table[BuiltInRegistries.ITEM.getId(item)] = reward;
+        }
+        rewards = table;
+    }
+}
@@ -0,0 +1,100 @@
+package com.uipg9.ascendancy.logic;
+
+import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.AscendancyData;
+import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.network.AscendancyNetworking;
+import com.uipg9.ascendancy.systems.SessionManager;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Batches Soul XP awards per tick.
+ *
+ * A mob farm can kill hundreds of mobs for one player in a single tick. Awards only add
+ * base XP to a per-player, per-source total here; at the end of the tick each player's
+ * totals get the multipliers and cap applied in one data write and one sync.
+ */
+public class SoulXPAwards {
+
+    // Base XP per source (icon) awarded this tick, per player
+    private static final Map<UUID, Map<String, Integer>> pending = new HashMap<>();
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(SoulXPAwards::tick);
+    }
+
+    /**
+     * Queue base Soul XP; it is applied at the end of the tick. Ignored until the
+     * player's session is ready.
+     */
+    public static void add(ServerPlayer player, int baseSoulXP, String icon) {
+        if (baseSoulXP <= 0 || !SessionManager.isReady(player)) return;
+        pending.computeIfAbsent(player.getUUID(), k -> new LinkedHashMap<>()).merge(icon, baseSoulXP, Integer::sum);
+    }
+
+    /**
+     * Apply anything queued for this player now (before their data is saved)
+     */
+    public static void flush(ServerPlayer player) {
+        Map<String, Integer> sources = pending.remove(player.getUUID());
+        if (sources != null) apply(player, sources);
+    }
+
+    /**
+     * Drop queued XP, e.g. when the player ascends and their soul is reset
+     */
+    public static void discard(ServerPlayer player) {
+        pending.remove(player.getUUID());
+    }
+
+    public static int trackedPlayers() {
+        return pending.size();
+    }
+
+    private static void tick(MinecraftServer server) {
+        if (pending.isEmpty()) return;
+        for (Map.Entry<UUID, Map<String, Integer>> entry : pending.entrySet()) {
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player != null) apply(player, entry.getValue());
+        }
+        pending.clear();
+    }
+
+    private static void apply(ServerPlayer player, Map<String, Integer> sources) {
+        AscendancyData data = PlayerDataManager.getData(player);
+        int maxSoulXP = AscendancyMod.getMaxSoulXP(data.ascensionCount());
+        int currentSoulXP = data.soulXP();
+
+        if (currentSoulXP >= maxSoulXP) return;
+
+        // Apply multipliers to each source's total (same rounding a single award of that size gets)
+        float multiplier = AscendancyMod.getXPMultiplier(data.ascensionCount());
+        float wisdomBonus = 1.0f + (PlayerDataManager.getWisdomLevel(player) * 0.10f);
+        long soulXPGain = 0;
+        for (int baseSoulXP : sources.values()) {
+            soulXPGain += (int)(baseSoulXP * multiplier * wisdomBonus);
+        }
+        int newSoulXP = (int) Math.min(currentSoulXP + soulXPGain, maxSoulXP);
+        if (newSoulXP == currentSoulXP) return;
+
+        // Notify when ready
+        boolean ready = newSoulXP >= maxSoulXP && !data.notified();
+        data = data.withSoulXP(newSoulXP);
+        if (ready) data = data.withNotified(true);
+
+        PlayerDataManager.setData(player, data);
+        AscendancyNetworking.syncToClient(player);
+
+        if (ready) {
+            player.displayClientMessage(Component.literal("§6§l✦ Your soul is ready! Press [P] to Ascend! ✦"), true);
+        }
+    }
+}
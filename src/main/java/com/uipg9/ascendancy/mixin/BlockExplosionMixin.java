@@ -0,0 +1,32 @@
+package com.uipg9.ascendancy.mixin;
+
+import com.uipg9.ascendancy.systems.LegacyVaultManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Explosion;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Mixin to make legacy vault chests that still hold items blast-proof.
+ * Skipping the whole hit also skips the chest's drops, which would otherwise spill
+ * even though the block stays.
+ */
+@Mixin(BlockBehaviour.class)
+public class BlockExplosionMixin {
+
+    @Inject(method = "onExplosionHit", at = @At("HEAD"), cancellable = true)
+    private void ascendancy$keepVaultChest(BlockState state, ServerLevel level, BlockPos pos, Explosion explosion,
+                                           BiConsumer<ItemStack, BlockPos> dropConsumer, CallbackInfo ci) {
+        if (LegacyVaultManager.isProtected(level, pos)) {
+            ci.cancel();
+        }
+    }
+}
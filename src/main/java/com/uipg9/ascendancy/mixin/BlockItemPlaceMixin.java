@@ -0,0 +1,34 @@
+package com.uipg9.ascendancy.mixin;
+
+import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.PlacedBlockMask;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.context.BlockPlaceContext;
+import net.minecraft.world.level.Level;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to mark ores (and other instantly rewardable blocks) placed by players,
+ * so breaking them again pays no Soul XP.
+ */
+@Mixin(BlockItem.class)
+public class BlockItemPlaceMixin {
+
+    @Inject(method = "place", at = @At("RETURN"))
+    private void ascendancy$markPlaced(BlockPlaceContext context, CallbackInfoReturnable<InteractionResult> cir) {
+        if (!cir.getReturnValue().consumesAction()) return;
+        if (!(context.getPlayer() instanceof ServerPlayer)) return;
+
+        Level level = context.getLevel();
+        BlockPos pos = context.getClickedPos();
+        if (AscendancyMod.isPlacementFarmable(level.getBlockState(pos))) {
+            PlacedBlockMask.markPlaced(level, pos);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.uipg9.ascendancy.mixin;
+
+import com.uipg9.ascendancy.logic.SmeltingRewards;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.FurnaceResultSlot;
+import net.minecraft.world.item.ItemStack;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to award smelting Soul XP when a player takes furnace output.
+ * Shared by furnaces, blast furnaces and smokers. Called once per take with the
+ * number of items removed, so a shift-clicked stack is a single award.
+ */
+@Mixin(FurnaceResultSlot.class)
+public class FurnaceResultSlotMixin {
+
+    @Shadow @Final private Player player;
+    @Shadow private int removeCount;
+
+    @Inject(method = "checkTakeAchievements", at = @At("HEAD"))
+    private void ascendancy$awardSmelting(ItemStack stack, CallbackInfo ci) {
+        if (this.player instanceof ServerPlayer serverPlayer) {
+            SmeltingRewards.onTaken(serverPlayer, stack, this.removeCount);
+        }
+    }
+}
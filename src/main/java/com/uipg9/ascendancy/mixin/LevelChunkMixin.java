@@ -0,0 +1,34 @@
+package com.uipg9.ascendancy.mixin;
+
+import com.uipg9.ascendancy.data.PlacedBlockMask;
+import com.uipg9.ascendancy.systems.LegacyVaultManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin for block changes from any source (/setblock, /fill, explosions, pistons, other mods):
+ * - refuse replacing a legacy vault chest that still holds items. Returning null is how
+ *   a chunk reports that nothing changed.
+ * - drop the placed-block mark of whatever is being replaced.
+ */
+@Mixin(LevelChunk.class)
+public class LevelChunkMixin {
+
+    @Inject(method = "setBlockState", at = @At("HEAD"), cancellable = true)
+    private void ascendancy$keepVaultChest(BlockPos pos, BlockState state, int flags, CallbackInfoReturnable<BlockState> cir) {
+        if (!state.is(Blocks.CHEST) && LegacyVaultManager.isProtected((LevelChunk) (Object) this, pos)) {
+            cir.setReturnValue(null);
+        }
+    }
+
+    @Inject(method = "setBlockState", at = @At("HEAD"))
+    private void ascendancy$clearPlacedMark(BlockPos pos, BlockState state, int flags, CallbackInfoReturnable<BlockState> cir) {
+        PlacedBlockMask.onStateChange((LevelChunk) (Object) this, pos, state);
+    }
+}
@@ -0,0 +1,27 @@
+package com.uipg9.ascendancy.mixin;
+
+import com.uipg9.ascendancy.systems.ConstellationManager;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Collection;
+
+/**
+ * Tells constellations when effects are removed (milk, expiry, /effect clear, other mods),
+ * so zone effects come back without polling every member every tick
+ */
+@Mixin(LivingEntity.class)
+public class LivingEntityEffectsMixin {
+    
+    @Inject(method = "onEffectsRemoved", at = @At("TAIL"))
+    private void ascendancy$onEffectsRemoved(Collection<MobEffectInstance> effects, CallbackInfo ci) {
+        if ((Object) this instanceof ServerPlayer player) {
+            ConstellationManager.onEffectsRemoved(player, effects);
+        }
+    }
+}
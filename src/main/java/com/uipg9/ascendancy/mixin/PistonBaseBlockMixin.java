@@ -0,0 +1,47 @@
+package com.uipg9.ascendancy.mixin;
+
+import com.uipg9.ascendancy.data.PlacedBlockMask;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.piston.PistonBaseBlock;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * Mixin to carry placed-block marks along when a piston moves the blocks,
+ * so pushing a placed ore doesn't make it pay Soul XP. Moves out of reach of any
+ * marked chunk skip the extra structure resolve.
+ */
+@Mixin(PistonBaseBlock.class)
+public class PistonBaseBlockMixin {
+
+    // Destinations of the marked blocks in the move in progress (server thread only)
+    @Unique
+    private static List<BlockPos> ascendancy$carried = List.of();
+
+    @Inject(method = "moveBlocks", at = @At("HEAD"))
+    private void ascendancy$findCarried(Level level, BlockPos pos, Direction direction, boolean extending,
+                                        CallbackInfoReturnable<Boolean> cir) {
+        if (!level.isClientSide()) {
+            ascendancy$carried = PlacedBlockMask.findCarried(level, pos, direction, extending);
+        }
+    }
+
+    @Inject(method = "moveBlocks", at = @At("RETURN"))
+    private void ascendancy$markCarried(Level level, BlockPos pos, Direction direction, boolean extending,
+                                        CallbackInfoReturnable<Boolean> cir) {
+        if (level.isClientSide() || ascendancy$carried.isEmpty()) return;
+        if (cir.getReturnValueZ()) {
+            for (BlockPos destination : ascendancy$carried) {
+                PlacedBlockMask.markPlaced(level, destination);
+            }
+        }
+        ascendancy$carried = List.of();
+    }
+}
@@ -0,0 +1,46 @@
+package com.uipg9.ascendancy.mixin;
+
+import net.minecraft.advancements.AdvancementHolder;
+import net.minecraft.advancements.AdvancementNode;
+import net.minecraft.advancements.AdvancementProgress;
+import net.minecraft.advancements.AdvancementTree;
+import net.minecraft.server.PlayerAdvancements;
+import net.minecraft.server.ServerAdvancementManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exposes PlayerAdvancements internals for the bulk reset on ascension.
+ * Mirrors what vanilla's reload() does, minus re-reading the player's file.
+ */
+@Mixin(PlayerAdvancements.class)
+public interface PlayerAdvancementsAccessor {
+
+    @Accessor("progress")
+    Map<AdvancementHolder, AdvancementProgress> ascendancy$getProgress();
+
+    @Accessor("visible")
+    Set<AdvancementHolder> ascendancy$getVisible();
+
+    @Accessor("progressChanged")
+    Set<AdvancementHolder> ascendancy$getProgressChanged();
+
+    @Accessor("rootsToUpdate")
+    Set<AdvancementNode> ascendancy$getRootsToUpdate();
+
+    @Accessor("tree")
+    AdvancementTree ascendancy$getTree();
+
+    @Accessor("isFirstPacket")
+    void ascendancy$setFirstPacket(boolean firstPacket);
+
+    @Invoker("registerListeners")
+    void ascendancy$registerListeners(ServerAdvancementManager manager);
+
+    @Invoker("checkForAutomaticTriggers")
+    void ascendancy$checkForAutomaticTriggers(ServerAdvancementManager manager);
+}
@@ -2,10 +2,14 @@ package com.uipg9.ascendancy.network;
 
 import com.uipg9.ascendancy.AscendancyMod;
 import com.uipg9.ascendancy.client.AscendancyClient;
+import com.uipg9.ascendancy.data.AscendancyData;
 import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.data.UpgradeDefinition;
+import com.uipg9.ascendancy.data.UpgradeRegistry;
 import com.uipg9.ascendancy.logic.AscensionManager;
 import com.uipg9.ascendancy.logic.AttributeHandler;
 import com.uipg9.ascendancy.systems.ConstellationManager;
+import com.uipg9.ascendancy.systems.SessionManager;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
@@ -17,6 +21,13 @@ import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.minecraft.resources.Identifier;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Handles all networking between client and server for Ascendancy.
@@ -27,8 +38,9 @@ public class AscendancyNetworking {
     // ==================== PAYLOAD DEFINITIONS ====================
     
     /**
-     * Server -> Client: Sync player data (15 fields now!)
-     * Uses manual encoding because StreamCodec.composite only supports up to 12 fields.
+     * Server -> Client: Sync player data.
+     * Upgrade levels are a varint array indexed by upgrade ordinal, so new upgrades need no payload change.
+     * purchaseAck is the last purchase sequence the server processed, for client prediction.
      */
     public record SyncDataPayload(
         int soulXP,
@@ -36,48 +48,77 @@ public class AscendancyNetworking {
         int prestigePoints, 
         int ascensionCount,
         int totalPrestigeEarned,
-        int healthLevel,
-        int speedLevel,
-        int reachLevel,
-        int miningLevel,
-        int luckLevel,
-        int damageLevel,
-        int defenseLevel,
-        int experienceLevel,
-        int keeperLevel,   // v2.1
-        int wisdomLevel    // v2.1
+        int[] upgradeLevels,
+        int purchaseAck
     ) implements CustomPacketPayload {
         public static final Type<SyncDataPayload> TYPE = new Type<>(Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "sync_data"));
         
-        // Manual StreamCodec for 15 fields (composite only supports up to 12)
         public static final StreamCodec<RegistryFriendlyByteBuf, SyncDataPayload> STREAM_CODEC = new StreamCodec<>() {
             @Override
             public SyncDataPayload decode(RegistryFriendlyByteBuf buf) {
                 return new SyncDataPayload(
-                    buf.readInt(), buf.readInt(), buf.readInt(), buf.readInt(),
-                    buf.readInt(), buf.readInt(), buf.readInt(), buf.readInt(),
-                    buf.readInt(), buf.readInt(), buf.readInt(), buf.readInt(),
-                    buf.readInt(), buf.readInt(), buf.readInt()
+                    buf.readVarInt(), buf.readVarInt(), buf.readVarInt(), buf.readVarInt(), buf.readVarInt(),
+                    buf.readVarIntArray(), buf.readVarInt()
                 );
             }
             
             @Override
             public void encode(RegistryFriendlyByteBuf buf, SyncDataPayload payload) {
-                buf.writeInt(payload.soulXP);
-                buf.writeInt(payload.maxSoulXP);
-                buf.writeInt(payload.prestigePoints);
-                buf.writeInt(payload.ascensionCount);
-                buf.writeInt(payload.totalPrestigeEarned);
-                buf.writeInt(payload.healthLevel);
-                buf.writeInt(payload.speedLevel);
-                buf.writeInt(payload.reachLevel);
-                buf.writeInt(payload.miningLevel);
-                buf.writeInt(payload.luckLevel);
-                buf.writeInt(payload.damageLevel);
-                buf.writeInt(payload.defenseLevel);
-                buf.writeInt(payload.experienceLevel);
-                buf.writeInt(payload.keeperLevel);
-                buf.writeInt(payload.wisdomLevel);
+                buf.writeVarInt(payload.soulXP);
+                buf.writeVarInt(payload.maxSoulXP);
+                buf.writeVarInt(payload.prestigePoints);
+                buf.writeVarInt(payload.ascensionCount);
+                buf.writeVarInt(payload.totalPrestigeEarned);
+                buf.writeVarIntArray(payload.upgradeLevels);
+                buf.writeVarInt(payload.purchaseAck);
+            }
+        };
+        
+        @Override
+        public Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+    
+    /**
+     * Server -> Client: Upgrade registry (sent on join and after datapack reload).
+     * Only the fields the shop needs; attributes stay server-side.
+     */
+    public record UpgradeRegistryPayload(List<UpgradeDefinition> upgrades) implements CustomPacketPayload {
+        public static final Type<UpgradeRegistryPayload> TYPE = new Type<>(Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "upgrade_registry"));
+        
+        public static final StreamCodec<RegistryFriendlyByteBuf, UpgradeRegistryPayload> STREAM_CODEC = new StreamCodec<>() {
+            @Override
+            public UpgradeRegistryPayload decode(RegistryFriendlyByteBuf buf) {
+                int count = buf.readVarInt();
+                List<UpgradeDefinition> upgrades = new ArrayList<>(count);
+                UpgradeDefinition.Category[] categories = UpgradeDefinition.Category.values();
+                for (int i = 0; i < count; i++) {
+                    Identifier id = Identifier.parse(buf.readUtf());
+                    String name = buf.readUtf();
+                    String effect = buf.readUtf();
+                    UpgradeDefinition.Category category = categories[buf.readVarInt()];
+                    double costBase = buf.readDouble();
+                    double costGrowth = buf.readDouble();
+                    int maxLevel = buf.readVarInt();
+                    upgrades.add(new UpgradeDefinition(id, i, name, effect, category, null,
+                        0.0, AttributeModifier.Operation.ADD_VALUE, costBase, costGrowth, maxLevel, ""));
+                }
+                return new UpgradeRegistryPayload(upgrades);
+            }
+            
+            @Override
+            public void encode(RegistryFriendlyByteBuf buf, UpgradeRegistryPayload payload) {
+                buf.writeVarInt(payload.upgrades.size());
+                for (UpgradeDefinition upgrade : payload.upgrades) {
+                    buf.writeUtf(upgrade.id().toString());
+                    buf.writeUtf(upgrade.name());
+                    buf.writeUtf(upgrade.effect());
+                    buf.writeVarInt(upgrade.category().ordinal());
+                    buf.writeDouble(upgrade.costBase());
+                    buf.writeDouble(upgrade.costGrowth());
+                    buf.writeVarInt(upgrade.maxLevel());
+                }
             }
         };
         
@@ -101,6 +142,30 @@ public class AscendancyNetworking {
         }
     }
     
+    /**
+     * Server -> Client: Staged ascension progress, sent after each completed phase.
+     * queuePosition is 1-based while waiting for an ascension slot, 0 once running.
+     * cancelled marks a request that ended without ascending (complete is set too).
+     */
+    public record AscensionProgressPayload(int completedPhases, int totalPhases, boolean complete, int queuePosition,
+                                           boolean cancelled) implements CustomPacketPayload {
+        public static final Type<AscensionProgressPayload> TYPE = new Type<>(Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "ascension_progress"));
+        
+        public static final StreamCodec<RegistryFriendlyByteBuf, AscensionProgressPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.VAR_INT, AscensionProgressPayload::completedPhases,
+            ByteBufCodecs.VAR_INT, AscensionProgressPayload::totalPhases,
+            ByteBufCodecs.BOOL, AscensionProgressPayload::complete,
+            ByteBufCodecs.VAR_INT, AscensionProgressPayload::queuePosition,
+            ByteBufCodecs.BOOL, AscensionProgressPayload::cancelled,
+            AscensionProgressPayload::new
+        );
+        
+        @Override
+        public Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+    
     /**
      * Client -> Server: Request to ascend WITH a chosen item
      */
@@ -119,28 +184,18 @@ public class AscendancyNetworking {
     }
     
     /**
-     * Client -> Server: Request to purchase an upgrade
+     * Client -> Server: Request to purchase an upgrade (by registry ordinal).
+     * sequence increases per request; the server skips anything it has already seen.
      */
-    public record PurchaseUpgradePayload(int upgradeType) implements CustomPacketPayload {
+    public record PurchaseUpgradePayload(int upgradeType, int sequence) implements CustomPacketPayload {
         public static final Type<PurchaseUpgradePayload> TYPE = new Type<>(Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "purchase_upgrade"));
         
         public static final StreamCodec<RegistryFriendlyByteBuf, PurchaseUpgradePayload> STREAM_CODEC = StreamCodec.composite(
-            ByteBufCodecs.INT, PurchaseUpgradePayload::upgradeType,
+            ByteBufCodecs.VAR_INT, PurchaseUpgradePayload::upgradeType,
+            ByteBufCodecs.VAR_INT, PurchaseUpgradePayload::sequence,
             PurchaseUpgradePayload::new
         );
         
-        // Upgrade type constants
-        public static final int VITALITY = 0;
-        public static final int SWIFTNESS = 1;
-        public static final int REACH = 2;
-        public static final int HASTE = 3;
-        public static final int LUCK = 4;
-        public static final int DAMAGE = 5;
-        public static final int DEFENSE = 6;
-        public static final int EXPERIENCE = 7;
-        public static final int KEEPER = 8;    // v2.1
-        public static final int WISDOM = 9;    // v2.1
-        
         @Override
         public Type<? extends CustomPacketPayload> type() {
             return TYPE;
@@ -165,11 +220,16 @@ public class AscendancyNetworking {
         }
     }
     
+    // Last purchase sequence processed per online player
+    private static final Map<UUID, Integer> purchaseAcks = new HashMap<>();
+    
     // ==================== REGISTRATION ====================
     
     public static void registerServerPackets() {
         // Register payload types
         PayloadTypeRegistry.playS2C().register(SyncDataPayload.TYPE, SyncDataPayload.STREAM_CODEC);
+        PayloadTypeRegistry.playS2C().register(UpgradeRegistryPayload.TYPE, UpgradeRegistryPayload.STREAM_CODEC);
+        PayloadTypeRegistry.playS2C().register(AscensionProgressPayload.TYPE, AscensionProgressPayload.STREAM_CODEC);
         PayloadTypeRegistry.playC2S().register(AscendRequestPayload.TYPE, AscendRequestPayload.STREAM_CODEC);
         PayloadTypeRegistry.playC2S().register(AscendWithItemPayload.TYPE, AscendWithItemPayload.STREAM_CODEC);
         PayloadTypeRegistry.playC2S().register(PurchaseUpgradePayload.TYPE, PurchaseUpgradePayload.STREAM_CODEC);
@@ -179,6 +239,8 @@ public class AscendancyNetworking {
         ServerPlayNetworking.registerGlobalReceiver(AscendRequestPayload.TYPE, (payload, context) -> {
             ServerPlayer player = context.player();
             player.level().getServer().execute(() -> {
+                // Requests sent before the player's data finished loading are dropped
+                if (!SessionManager.isReady(player)) return;
                 int maxSoulXP = AscendancyMod.getMaxSoulXP(PlayerDataManager.getAscensionCount(player));
                 if (PlayerDataManager.getSoulXP(player) >= maxSoulXP) {
                     AscensionManager.performAscension(player);
@@ -190,6 +252,7 @@ public class AscendancyNetworking {
         ServerPlayNetworking.registerGlobalReceiver(AscendWithItemPayload.TYPE, (payload, context) -> {
             ServerPlayer player = context.player();
             player.level().getServer().execute(() -> {
+                if (!SessionManager.isReady(player)) return;
                 int maxSoulXP = AscendancyMod.getMaxSoulXP(PlayerDataManager.getAscensionCount(player));
                 if (PlayerDataManager.getSoulXP(player) >= maxSoulXP) {
                     AscensionManager.performAscensionWithItem(player, payload.slotToKeep());
@@ -201,23 +264,19 @@ public class AscendancyNetworking {
         ServerPlayNetworking.registerGlobalReceiver(PurchaseUpgradePayload.TYPE, (payload, context) -> {
             ServerPlayer player = context.player();
             player.level().getServer().execute(() -> {
-                boolean success = switch (payload.upgradeType()) {
-                    case PurchaseUpgradePayload.VITALITY -> AttributeHandler.purchaseVitality(player);
-                    case PurchaseUpgradePayload.SWIFTNESS -> AttributeHandler.purchaseSwiftness(player);
-                    case PurchaseUpgradePayload.REACH -> AttributeHandler.purchaseReach(player);
-                    case PurchaseUpgradePayload.HASTE -> AttributeHandler.purchaseHaste(player);
-                    case PurchaseUpgradePayload.LUCK -> AttributeHandler.purchaseLuck(player);
-                    case PurchaseUpgradePayload.DAMAGE -> AttributeHandler.purchaseDamage(player);
-                    case PurchaseUpgradePayload.DEFENSE -> AttributeHandler.purchaseDefense(player);
-                    case PurchaseUpgradePayload.EXPERIENCE -> AttributeHandler.purchaseExperience(player);
-                    case PurchaseUpgradePayload.KEEPER -> AttributeHandler.purchaseKeeper(player);
-                    case PurchaseUpgradePayload.WISDOM -> AttributeHandler.purchaseWisdom(player);
-                    default -> false;
-                };
+                // Resent or reordered duplicate - already handled
+                if (payload.sequence() <= purchaseAcks.getOrDefault(player.getUUID(), 0)) return;
+                purchaseAcks.put(player.getUUID(), payload.sequence());
                 
-                if (success) {
-                    syncToClient(player);
+                // Still acked while loading, so the client drops its prediction
+                UpgradeDefinition upgrade = UpgradeRegistry.byOrdinal(payload.upgradeType());
+                if (SessionManager.isReady(player) && upgrade != null
+                        && upgrade.category() != UpgradeDefinition.Category.HIDDEN) {
+                    AttributeHandler.purchase(player, upgrade);
                 }
+                
+                // Always answer, so a rejected prediction rolls back on the client
+                syncToClient(player);
             });
         });
         
@@ -225,6 +284,7 @@ public class AscendancyNetworking {
         ServerPlayNetworking.registerGlobalReceiver(SelectConstellationPayload.TYPE, (payload, context) -> {
             ServerPlayer player = context.player();
             player.level().getServer().execute(() -> {
+                if (!SessionManager.isReady(player)) return;
                 ConstellationManager.Constellation[] values = ConstellationManager.Constellation.values();
                 if (payload.constellationOrdinal() >= 0 && payload.constellationOrdinal() < values.length) {
                     ConstellationManager.setConstellation(player, values[payload.constellationOrdinal()]);
@@ -245,48 +305,70 @@ public class AscendancyNetworking {
                     payload.prestigePoints(),
                     payload.ascensionCount(),
                     payload.totalPrestigeEarned(),
-                    payload.healthLevel(),
-                    payload.speedLevel(),
-                    payload.reachLevel(),
-                    payload.miningLevel(),
-                    payload.luckLevel(),
-                    payload.damageLevel(),
-                    payload.defenseLevel(),
-                    payload.experienceLevel(),
-                    payload.keeperLevel(),
-                    payload.wisdomLevel()
+                    payload.upgradeLevels(),
+                    payload.purchaseAck()
                 );
             });
         });
         
+        ClientPlayNetworking.registerGlobalReceiver(UpgradeRegistryPayload.TYPE, (payload, context) -> {
+            context.client().execute(() -> AscendancyClient.updateUpgrades(payload.upgrades()));
+        });
+        
+        ClientPlayNetworking.registerGlobalReceiver(AscensionProgressPayload.TYPE, (payload, context) -> {
+            context.client().execute(() -> AscendancyClient.updateAscensionProgress(
+                payload.completedPhases(), payload.totalPhases(), payload.complete(), payload.queuePosition(),
+                payload.cancelled()));
+        });
+        
         AscendancyMod.LOGGER.info("Registered client packets");
     }
     
     // ==================== UTILITY METHODS ====================
     
     public static void syncToClient(ServerPlayer player) {
-        int ascensionCount = PlayerDataManager.getAscensionCount(player);
+        AscendancyData data = PlayerDataManager.getData(player);
         SyncDataPayload payload = new SyncDataPayload(
-            PlayerDataManager.getSoulXP(player),
-            AscendancyMod.getMaxSoulXP(ascensionCount),
-            PlayerDataManager.getPrestigePoints(player),
-            ascensionCount,
-            PlayerDataManager.getTotalPrestigeEarned(player),
-            PlayerDataManager.getHealthLevel(player),
-            PlayerDataManager.getSpeedLevel(player),
-            PlayerDataManager.getReachLevel(player),
-            PlayerDataManager.getMiningLevel(player),
-            PlayerDataManager.getLuckLevel(player),
-            PlayerDataManager.getDamageLevel(player),
-            PlayerDataManager.getDefenseLevel(player),
-            PlayerDataManager.getExperienceLevel(player),
-            PlayerDataManager.getKeeperLevel(player),
-            PlayerDataManager.getWisdomLevel(player)
+            data.soulXP(),
+            AscendancyMod.getMaxSoulXP(data.ascensionCount()),
+            data.prestigePoints(),
+            data.ascensionCount(),
+            data.totalPrestigeEarned(),
+            data.upgradeLevels(),
+            purchaseAcks.getOrDefault(player.getUUID(), 0)
         );
         
         ServerPlayNetworking.send(player, payload);
     }
     
+    /**
+     * Drop per-connection state (disconnect)
+     */
+    public static void forget(ServerPlayer player) {
+        purchaseAcks.remove(player.getUUID());
+    }
+    
+    public static int trackedPlayers() {
+        return purchaseAcks.size();
+    }
+    
+    public static void syncRegistryToClient(ServerPlayer player) {
+        ServerPlayNetworking.send(player, new UpgradeRegistryPayload(UpgradeRegistry.all()));
+    }
+    
+    public static void sendAscensionProgress(ServerPlayer player, int completedPhases, boolean complete, int queuePosition) {
+        ServerPlayNetworking.send(player, new AscensionProgressPayload(
+            completedPhases, AscensionManager.Phase.VALUES.length, complete, queuePosition, false));
+    }
+    
+    /**
+     * The request ended without ascending: the client closes its loading screen
+     */
+    public static void sendAscensionCancelled(ServerPlayer player) {
+        ServerPlayNetworking.send(player, new AscensionProgressPayload(
+            0, AscensionManager.Phase.VALUES.length, true, 0, true));
+    }
+    
     @Environment(EnvType.CLIENT)
     public static void sendAscendRequest() {
         ClientPlayNetworking.send(new AscendRequestPayload());
@@ -298,7 +380,7 @@ public class AscendancyNetworking {
     }
     
     @Environment(EnvType.CLIENT)
-    public static void sendPurchaseRequest(int upgradeType) {
-        ClientPlayNetworking.send(new PurchaseUpgradePayload(upgradeType));
+    public static void sendPurchaseRequest(int upgradeType, int sequence) {
+        ClientPlayNetworking.send(new PurchaseUpgradePayload(upgradeType, sequence));
     }
 }
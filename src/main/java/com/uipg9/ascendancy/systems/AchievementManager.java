@@ -1,18 +1,21 @@
 package com.uipg9.ascendancy.systems;
 
 import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.MappedProgressStore;
 import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.data.SaveFiles;
+import com.uipg9.ascendancy.logic.AttributeHandler;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.NbtIo;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.storage.LevelResource;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Ascension Achievements - Permanent unlockable buffs
@@ -129,72 +132,99 @@ public class AchievementManager {
     }
     
     /**
-     * Load achievements from file on player join
+     * Read a joining player's achievements (off the server thread). The returned step
+     * installs them once the player's session is ready.
      */
-    public static void loadAchievements(ServerPlayer player) {
-        ServerLevel level = (ServerLevel) player.level();
-        UUID playerId = player.getUUID();
-        
+    public static Consumer<ServerPlayer> readAchievements(MinecraftServer server, UUID playerId) throws IOException {
         Set<Achievement> unlocked = new HashSet<>();
         Map<Achievement, Integer> progress = new HashMap<>();
         
-        try {
-            Path path = getAchievementDataPath(level);
-            if (Files.exists(path)) {
-                CompoundTag root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-                CompoundTag playerData = root.getCompoundOrEmpty(playerId.toString());
-                
-                // Load unlocked achievements
-                for (Achievement achievement : Achievement.values()) {
-                    if (playerData.getBooleanOr("unlocked_" + achievement.name(), false)) {
-                        unlocked.add(achievement);
-                    }
-                    progress.put(achievement, playerData.getIntOr("progress_" + achievement.name(), 0));
+        MappedProgressStore store = MappedProgressStore.get();
+        MappedProgressStore.ProgressRecord record = store != null ? store.read(playerId) : null;
+        if (record != null && record.has(MappedProgressStore.HAS_ACHIEVEMENTS)) {
+            for (Achievement achievement : Achievement.values()) {
+                if ((record.unlockedAchievements & (1L << achievement.ordinal())) != 0) {
+                    unlocked.add(achievement);
                 }
+                progress.put(achievement, record.achievementProgress[achievement.ordinal()]);
+            }
+        } else {
+            // No record yet (or NBT storage): the NBT file, which also migrates players into the store
+            CompoundTag playerData = SaveFiles.readPlayer(getAchievementDataPath(server), playerId);
+            for (Achievement achievement : Achievement.values()) {
+                if (playerData.getBooleanOr("unlocked_" + achievement.name(), false)) {
+                    unlocked.add(achievement);
+                }
+                progress.put(achievement, playerData.getIntOr("progress_" + achievement.name(), 0));
             }
-        } catch (IOException e) {
-            AscendancyMod.LOGGER.error("Failed to load achievements", e);
         }
         
-        unlockedAchievements.put(playerId, unlocked);
-        achievementProgress.put(playerId, progress);
-        
-        AscendancyMod.LOGGER.info("Loaded {} achievements for {}", unlocked.size(), player.getName().getString());
+        return player -> {
+            unlockedAchievements.put(playerId, unlocked);
+            achievementProgress.put(playerId, progress);
+            AscendancyMod.LOGGER.info("Loaded {} achievements for {}", unlocked.size(), player.getName().getString());
+        };
     }
     
     /**
-     * Save achievements to file
+     * Save achievements to the progress store, or to file
      */
     public static void saveAchievements(ServerPlayer player) {
         ServerLevel level = (ServerLevel) player.level();
         UUID playerId = player.getUUID();
+        Set<Achievement> unlocked = unlockedAchievements.getOrDefault(playerId, new HashSet<>());
+        Map<Achievement, Integer> progress = achievementProgress.getOrDefault(playerId, new HashMap<>());
         
-        try {
-            Path path = getAchievementDataPath(level);
-            CompoundTag root;
-            
-            if (Files.exists(path)) {
-                root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-            } else {
-                root = new CompoundTag();
+        MappedProgressStore store = MappedProgressStore.get();
+        if (store != null && store.update(playerId, record -> {
+            long mask = 0;
+            for (Achievement achievement : Achievement.values()) {
+                if (unlocked.contains(achievement)) mask |= 1L << achievement.ordinal();
+                record.achievementProgress[achievement.ordinal()] = progress.getOrDefault(achievement, 0);
             }
+            record.unlockedAchievements = mask;
+            record.flags |= MappedProgressStore.HAS_ACHIEVEMENTS;
+        })) {
+            return;
+        }
+        
+        try {
+            Path path = getAchievementDataPath(level.getServer());
+            CompoundTag root = SaveFiles.readRoot(path);
             
             CompoundTag playerData = new CompoundTag();
-            Set<Achievement> unlocked = unlockedAchievements.getOrDefault(playerId, new HashSet<>());
-            Map<Achievement, Integer> progress = achievementProgress.getOrDefault(playerId, new HashMap<>());
-            
             for (Achievement achievement : Achievement.values()) {
                 playerData.putBoolean("unlocked_" + achievement.name(), unlocked.contains(achievement));
                 playerData.putInt("progress_" + achievement.name(), progress.getOrDefault(achievement, 0));
             }
             
             root.put(playerId.toString(), playerData);
-            NbtIo.writeCompressed(root, path);
+            SaveFiles.writeAtomic(root, path);
         } catch (IOException e) {
             AscendancyMod.LOGGER.error("Failed to save achievements", e);
         }
     }
     
+    /**
+     * Save and drop a leaving player's achievements
+     */
+    public static void unload(ServerPlayer player) {
+        saveAchievements(player);
+        discard(player);
+    }
+    
+    /**
+     * Drop a leaving player's achievements without saving (their load failed)
+     */
+    public static void discard(ServerPlayer player) {
+        unlockedAchievements.remove(player.getUUID());
+        achievementProgress.remove(player.getUUID());
+    }
+    
+    public static int trackedPlayers() {
+        return achievementProgress.size();
+    }
+    
     /**
      * Add progress toward an achievement
      */
@@ -246,6 +276,12 @@ public class AchievementManager {
         player.sendSystemMessage(Component.literal("§7" + achievement.getDescription()));
         player.sendSystemMessage(Component.literal("§aReward: " + achievement.getReward().getDescription()));
         
+        // Attribute rewards take effect right away
+        switch (achievement.getReward().getEffectType()) {
+            case "speed", "mining", "damage" -> AttributeHandler.applyUpgrades(player);
+            default -> {}
+        }
+        
         // Save immediately
         saveAchievements(player);
         
@@ -299,7 +335,7 @@ public class AchievementManager {
             .getOrDefault(achievement, 0);
     }
     
-    private static Path getAchievementDataPath(ServerLevel level) {
-        return level.getServer().getWorldPath(LevelResource.ROOT).resolve(ACHIEVEMENT_FILE);
+    private static Path getAchievementDataPath(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(ACHIEVEMENT_FILE);
     }
 }
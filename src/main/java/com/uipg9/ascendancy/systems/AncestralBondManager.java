@@ -2,12 +2,13 @@ package com.uipg9.ascendancy.systems;
 
 import com.uipg9.ascendancy.AscendancyMod;
 import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.data.SaveFiles;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.NbtIo;
 import net.minecraft.nbt.Tag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.Identifier;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
@@ -19,9 +20,9 @@ import net.minecraft.world.level.storage.LevelResource;
 import net.minecraft.world.phys.Vec3;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Ancestral Bond - Carry pets across ascensions
@@ -196,37 +197,49 @@ public class AncestralBondManager {
     }
     
     /**
-     * Load data on player join
+     * Read a joining player's bonds (off the server thread). The returned step installs
+     * them once the player's session is ready.
      */
-    public static void loadData(ServerPlayer player) {
-        ServerLevel level = (ServerLevel) player.level();
-        UUID playerId = player.getUUID();
+    public static Consumer<ServerPlayer> readData(MinecraftServer server, UUID playerId) throws IOException {
+        CompoundTag playerData = SaveFiles.readPlayer(getBondDataPath(server), playerId);
+        return player -> loadData(player, playerData);
+    }
+    
+    private static void loadData(ServerPlayer player, CompoundTag playerData) {
+        ListTag petList = playerData.getListOrEmpty("pets");
+        List<PetData> pets = new ArrayList<>();
         
-        try {
-            Path path = getBondDataPath(level);
-            if (Files.exists(path)) {
-                CompoundTag root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-                CompoundTag playerData = root.getCompoundOrEmpty(playerId.toString());
-                
-                ListTag petList = playerData.getListOrEmpty("pets");
-                List<PetData> pets = new ArrayList<>();
-                
-                for (int i = 0; i < petList.size(); i++) {
-                    CompoundTag petTag = petList.getCompoundOrEmpty(i);
-                    String entityType = petTag.getStringOr("entityType", "minecraft:wolf");
-                    String customName = petTag.contains("customName") ? petTag.getStringOr("customName", null) : null;
-                    int bondStrength = petTag.getIntOr("bondStrength", 1);
-                    
-                    pets.add(new PetData(entityType, customName, bondStrength));
-                }
-                
-                storedPets.put(playerId, pets);
-                
-                AscendancyMod.LOGGER.info("Loaded {} bonded pets for {}", pets.size(), player.getName().getString());
-            }
-        } catch (IOException e) {
-            AscendancyMod.LOGGER.error("Failed to load bond data", e);
+        for (int i = 0; i < petList.size(); i++) {
+            CompoundTag petTag = petList.getCompoundOrEmpty(i);
+            String entityType = petTag.getStringOr("entityType", "minecraft:wolf");
+            String customName = petTag.contains("customName") ? petTag.getStringOr("customName", null) : null;
+            int bondStrength = petTag.getIntOr("bondStrength", 1);
+            
+            pets.add(new PetData(entityType, customName, bondStrength));
         }
+        
+        storedPets.put(player.getUUID(), pets);
+        
+        AscendancyMod.LOGGER.info("Loaded {} bonded pets for {}", pets.size(), player.getName().getString());
+    }
+    
+    /**
+     * Save and drop a leaving player's bonds
+     */
+    public static void unload(ServerPlayer player) {
+        saveData(player);
+        discard(player);
+    }
+    
+    /**
+     * Drop a leaving player's bonds without saving (their load failed)
+     */
+    public static void discard(ServerPlayer player) {
+        storedPets.remove(player.getUUID());
+    }
+    
+    public static int trackedPlayers() {
+        return storedPets.size();
     }
     
     /**
@@ -237,14 +250,8 @@ public class AncestralBondManager {
         UUID playerId = player.getUUID();
         
         try {
-            Path path = getBondDataPath(level);
-            CompoundTag root;
-            
-            if (Files.exists(path)) {
-                root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-            } else {
-                root = new CompoundTag();
-            }
+            Path path = getBondDataPath(level.getServer());
+            CompoundTag root = SaveFiles.readRoot(path);
             
             CompoundTag playerData = new CompoundTag();
             List<PetData> pets = storedPets.getOrDefault(playerId, new ArrayList<>());
@@ -263,13 +270,13 @@ public class AncestralBondManager {
             playerData.put("pets", petList);
             root.put(playerId.toString(), playerData);
             
-            NbtIo.writeCompressed(root, path);
+            SaveFiles.writeAtomic(root, path);
         } catch (IOException e) {
             AscendancyMod.LOGGER.error("Failed to save bond data", e);
         }
     }
     
-    private static Path getBondDataPath(ServerLevel level) {
-        return level.getServer().getWorldPath(LevelResource.ROOT).resolve(BOND_FILE);
+    private static Path getBondDataPath(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(BOND_FILE);
     }
 }
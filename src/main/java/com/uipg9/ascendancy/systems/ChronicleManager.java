@@ -1,11 +1,14 @@
 package com.uipg9.ascendancy.systems;
 
+import com.uipg9.ascendancy.AscendancyConfig;
 import com.uipg9.ascendancy.AscendancyMod;
 import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.data.SaveFiles;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.NbtIo;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.storage.LevelResource;
@@ -16,6 +19,7 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * The Chronicle System - A procedural diary of your adventures
@@ -23,10 +27,15 @@ import java.util.*;
  * 
  * Automatically records significant events in each life,
  * creating a persistent history across all ascensions.
+ *
+ * Only the most recent {@link AscendancyConfig#chronicleDetailedLives} lives keep every
+ * entry (0 keeps them all). Older lives are rolled up into a {@link LifeDigest} (counts by event type,
+ * first and last timestamps, milestones) so the file stays bounded as ascensions pile up.
  */
 public class ChronicleManager {
     
     private static final String CHRONICLE_FILE = "ascendancy_chronicle.dat";
+    private static final String CURRENT_LIFE_FILE = "ascendancy_chronicle_current.dat";
     
     // Current life events (cleared on ascension, then saved)
     private static final Map<UUID, List<ChronicleEntry>> currentLifeEntries = new HashMap<>();
@@ -62,6 +71,82 @@ public class ChronicleManager {
         }
     }
     
+    /**
+     * Summary of an old life that replaced its full entry list
+     */
+    public record LifeDigest(
+        int ascensionNumber,
+        int entryCount,
+        Map<String, Integer> countsByType,
+        String firstTimestamp,
+        String lastTimestamp,
+        List<String> milestones
+    ) {
+        public CompoundTag toNbt() {
+            CompoundTag tag = new CompoundTag();
+            tag.putInt("ascension", ascensionNumber);
+            tag.putInt("count", entryCount);
+            CompoundTag counts = new CompoundTag();
+            countsByType.forEach(counts::putInt);
+            tag.put("counts", counts);
+            tag.putString("first", firstTimestamp);
+            tag.putString("last", lastTimestamp);
+            ListTag milestoneList = new ListTag();
+            for (String milestone : milestones) {
+                milestoneList.add(net.minecraft.nbt.StringTag.valueOf(milestone));
+            }
+            tag.put("milestones", milestoneList);
+            return tag;
+        }
+        
+        public static LifeDigest fromNbt(CompoundTag tag) {
+            Map<String, Integer> counts = new TreeMap<>();
+            CompoundTag countsTag = tag.getCompoundOrEmpty("counts");
+            for (String type : countsTag.keySet()) {
+                counts.put(type, countsTag.getIntOr(type, 0));
+            }
+            List<String> milestones = new ArrayList<>();
+            ListTag milestoneList = tag.getListOrEmpty("milestones");
+            for (int i = 0; i < milestoneList.size(); i++) {
+                milestones.add(milestoneList.getString(i).orElse(""));
+            }
+            return new LifeDigest(tag.getIntOr("ascension", 0), tag.getIntOr("count", 0), counts,
+                tag.getStringOr("first", "Unknown"), tag.getStringOr("last", "Unknown"), milestones);
+        }
+        
+        /**
+         * Roll a life's full entry list up into a digest
+         */
+        public static LifeDigest of(int ascensionNumber, List<ChronicleEntry> entries) {
+            Map<String, Integer> counts = new TreeMap<>();
+            List<String> milestones = new ArrayList<>();
+            for (ChronicleEntry entry : entries) {
+                counts.merge(entry.eventType(), 1, Integer::sum);
+                if (entry.eventType().equals("milestone") && milestones.size() < MAX_DIGEST_MILESTONES) {
+                    milestones.add(entry.description());
+                }
+            }
+            String first = entries.isEmpty() ? "Unknown" : entries.get(0).timestamp();
+            String last = entries.isEmpty() ? "Unknown" : entries.get(entries.size() - 1).timestamp();
+            return new LifeDigest(ascensionNumber, entries.size(), counts, first, last, milestones);
+        }
+        
+        /**
+         * One-line stand-in for the life when the history is listed
+         */
+        public ChronicleEntry toEntry() {
+            StringBuilder summary = new StringBuilder("Age " + (ascensionNumber + 1) + ": " + entryCount + " events");
+            countsByType.forEach((type, count) -> summary.append(", ").append(count).append(' ').append(type));
+            if (!milestones.isEmpty()) {
+                summary.append(" - ").append(String.join("; ", milestones));
+            }
+            return new ChronicleEntry(firstTimestamp + " - " + lastTimestamp, ascensionNumber, "digest", summary.toString());
+        }
+    }
+    
+    // Milestones kept in a digest (the rest are still counted)
+    private static final int MAX_DIGEST_MILESTONES = 8;
+    
     /**
      * Record an event in the chronicle
      */
@@ -127,6 +212,23 @@ public class ChronicleManager {
     
     // ==================== AUTOMATIC EVENT HOOKS ====================
     
+    /**
+     * Dimension and depth milestones come from zone transitions
+     */
+    public static void register() {
+        ZoneTracker.listen(new ZoneTracker.Listener() {
+            @Override
+            public void onEnter(ServerPlayer player, ZoneTracker.Zone zone, long now) {
+                switch (zone) {
+                    case DEPTHS -> onReachDeepslate(player);
+                    case NETHER -> onEnterNether(player);
+                    case END -> onEnterEnd(player);
+                    default -> {}
+                }
+            }
+        });
+    }
+    
     /**
      * First time entering the Nether
      */
@@ -236,18 +338,56 @@ public class ChronicleManager {
             
             // Store under "life_X" key
             playerChronicle.put("life_" + ascension, lifeTag);
+            int rolledUp = rollUpOldLives(playerChronicle, ascension);
             root.put(playerId, playerChronicle);
             
             NbtIo.writeCompressed(root, path);
-            AscendancyMod.LOGGER.info("Saved chronicle for {} (Age {}, {} entries)", 
-                playerId, ascension, entries.size());
+            AscendancyMod.LOGGER.info("Saved chronicle for {} (Age {}, {} entries, {} old lives digested)", 
+                playerId, ascension, entries.size(), rolledUp);
         } catch (IOException e) {
             AscendancyMod.LOGGER.error("Failed to save chronicle", e);
         }
     }
     
     /**
-     * Load all chronicle entries for a player (for viewing)
+     * Replace "life_X" records older than the detail horizon with "digest_X" records
+     */
+    private static int rollUpOldLives(CompoundTag playerChronicle, int newestAscension) {
+        if (AscendancyConfig.chronicleDetailedLives == 0) return 0;
+        int horizon = newestAscension - AscendancyConfig.chronicleDetailedLives;
+        int rolledUp = 0;
+        for (String key : new ArrayList<>(playerChronicle.keySet())) {
+            int ascension = lifeNumber(key, "life_");
+            if (ascension < 0 || ascension > horizon) continue;
+            
+            ListTag entriesList = playerChronicle.getCompoundOrEmpty(key).getListOrEmpty("entries");
+            List<ChronicleEntry> lifeEntries = new ArrayList<>(entriesList.size());
+            for (int i = 0; i < entriesList.size(); i++) {
+                lifeEntries.add(ChronicleEntry.fromNbt(entriesList.getCompoundOrEmpty(i)));
+            }
+            
+            playerChronicle.remove(key);
+            playerChronicle.put("digest_" + ascension, LifeDigest.of(ascension, lifeEntries).toNbt());
+            rolledUp++;
+        }
+        return rolledUp;
+    }
+    
+    /**
+     * Ascension number from a "life_X" / "digest_X" key, or -1 if the key isn't one
+     */
+    private static int lifeNumber(String key, String prefix) {
+        if (!key.startsWith(prefix)) return -1;
+        try {
+            return Integer.parseInt(key.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Load all chronicle entries for a player (for viewing), oldest life first.
+     * Digested lives appear as a single "digest" entry.
      */
     public static List<ChronicleEntry> loadAllEntries(ServerLevel level, String playerId) {
         List<ChronicleEntry> allEntries = new ArrayList<>();
@@ -258,15 +398,24 @@ public class ChronicleManager {
             CompoundTag root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
             CompoundTag playerChronicle = root.getCompoundOrEmpty(playerId);
             
-            // Iterate through all lives
+            // Lives in ascension order, whichever form they are stored in
+            TreeMap<Integer, String> lives = new TreeMap<>();
             for (String key : playerChronicle.keySet()) {
-                if (key.startsWith("life_")) {
-                    CompoundTag lifeTag = playerChronicle.getCompoundOrEmpty(key);
-                    ListTag entriesList = lifeTag.getListOrEmpty("entries");
-                    
-                    for (int i = 0; i < entriesList.size(); i++) {
-                        allEntries.add(ChronicleEntry.fromNbt(entriesList.getCompoundOrEmpty(i)));
-                    }
+                int life = lifeNumber(key, "life_");
+                if (life >= 0) lives.put(life, key);
+                int digest = lifeNumber(key, "digest_");
+                if (digest >= 0) lives.putIfAbsent(digest, key);
+            }
+            
+            for (String key : lives.values()) {
+                CompoundTag lifeTag = playerChronicle.getCompoundOrEmpty(key);
+                if (key.startsWith("digest_")) {
+                    allEntries.add(LifeDigest.fromNbt(lifeTag).toEntry());
+                    continue;
+                }
+                ListTag entriesList = lifeTag.getListOrEmpty("entries");
+                for (int i = 0; i < entriesList.size(); i++) {
+                    allEntries.add(ChronicleEntry.fromNbt(entriesList.getCompoundOrEmpty(i)));
                 }
             }
         } catch (IOException e) {
@@ -303,39 +452,54 @@ public class ChronicleManager {
     }
     
     /**
-     * Load current life data on player join
+     * Read a joining player's current life (off the server thread). The returned step
+     * installs it once the player's session is ready.
      */
-    public static void loadCurrentLife(ServerPlayer player) {
-        ServerLevel level = (ServerLevel) player.level();
+    public static Consumer<ServerPlayer> readCurrentLife(MinecraftServer server, UUID playerId) throws IOException {
+        CompoundTag playerData = SaveFiles.readPlayer(getCurrentLifePath(server), playerId);
+        return player -> loadCurrentLife(player, playerData);
+    }
+    
+    private static void loadCurrentLife(ServerPlayer player, CompoundTag playerData) {
         UUID playerId = player.getUUID();
         
-        try {
-            Path path = level.getServer().getWorldPath(LevelResource.ROOT).resolve("ascendancy_chronicle_current.dat");
-            if (Files.exists(path)) {
-                CompoundTag root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-                CompoundTag playerData = root.getCompoundOrEmpty(playerId.toString());
-                
-                // Load current life entries
-                ListTag entriesList = playerData.getListOrEmpty("entries");
-                List<ChronicleEntry> entries = new ArrayList<>();
-                for (int i = 0; i < entriesList.size(); i++) {
-                    entries.add(ChronicleEntry.fromNbt(entriesList.getCompoundOrEmpty(i)));
-                }
-                currentLifeEntries.put(playerId, entries);
-                
-                // Load recorded milestones
-                ListTag milestonesList = playerData.getListOrEmpty("milestones");
-                Set<String> milestones = new HashSet<>();
-                for (int i = 0; i < milestonesList.size(); i++) {
-                    milestones.add(milestonesList.getString(i).orElse(""));
-                }
-                recordedMilestones.put(playerId, milestones);
-                
-                AscendancyMod.LOGGER.info("Loaded {} chronicle entries for {}", entries.size(), player.getName().getString());
-            }
-        } catch (IOException e) {
-            AscendancyMod.LOGGER.error("Failed to load current chronicle", e);
+        // Load current life entries
+        ListTag entriesList = playerData.getListOrEmpty("entries");
+        List<ChronicleEntry> entries = new ArrayList<>();
+        for (int i = 0; i < entriesList.size(); i++) {
+            entries.add(ChronicleEntry.fromNbt(entriesList.getCompoundOrEmpty(i)));
         }
+        currentLifeEntries.put(playerId, entries);
+        
+        // Load recorded milestones
+        ListTag milestonesList = playerData.getListOrEmpty("milestones");
+        Set<String> milestones = new HashSet<>();
+        for (int i = 0; i < milestonesList.size(); i++) {
+            milestones.add(milestonesList.getString(i).orElse(""));
+        }
+        recordedMilestones.put(playerId, milestones);
+        
+        AscendancyMod.LOGGER.info("Loaded {} chronicle entries for {}", entries.size(), player.getName().getString());
+    }
+    
+    /**
+     * Save and drop a leaving player's current life
+     */
+    public static void unload(ServerPlayer player) {
+        saveCurrentLife(player);
+        discard(player);
+    }
+    
+    /**
+     * Drop a leaving player's current life without saving (their load failed)
+     */
+    public static void discard(ServerPlayer player) {
+        currentLifeEntries.remove(player.getUUID());
+        recordedMilestones.remove(player.getUUID());
+    }
+    
+    public static int trackedPlayers() {
+        return Math.max(currentLifeEntries.size(), recordedMilestones.size());
     }
     
     /**
@@ -346,14 +510,8 @@ public class ChronicleManager {
         UUID playerId = player.getUUID();
         
         try {
-            Path path = level.getServer().getWorldPath(LevelResource.ROOT).resolve("ascendancy_chronicle_current.dat");
-            CompoundTag root;
-            
-            if (Files.exists(path)) {
-                root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-            } else {
-                root = new CompoundTag();
-            }
+            Path path = getCurrentLifePath(level.getServer());
+            CompoundTag root = SaveFiles.readRoot(path);
             
             CompoundTag playerData = new CompoundTag();
             
@@ -374,9 +532,13 @@ public class ChronicleManager {
             playerData.put("milestones", milestonesList);
             
             root.put(playerId.toString(), playerData);
-            NbtIo.writeCompressed(root, path);
+            SaveFiles.writeAtomic(root, path);
         } catch (IOException e) {
             AscendancyMod.LOGGER.error("Failed to save current chronicle", e);
         }
     }
+    
+    private static Path getCurrentLifePath(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(CURRENT_LIFE_FILE);
+    }
 }
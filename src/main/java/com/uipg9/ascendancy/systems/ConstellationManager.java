@@ -1,14 +1,22 @@
 package com.uipg9.ascendancy.systems;
 
 import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.AscendancyAttachments;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.core.Holder;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.effect.MobEffect;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.effect.MobEffects;
 import net.minecraft.world.entity.LivingEntity;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,9 +28,19 @@ import java.util.UUID;
  */
 public class ConstellationManager {
     
-    // Track active constellation per player (transient - cleared on ascension)
+    // Active constellation per online player (also stored on the player, cleared on ascension)
     private static final Map<UUID, Constellation> playerConstellations = new HashMap<>();
     
+    // Effect refresh: reapply shortly before the effect would run out
+    private static final int EFFECT_DURATION = 200; // 10 seconds
+    private static final int REFRESH_MARGIN = 20;
+    
+    // Per-constellation handlers - only their members are ever looked at
+    private static final ZoneEffect DEEP = new ZoneEffect(ZoneTracker.Zone.DEPTHS, MobEffects.NIGHT_VISION);
+    private static final ZoneEffect SEA = new ZoneEffect(ZoneTracker.Zone.UNDERWATER, MobEffects.WATER_BREATHING);
+    private static final Set<UUID> beastMembers = new HashSet<>();
+    private static final int BEAST_HEAL_INTERVAL = 100; // 5 seconds
+    
     /**
      * Available Constellations with their effects
      */
@@ -72,10 +90,13 @@ public class ConstellationManager {
      * Set a player's constellation for this life
      */
     public static void setConstellation(ServerPlayer player, Constellation constellation) {
-        if (constellation == Constellation.NONE) {
-            playerConstellations.remove(player.getUUID());
-        } else {
+        leave(player.getUUID(), playerConstellations.remove(player.getUUID()));
+        if (constellation != Constellation.NONE) {
             playerConstellations.put(player.getUUID(), constellation);
+            player.setAttached(AscendancyAttachments.CONSTELLATION, constellation.name());
+            join(player, constellation);
+        } else {
+            player.removeAttached(AscendancyAttachments.CONSTELLATION);
         }
         
         player.sendSystemMessage(Component.literal("§d§l✦ " + constellation.getDisplayName() + " §d§lchosen! ✦"));
@@ -97,6 +118,8 @@ public class ConstellationManager {
      */
     public static void clearConstellation(ServerPlayer player) {
         Constellation old = playerConstellations.remove(player.getUUID());
+        player.removeAttached(AscendancyAttachments.CONSTELLATION);
+        leave(player.getUUID(), old);
         if (old != null && old != Constellation.NONE) {
             AscendancyMod.LOGGER.info("Cleared constellation {} for player {}", 
                 old.name(), player.getName().getString());
@@ -104,77 +127,179 @@ public class ConstellationManager {
     }
     
     /**
-     * Apply constellation effects every tick
+     * Restore a joining player's constellation for this life
      */
-    public static void tickConstellationEffects(ServerPlayer player) {
-        Constellation constellation = getConstellation(player);
-        if (constellation == Constellation.NONE) return;
-        
-        switch (constellation) {
-            case STAR_OF_DEEP -> tickDeep(player);
-            case STAR_OF_WIND -> {} // Handled by damage event
-            case STAR_OF_BEAST -> tickBeast(player);
-            case STAR_OF_SEA -> tickSea(player);
-            default -> {}
+    public static void load(ServerPlayer player) {
+        String name = player.getAttached(AscendancyAttachments.CONSTELLATION);
+        if (name == null) return;
+        try {
+            Constellation constellation = Constellation.valueOf(name);
+            if (constellation == Constellation.NONE) return;
+            playerConstellations.put(player.getUUID(), constellation);
+            join(player, constellation);
+        } catch (IllegalArgumentException e) {
+            // Unknown constellation, drop it
+            player.removeAttached(AscendancyAttachments.CONSTELLATION);
         }
     }
     
     /**
-     * Star of the Deep - Night vision when below Y=0
+     * Drop a leaving player from the constellation and its member set
      */
-    private static void tickDeep(ServerPlayer player) {
-        if (player.getY() < 0) {
-            // Add/refresh night vision (5 seconds to avoid flickering)
-            if (!player.hasEffect(MobEffects.NIGHT_VISION) || 
-                player.getEffect(MobEffects.NIGHT_VISION).getDuration() < 100) {
-                player.addEffect(new MobEffectInstance(
-                    MobEffects.NIGHT_VISION, 
-                    200, // 10 seconds
-                    0, 
-                    true, // ambient
-                    false, // no particles
-                    true // show icon
-                ));
-            }
+    public static void unload(ServerPlayer player) {
+        leave(player.getUUID(), playerConstellations.remove(player.getUUID()));
+    }
+    
+    public static int trackedPlayers() {
+        return playerConstellations.size();
+    }
+    
+    /**
+     * Effects were removed from a player (milk, expiry, commands, other mods) - see
+     * LivingEntityEffectsMixin. Zone effects among them are re-applied on the next tick.
+     */
+    public static void onEffectsRemoved(ServerPlayer player, Collection<MobEffectInstance> effects) {
+        if (DEEP.members.isEmpty() && SEA.members.isEmpty()) return;
+        for (MobEffectInstance instance : effects) {
+            if (instance.is(DEEP.effect)) DEEP.refreshSoon(player.getUUID());
+            if (instance.is(SEA.effect)) SEA.refreshSoon(player.getUUID());
         }
     }
     
     /**
-     * Star of the Beast - Heal mounts over time
+     * The respawned player entity starts without effects
      */
-    private static void tickBeast(ServerPlayer player) {
-        // Check every 5 seconds
-        if (player.tickCount % 100 != 0) return;
-        
-        // Heal any living entity mount (horses, pigs, camels, etc.)
-        if (player.getVehicle() instanceof LivingEntity mount) {
-            if (mount.getHealth() < mount.getMaxHealth()) {
-                mount.heal(1.0f); // Half heart every 5 seconds
+    public static void onRespawn(ServerPlayer player) {
+        DEEP.refreshSoon(player.getUUID());
+        SEA.refreshSoon(player.getUUID());
+    }
+    
+    // ==================== HANDLERS ====================
+    
+    /**
+     * Server tick: only Deep, Sea and Beast members are visited.
+     * Wind needs no ticking - it hooks the fall damage path directly.
+     * Deep and Sea learn about zone crossings from the ZoneTracker.
+     */
+    public static void register() {
+        ZoneTracker.listen(new ZoneTracker.Listener() {
+            @Override
+            public void onEnter(ServerPlayer player, ZoneTracker.Zone zone, long now) {
+                ZoneEffect handler = zone == DEEP.zone ? DEEP : zone == SEA.zone ? SEA : null;
+                if (handler != null) handler.enter(player, (int) now);
+            }
+            
+            @Override
+            public void onExit(ServerPlayer player, ZoneTracker.Zone zone, long enteredAt, long now) {
+                ZoneState state = zone == DEEP.zone ? DEEP.members.get(player.getUUID())
+                    : zone == SEA.zone ? SEA.members.get(player.getUUID()) : null;
+                if (state != null) state.inside = false;
             }
+        });
+        
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (DEEP.members.isEmpty() && SEA.members.isEmpty() && beastMembers.isEmpty()) return;
+            int now = server.getTickCount();
+            DEEP.tick(server, now);
+            SEA.tick(server, now);
+            if (now % BEAST_HEAL_INTERVAL == 0) tickBeast(server);
+        });
+    }
+    
+    private static void join(ServerPlayer player, Constellation constellation) {
+        switch (constellation) {
+            case STAR_OF_DEEP -> DEEP.join(player);
+            case STAR_OF_SEA -> SEA.join(player);
+            case STAR_OF_BEAST -> beastMembers.add(player.getUUID());
+            default -> {}
         }
     }
     
+    private static void leave(UUID playerId, Constellation constellation) {
+        if (constellation == null) return;
+        switch (constellation) {
+            case STAR_OF_DEEP -> DEEP.members.remove(playerId);
+            case STAR_OF_SEA -> SEA.members.remove(playerId);
+            case STAR_OF_BEAST -> beastMembers.remove(playerId);
+            default -> {}
+        }
+    }
+    
+    private static final class ZoneState {
+        boolean inside = false;
+        int refreshAt = 0;
+    }
+    
     /**
-     * Star of the Sea - Infinite water breathing
+     * An effect granted while a player is inside a zone (below Y=0, underwater).
+     * Applied on entering, then refreshed when it is about to expire, or on the next
+     * tick once it has gone (milk, death, another mod clearing effects).
      */
-    private static void tickSea(ServerPlayer player) {
-        // Keep air at max when underwater
-        if (player.isUnderWater() && player.getAirSupply() < player.getMaxAirSupply()) {
-            player.setAirSupply(player.getMaxAirSupply());
+    private static final class ZoneEffect {
+        final ZoneTracker.Zone zone;
+        final Holder<MobEffect> effect;
+        final Map<UUID, ZoneState> members = new HashMap<>();
+        
+        ZoneEffect(ZoneTracker.Zone zone, Holder<MobEffect> effect) {
+            this.zone = zone;
+            this.effect = effect;
+        }
+        
+        void join(ServerPlayer player) {
+            members.put(player.getUUID(), new ZoneState());
+            // Chose it while already inside
+            if (ZoneTracker.isIn(player, zone)) {
+                enter(player, player.level().getServer().getTickCount());
+            }
         }
         
-        // Also give water breathing effect for visual
-        if (player.isUnderWater()) {
-            if (!player.hasEffect(MobEffects.WATER_BREATHING) ||
-                player.getEffect(MobEffects.WATER_BREATHING).getDuration() < 100) {
-                player.addEffect(new MobEffectInstance(
-                    MobEffects.WATER_BREATHING,
-                    200,
-                    0,
-                    true,
-                    false,
-                    true
-                ));
+        void enter(ServerPlayer player, int now) {
+            ZoneState state = members.get(player.getUUID());
+            if (state == null) return;
+            state.inside = true;
+            apply(player, state, now);
+        }
+        
+        void tick(MinecraftServer server, int now) {
+            for (Map.Entry<UUID, ZoneState> entry : members.entrySet()) {
+                ZoneState state = entry.getValue();
+                if (!state.inside || now < state.refreshAt) continue;
+                
+                ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+                if (player != null) apply(player, state, now);
+            }
+        }
+        
+        void refreshSoon(UUID playerId) {
+            ZoneState state = members.get(playerId);
+            if (state != null) state.refreshAt = 0;
+        }
+        
+        private void apply(ServerPlayer player, ZoneState state, int now) {
+            player.addEffect(new MobEffectInstance(
+                effect,
+                EFFECT_DURATION,
+                0,
+                true, // ambient
+                false, // no particles
+                true // show icon
+            ));
+            state.refreshAt = now + EFFECT_DURATION - REFRESH_MARGIN;
+        }
+    }
+    
+    /**
+     * Star of the Beast - Heal mounts over time
+     */
+    private static void tickBeast(MinecraftServer server) {
+        for (UUID playerId : beastMembers) {
+            ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+            
+            // Heal any living entity mount (horses, pigs, camels, etc.)
+            if (player != null && player.getVehicle() instanceof LivingEntity mount) {
+                if (mount.getHealth() < mount.getMaxHealth()) {
+                    mount.heal(1.0f); // Half heart every 5 seconds
+                }
             }
         }
     }
@@ -184,7 +309,7 @@ public class ConstellationManager {
      * Call this from a damage handler
      */
     public static float modifyFallDamage(ServerPlayer player, float damage) {
-        if (getConstellation(player) == Constellation.STAR_OF_WIND) {
+        if (playerConstellations.get(player.getUUID()) == Constellation.STAR_OF_WIND) {
             return damage * 0.2f; // 80% reduction
         }
         return damage;
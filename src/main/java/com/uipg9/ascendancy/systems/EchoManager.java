@@ -1,8 +1,12 @@
 package com.uipg9.ascendancy.systems;
 
+import com.uipg9.ascendancy.AscendancyConfig;
 import com.uipg9.ascendancy.AscendancyMod;
 import com.uipg9.ascendancy.data.PlayerDataManager;
+import com.uipg9.ascendancy.data.SaveFiles;
 import com.uipg9.ascendancy.network.AscendancyNetworking;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
@@ -42,6 +46,14 @@ public class EchoManager {
     // Tracking spawned echoes to avoid duplicates
     private static final Set<String> spawnedEchoSites = new HashSet<>();
     
+    // Every known legacy site, mirrored from the data file
+    private static final List<LegacySiteData> sites = new ArrayList<>();
+    private static Path dataPath = null; // Set while a server is running
+    
+    // Compaction runs at most this often, and only in ticks with time to spare
+    private static final int COMPACT_INTERVAL = 6000; // 5 minutes
+    private static final long IDLE_TICK_NANOS = 25_000_000L; // 25ms average tick
+    
     // Track active echo entities for kill detection
     private static final Map<UUID, EchoData> activeEchoes = new HashMap<>();
     
@@ -56,7 +68,8 @@ public class EchoManager {
         int x, int y, int z,
         int ascensionNumber,
         List<String> armorItemIds,
-        boolean echoDefeated
+        boolean echoDefeated,
+        long createdAt         // Real time (epoch millis) the site was registered
     ) {
         public CompoundTag toNbt() {
             CompoundTag tag = new CompoundTag();
@@ -66,6 +79,7 @@ public class EchoManager {
             tag.putInt("z", z);
             tag.putInt("ascension", ascensionNumber);
             tag.putBoolean("defeated", echoDefeated);
+            tag.putLong("created", createdAt);
             
             ListTag armorList = new ListTag();
             for (String itemId : armorItemIds) {
@@ -82,6 +96,7 @@ public class EchoManager {
             int z = tag.getIntOr("z", 0);
             int ascension = tag.getIntOr("ascension", 0);
             boolean defeated = tag.getBooleanOr("defeated", false);
+            long created = tag.getLongOr("created", 0L); // 0 = saved before sites were dated
             
             List<String> armor = new ArrayList<>();
             ListTag armorList = tag.getListOrEmpty("armor");
@@ -89,12 +104,24 @@ public class EchoManager {
                 armor.add(armorList.getString(i).orElse("minecraft:air"));
             }
             
-            return new LegacySiteData(playerId, x, y, z, ascension, armor, defeated);
+            return new LegacySiteData(playerId, x, y, z, ascension, armor, defeated, created);
         }
         
         public BlockPos getPos() {
             return new BlockPos(x, y, z);
         }
+        
+        String key() {
+            return playerUUID + "_" + ascensionNumber;
+        }
+        
+        LegacySiteData withDefeated() {
+            return new LegacySiteData(playerUUID, x, y, z, ascensionNumber, armorItemIds, true, createdAt);
+        }
+        
+        LegacySiteData withCreatedAt(long time) {
+            return new LegacySiteData(playerUUID, x, y, z, ascensionNumber, armorItemIds, echoDefeated, time);
+        }
     }
     
     /**
@@ -103,19 +130,22 @@ public class EchoManager {
     private record EchoData(String playerUUID, BlockPos sitePos, int soulXPBonus) {}
     
     /**
-     * Register a legacy site when player ascends
-     * Called from AscensionManager after creating the chest
+     * The armor the Echo will wear, taken before ascension wipes the player
      */
-    public static void registerLegacySite(ServerPlayer player, BlockPos chestPos) {
-        ServerLevel level = (ServerLevel) player.level();
-        
-        // Collect current armor IDs
+    public static List<String> getArmorIds(ServerPlayer player) {
         List<String> armorIds = new ArrayList<>();
         armorIds.add(getItemId(player.getItemBySlot(EquipmentSlot.HEAD)));
         armorIds.add(getItemId(player.getItemBySlot(EquipmentSlot.CHEST)));
         armorIds.add(getItemId(player.getItemBySlot(EquipmentSlot.LEGS)));
         armorIds.add(getItemId(player.getItemBySlot(EquipmentSlot.FEET)));
-        
+        return armorIds;
+    }
+    
+    /**
+     * Register a legacy site when player ascends
+     * Called from AscensionManager after creating the chest, with armor from {@link #getArmorIds}
+     */
+    public static void registerLegacySite(ServerPlayer player, BlockPos chestPos, List<String> armorIds) {
         // Only register if they have SOME armor
         boolean hasArmor = armorIds.stream().anyMatch(id -> !id.equals("minecraft:air"));
         if (!hasArmor) {
@@ -127,11 +157,12 @@ public class EchoManager {
         LegacySiteData siteData = new LegacySiteData(
             player.getUUID().toString(), 
             chestPos.getX(), chestPos.getY(), chestPos.getZ(),
-            ascensionCount, armorIds, false
+            ascensionCount, armorIds, false, System.currentTimeMillis()
         );
         
         // Save to file
-        saveLegacySite(level, siteData);
+        sites.add(siteData);
+        saveSites();
         
         AscendancyMod.LOGGER.info("Registered Echo site for {} at {} (Ascension #{})", 
             player.getName().getString(), chestPos, ascensionCount);
@@ -156,13 +187,12 @@ public class EchoManager {
         if (player.tickCount % 40 != 0) return;
         
         ServerLevel level = (ServerLevel) player.level();
-        List<LegacySiteData> sites = loadAllLegacySites(level);
         
         for (LegacySiteData site : sites) {
             // Skip defeated sites
             if (site.echoDefeated()) continue;
             
-            String siteKey = site.playerUUID() + "_" + site.ascensionNumber();
+            String siteKey = site.key();
             if (spawnedEchoSites.contains(siteKey)) continue;
             
             // Check distance
@@ -257,8 +287,7 @@ public class EchoManager {
             AscendancyNetworking.syncToClient(player);
             
             // Mark as defeated in saved data
-            ServerLevel level = (ServerLevel) player.level();
-            markEchoDefeated(level, echoData.playerUUID(), echoData.sitePos());
+            markEchoDefeated(echoData.playerUUID(), echoData.sitePos());
             
             AscendancyMod.LOGGER.info("Player {} defeated Echo, awarded {} Soul XP", 
                 player.getName().getString(), echoData.soulXPBonus());
@@ -271,71 +300,139 @@ public class EchoManager {
     
     // ==================== FILE STORAGE ====================
     
-    private static Path getEchoDataPath(ServerLevel level) {
-        return level.getServer().getWorldPath(LevelResource.ROOT).resolve(ECHO_DATA_FILE);
+    /**
+     * Sites are loaded once at server start and kept in memory; the file is rewritten
+     * when a site is added, defeated or compacted away.
+     */
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            dataPath = server.getWorldPath(LevelResource.ROOT).resolve(ECHO_DATA_FILE);
+            // Persist the dates given to undated sites, or their age restarts every launch
+            if (loadSites()) saveSites();
+            compact(true);
+        });
+        
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (server.getTickCount() % COMPACT_INTERVAL != 0) return;
+            // Only when the server has time to spare; otherwise try again next interval
+            if (server.getAverageTickTimeNanos() > IDLE_TICK_NANOS) return;
+            compact(false);
+        });
+        
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            sites.clear();
+            spawnedEchoSites.clear();
+            activeEchoes.clear();
+            dataPath = null;
+        });
     }
     
-    private static void saveLegacySite(ServerLevel level, LegacySiteData site) {
+    /**
+     * Returns whether any site had no creation date and was dated now
+     */
+    private static boolean loadSites() {
+        sites.clear();
+        boolean dated = false;
         try {
-            Path path = getEchoDataPath(level);
-            CompoundTag root;
-            
-            if (Files.exists(path)) {
-                root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-            } else {
-                root = new CompoundTag();
-            }
+            if (!Files.exists(dataPath)) return false;
             
-            ListTag sites = root.getListOrEmpty("sites");
-            sites.add(site.toNbt());
-            root.put("sites", sites);
+            CompoundTag root = NbtIo.readCompressed(dataPath, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
+            ListTag sitesList = root.getListOrEmpty("sites");
+            long now = System.currentTimeMillis();
             
-            NbtIo.writeCompressed(root, path);
+            for (int i = 0; i < sitesList.size(); i++) {
+                LegacySiteData site = LegacySiteData.fromNbt(sitesList.getCompoundOrEmpty(i));
+                // Undated sites start their age now
+                if (site.createdAt() == 0) {
+                    site = site.withCreatedAt(now);
+                    dated = true;
+                }
+                sites.add(site);
+            }
         } catch (IOException e) {
-            AscendancyMod.LOGGER.error("Failed to save Echo data", e);
+            AscendancyMod.LOGGER.error("Failed to load Echo data", e);
         }
+        return dated;
     }
     
-    private static List<LegacySiteData> loadAllLegacySites(ServerLevel level) {
-        List<LegacySiteData> sites = new ArrayList<>();
+    private static void saveSites() {
+        if (dataPath == null) return;
         try {
-            Path path = getEchoDataPath(level);
-            if (!Files.exists(path)) return sites;
-            
-            CompoundTag root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-            ListTag sitesList = root.getListOrEmpty("sites");
-            
-            for (int i = 0; i < sitesList.size(); i++) {
-                sites.add(LegacySiteData.fromNbt(sitesList.getCompoundOrEmpty(i)));
+            ListTag list = new ListTag();
+            for (LegacySiteData site : sites) {
+                list.add(site.toNbt());
             }
+            CompoundTag root = new CompoundTag();
+            root.put("sites", list);
+            SaveFiles.writeAtomic(root, dataPath);
         } catch (IOException e) {
-            AscendancyMod.LOGGER.error("Failed to load Echo data", e);
+            AscendancyMod.LOGGER.error("Failed to save Echo data", e);
         }
-        return sites;
     }
     
-    private static void markEchoDefeated(ServerLevel level, String playerUUID, BlockPos sitePos) {
-        try {
-            Path path = getEchoDataPath(level);
-            if (!Files.exists(path)) return;
-            
-            CompoundTag root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-            ListTag sites = root.getListOrEmpty("sites");
-            
-            for (int i = 0; i < sites.size(); i++) {
-                CompoundTag siteTag = sites.getCompoundOrEmpty(i);
-                if (siteTag.getStringOr("playerId", "").equals(playerUUID) &&
-                    siteTag.getIntOr("x", 0) == sitePos.getX() &&
-                    siteTag.getIntOr("z", 0) == sitePos.getZ()) {
-                    siteTag.putBoolean("defeated", true);
-                    break;
-                }
+    private static void markEchoDefeated(String playerUUID, BlockPos sitePos) {
+        for (int i = 0; i < sites.size(); i++) {
+            LegacySiteData site = sites.get(i);
+            if (site.playerUUID().equals(playerUUID) && site.x() == sitePos.getX() && site.z() == sitePos.getZ()) {
+                sites.set(i, site.withDefeated());
+                saveSites();
+                return;
             }
-            
-            root.put("sites", sites);
-            NbtIo.writeCompressed(root, path);
+        }
+    }
+    
+    // ==================== COMPACTION ====================
+    
+    /**
+     * Drop defeated sites and sites past the configured age, in real days or in
+     * ascensions behind the owner's newest site. Rewrites the file only if anything went.
+     */
+    private static void compact(boolean startup) {
+        if (dataPath == null) return;
+        long now = System.currentTimeMillis();
+        long maxAgeMillis = AscendancyConfig.echoSiteTtlDays * 24L * 60 * 60 * 1000;
+        int maxAscensionsBehind = AscendancyConfig.echoSiteTtlAscensions;
+        
+        Map<String, Integer> newestAscension = new HashMap<>();
+        for (LegacySiteData site : sites) {
+            newestAscension.merge(site.playerUUID(), site.ascensionNumber(), Math::max);
+        }
+        
+        int defeated = 0, expiredByAge = 0, expiredByAscension = 0;
+        Iterator<LegacySiteData> it = sites.iterator();
+        while (it.hasNext()) {
+            LegacySiteData site = it.next();
+            if (site.echoDefeated()) {
+                defeated++;
+            } else if (maxAgeMillis > 0 && now - site.createdAt() > maxAgeMillis) {
+                expiredByAge++;
+            } else if (maxAscensionsBehind > 0
+                    && newestAscension.get(site.playerUUID()) - site.ascensionNumber() >= maxAscensionsBehind) {
+                expiredByAscension++;
+            } else {
+                continue;
+            }
+            it.remove();
+            spawnedEchoSites.remove(site.key());
+        }
+        
+        int removed = defeated + expiredByAge + expiredByAscension;
+        if (removed == 0) {
+            if (startup) AscendancyMod.LOGGER.info("Echo sites: {} kept, nothing to compact", sites.size());
+            return;
+        }
+        
+        long before = fileSize();
+        saveSites();
+        AscendancyMod.LOGGER.info("Compacted Echo sites: {} defeated, {} expired by age, {} expired by ascension, "
+            + "{} kept ({} -> {} bytes)", defeated, expiredByAge, expiredByAscension, sites.size(), before, fileSize());
+    }
+    
+    private static long fileSize() {
+        try {
+            return Files.exists(dataPath) ? Files.size(dataPath) : 0;
         } catch (IOException e) {
-            AscendancyMod.LOGGER.error("Failed to update Echo data", e);
+            return -1;
         }
     }
 }
@@ -0,0 +1,362 @@
+package com.uipg9.ascendancy.systems;
+
+import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.LegacyVaultIndex;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
+import net.fabricmc.fabric.api.event.player.UseBlockCallback;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
+import net.minecraft.resources.RegistryOps;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.ChestBlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.storage.LevelResource;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Legacy Vault - off-world storage for the items left behind on ascension.
+ *
+ * Instead of copying every stack into a chest (and losing anything past 54 slots),
+ * ascension writes the items to a per-site vault file and places a single chest.
+ * The chest is only a view: each time it is opened, stored items are paged into
+ * its empty slots.
+ *
+ * Vault files are compressed NBT and content-addressed: identical stacks
+ * (same item + components) are stored once with a total count. A file is written once,
+ * right after ascension, and never rewritten; how much has been paged out lives in the
+ * chunk ({@link LegacyVaultIndex}), so it is saved together with the chest contents.
+ * Files of emptied vaults are deleted at shutdown, once the chunks that stopped
+ * referencing them have been saved. A vault whose file is missing or unreadable once
+ * every queued write has landed (e.g. a crash before it was written) is dropped from
+ * the chunk, so its chest goes back to being an ordinary chest.
+ * Read vaults stay in memory while their chunk is loaded.
+ *
+ * While the vault still holds items the chest can't be removed by anything: players,
+ * explosions or other block changes (see LevelChunkMixin, BlockExplosionMixin). Chests
+ * have a block entity, so pistons never move them.
+ */
+public class LegacyVaultManager {
+
+    private static final String VAULT_DIRECTORY = "ascendancy_vaults";
+
+    // Vault files read into memory, by key (immutable once loaded); dropped with their chunk
+    private static final Map<String, Vault> loadedVaults = new HashMap<>();
+
+    // Reads in flight, so repeated clicks share one
+    private static final Map<String, CompletableFuture<Vault>> loading = new HashMap<>();
+
+    // Files of emptied vaults, deleted once the world has been saved
+    private static final Set<Path> pendingDeletes = new HashSet<>();
+
+    // File reads and writes happen off the server thread, in submission order
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Ascendancy-Vault-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Unique stacks (count 1) and their total counts, index-aligned.
+     * Entries that fail to load stay as empty stacks so indices keep matching the chunk index.
+     */
+    private static final class Vault {
+        final List<ItemStack> pool = new ArrayList<>();
+        final List<Integer> counts = new ArrayList<>();
+        // Item + components hash -> pool indices, only needed while filling
+        final Map<Integer, List<Integer>> byHash = new HashMap<>();
+
+        int remaining() {
+            int total = 0;
+            for (int count : counts) total += count;
+            return total;
+        }
+
+        void add(ItemStack stack) {
+            List<Integer> bucket = byHash.computeIfAbsent(ItemStack.hashItemAndComponents(stack), k -> new ArrayList<>(1));
+            for (int i : bucket) {
+                if (ItemStack.isSameItemSameComponents(pool.get(i), stack)) {
+                    counts.set(i, counts.get(i) + stack.getCount());
+                    return;
+                }
+            }
+            bucket.add(pool.size());
+            pool.add(stack.copyWithCount(1));
+            counts.add(stack.getCount());
+        }
+    }
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            flush();
+            deleteEmptied();
+            loadedVaults.clear();
+            loading.clear();
+        });
+
+        ServerChunkEvents.CHUNK_UNLOAD.register((level, chunk) -> {
+            if (loadedVaults.isEmpty()) return;
+            for (BlockPos pos : LegacyVaultIndex.positions(chunk)) {
+                loadedVaults.remove(vaultKey(level, pos));
+            }
+        });
+
+        // Page items into the chest as vanilla opens it (once the file is read, if it wasn't yet)
+        UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
+            if (world.isClientSide() || !(world instanceof ServerLevel level)) return InteractionResult.PASS;
+            BlockPos pos = hitResult.getBlockPos();
+            if (!(player instanceof ServerPlayer serverPlayer) || !isProtected(level, pos)) return InteractionResult.PASS;
+
+            String key = vaultKey(level, pos);
+            Vault cached = loadedVaults.get(key);
+            if (cached != null) {
+                pageIn(level, pos, serverPlayer, cached);
+            } else {
+                // Items show up in the open chest as soon as the file has been read
+                load(level, pos, key).thenAccept(vault -> {
+                    if (vault != null) pageIn(level, pos, serverPlayer, vault);
+                });
+            }
+            return InteractionResult.PASS;
+        });
+
+        // The chest is the only way in, so keep it while the vault has items
+        PlayerBlockBreakEvents.BEFORE.register((world, player, pos, state, blockEntity) -> {
+            if (!(world instanceof ServerLevel level)) return true;
+            LegacyVaultIndex.Entry entry = LegacyVaultIndex.find(level.getChunkAt(pos), pos);
+            if (entry == null) return true;
+            player.displayClientMessage(Component.literal(
+                "§5The legacy vault still holds §e" + entry.remaining() + "§5 items..."), true);
+            return false;
+        });
+    }
+
+    /**
+     * Whether the block at this position is a legacy chest whose vault still holds items
+     */
+    public static boolean isProtected(LevelChunk chunk, BlockPos pos) {
+        return LegacyVaultIndex.find(chunk, pos) != null;
+    }
+
+    public static boolean isProtected(Level level, BlockPos pos) {
+        return !level.isClientSide() && isProtected(level.getChunkAt(pos), pos);
+    }
+
+    /**
+     * Store items for a legacy chest. Only builds the pool in memory; the file is written off-thread.
+     */
+    public static void createVault(ServerLevel level, BlockPos chestPos, List<ItemStack> items) {
+        Vault vault = new Vault();
+        for (ItemStack stack : items) {
+            if (!stack.isEmpty()) vault.add(stack);
+        }
+        if (vault.pool.isEmpty()) return;
+
+        String key = vaultKey(level, chestPos);
+        loadedVaults.put(key, vault);
+        pendingDeletes.remove(getVaultPath(level.getServer(), key));
+        LegacyVaultIndex.add(level.getChunkAt(chestPos), chestPos, vault.remaining(), vault.pool.size());
+        save(level, key, vault);
+
+        AscendancyMod.LOGGER.info("Created legacy vault at {} with {} items ({} unique)",
+            chestPos, vault.remaining(), vault.pool.size());
+    }
+
+    /**
+     * Fill the chest's empty slots from the vault
+     */
+    private static void pageIn(ServerLevel level, BlockPos pos, ServerPlayer player, Vault vault) {
+        if (!(level.getBlockEntity(pos) instanceof ChestBlockEntity chest)) return;
+        LevelChunk chunk = level.getChunkAt(pos);
+        LegacyVaultIndex.Entry entry = LegacyVaultIndex.find(chunk, pos);
+        if (entry == null) return;
+
+        int moved = 0;
+        int index = 0;
+        for (int slot = 0; slot < chest.getContainerSize() && index < vault.pool.size(); slot++) {
+            if (!chest.getItem(slot).isEmpty()) continue;
+
+            // Skip exhausted entries; ones that failed to load count as exhausted
+            while (index < vault.pool.size()) {
+                int available = vault.counts.get(index) - entry.taken(index);
+                if (available > 0 && !vault.pool.get(index).isEmpty()) break;
+                if (available > 0) entry.take(index, available);
+                index++;
+            }
+            if (index >= vault.pool.size()) break;
+
+            ItemStack template = vault.pool.get(index);
+            int amount = Math.min(vault.counts.get(index) - entry.taken(index), template.getMaxStackSize());
+            chest.setItem(slot, template.copyWithCount(amount));
+            entry.take(index, amount);
+            moved += amount;
+        }
+        chunk.markUnsaved();
+        if (moved == 0 && entry.remaining() > 0) return;
+        chest.setChanged();
+
+        if (entry.remaining() == 0) {
+            String key = vaultKey(level, pos);
+            LegacyVaultIndex.remove(chunk, pos);
+            loadedVaults.remove(key);
+            pendingDeletes.add(getVaultPath(level.getServer(), key));
+            player.displayClientMessage(Component.literal("§5The last of your legacy surfaces."), true);
+        } else {
+            player.displayClientMessage(Component.literal("§5The vault holds §e" + entry.remaining() + "§5 more items..."), true);
+        }
+    }
+
+    // ==================== FILE STORAGE ====================
+
+    private static String vaultKey(ServerLevel level, BlockPos pos) {
+        Identifier dimension = level.dimension().identifier();
+        return dimension.getNamespace() + "_" + dimension.getPath().replace('/', '_')
+            + "_" + pos.getX() + "_" + pos.getY() + "_" + pos.getZ();
+    }
+
+    private static Path getVaultDirectory(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(VAULT_DIRECTORY);
+    }
+
+    private static Path getVaultPath(MinecraftServer server, String key) {
+        return getVaultDirectory(server).resolve(key + ".dat");
+    }
+
+    /**
+     * The vault file, read on the IO thread; completes on the server thread. Null if it is
+     * missing or unreadable, in which case the chest stops being a vault.
+     */
+    private static CompletableFuture<Vault> load(ServerLevel level, BlockPos pos, String key) {
+        Vault cached = loadedVaults.get(key);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        MinecraftServer server = level.getServer();
+        return loading.computeIfAbsent(key, k -> {
+            Path path = getVaultPath(server, key);
+            RegistryOps<Tag> ops = level.registryAccess().createSerializationContext(NbtOps.INSTANCE);
+            return CompletableFuture.supplyAsync(() -> read(path, ops, key), IO)
+                .thenApplyAsync(vault -> {
+                    loading.remove(key);
+                    if (vault != null) {
+                        loadedVaults.put(key, vault);
+                    } else {
+                        // Reads queue behind writes, so the file is not coming: release the chest
+                        LevelChunk chunk = level.getChunkSource().getChunkNow(
+                            SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+                        if (chunk != null) {
+                            LegacyVaultIndex.remove(chunk, pos);
+                            AscendancyMod.LOGGER.error("Dropped legacy vault {}; its chest is an ordinary chest now", key);
+                        }
+                    }
+                    return vault;
+                }, server);
+        });
+    }
+
+    @Nullable
+    private static Vault read(Path path, RegistryOps<Tag> ops, String key) {
+        try {
+            if (!Files.exists(path)) {
+                AscendancyMod.LOGGER.error("Legacy vault {} is missing", key);
+                return null;
+            }
+            CompoundTag root = NbtIo.readCompressed(path, NbtAccounter.unlimitedHeap());
+            ListTag pool = root.getListOrEmpty("pool");
+            int[] counts = root.getIntArray("counts").orElse(new int[0]);
+
+            Vault vault = new Vault();
+            for (int i = 0; i < pool.size() && i < counts.length; i++) {
+                vault.pool.add(ItemStack.CODEC.parse(ops, pool.get(i))
+                    .resultOrPartial(error -> AscendancyMod.LOGGER.error("Bad vault entry in {}: {}", key, error))
+                    .orElse(ItemStack.EMPTY));
+                vault.counts.add(counts[i]);
+            }
+            return vault;
+        } catch (IOException e) {
+            AscendancyMod.LOGGER.error("Failed to load legacy vault {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Snapshot on the server thread, write on the IO thread (temp file + atomic move).
+     * Entries that fail to encode are written as empty so indices stay aligned.
+     */
+    private static void save(ServerLevel level, String key, Vault vault) {
+        RegistryOps<Tag> ops = level.registryAccess().createSerializationContext(NbtOps.INSTANCE);
+        ListTag pool = new ListTag();
+        int[] counts = new int[vault.pool.size()];
+
+        for (int i = 0; i < vault.pool.size(); i++) {
+            counts[i] = vault.counts.get(i);
+            pool.add(ItemStack.CODEC.encodeStart(ops, vault.pool.get(i))
+                .resultOrPartial(error -> AscendancyMod.LOGGER.error("Failed to encode vault item: {}", error))
+                .orElseGet(CompoundTag::new));
+        }
+
+        CompoundTag root = new CompoundTag();
+        root.put("pool", pool);
+        root.putIntArray("counts", counts);
+
+        Path path = getVaultPath(level.getServer(), key);
+        IO.execute(() -> {
+            try {
+                Files.createDirectories(path.getParent());
+                Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+                NbtIo.writeCompressed(root, temp);
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                AscendancyMod.LOGGER.error("Failed to save legacy vault {}", key, e);
+            }
+        });
+    }
+
+    /**
+     * Server stopped, chunks saved: nothing references the emptied vaults any more
+     */
+    private static void deleteEmptied() {
+        for (Path path : pendingDeletes) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                AscendancyMod.LOGGER.error("Failed to delete empty vault {}", path, e);
+            }
+        }
+        pendingDeletes.clear();
+    }
+
+    /**
+     * Wait for queued writes (server stop)
+     */
+    private static void flush() {
+        CompletableFuture.runAsync(() -> {}, IO).join();
+    }
+}
@@ -0,0 +1,128 @@
+package com.uipg9.ascendancy.systems;
+
+import com.uipg9.ascendancy.AscendancyMod;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Movement Tracker - Soul XP, achievements and cravings for walking.
+ *
+ * Samples each player's exact position every {@link #SAMPLE_INTERVAL} ticks (players are
+ * spread across the interval) and integrates horizontal distance. Jumping and climbing
+ * count; water currents and knockback don't: a sample is dropped if the player was in
+ * water at either end or was hurt during it. Samples taken while riding, flying or
+ * gliding, across dimensions, or that jump further than anyone can walk (teleports) are
+ * dropped too. Distance is published in whole
+ * {@link AscendancyMod#WALK_DISTANCE_PER_XP} steps, one call per system however many
+ * steps were crossed.
+ */
+public class MovementTracker {
+
+    private static final int SAMPLE_INTERVAL = 10;
+
+    // Horizontal blocks per sample above which the move is treated as a teleport
+    // (sprint-jumping with Swiftness and Speed II stays well under this)
+    private static final double MAX_SAMPLE_DISTANCE = 12.0;
+
+    private static final class Track {
+        final int phase;            // Tick offset within the sample interval
+        ResourceKey<Level> dimension;
+        double lastX;
+        double lastZ;
+        boolean inWater;            // In water at the last sample
+        double distance = 0;        // Walked since the last published step
+
+        Track(int phase, ServerPlayer player) {
+            this.phase = phase;
+            restart(player);
+        }
+
+        void restart(ServerPlayer player) {
+            dimension = player.level().dimension();
+            lastX = player.getX();
+            lastZ = player.getZ();
+            inWater = player.isInWater();
+        }
+    }
+
+    private static final Map<UUID, Track> tracks = new HashMap<>();
+    private static int nextPhase = 0;
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(MovementTracker::tick);
+    }
+
+    /**
+     * Start measuring from the player's current position (e.g. after ascension teleports them)
+     */
+    public static void reset(UUID playerId) {
+        tracks.remove(playerId);
+    }
+
+    public static void forget(ServerPlayer player) {
+        tracks.remove(player.getUUID());
+    }
+
+    public static int trackedPlayers() {
+        return tracks.size();
+    }
+
+    private static void tick(MinecraftServer server) {
+        int now = server.getTickCount();
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            if (!SessionManager.isReady(player)) continue;
+            Track track = tracks.get(player.getUUID());
+            if (track == null) {
+                tracks.put(player.getUUID(), new Track(nextPhase++ % SAMPLE_INTERVAL, player));
+                continue;
+            }
+            if ((now + track.phase) % SAMPLE_INTERVAL == 0) {
+                sample(player, track);
+            }
+        }
+    }
+
+    private static void sample(ServerPlayer player, Track track) {
+        double x = player.getX();
+        double z = player.getZ();
+        double dx = x - track.lastX;
+        double dz = z - track.lastZ;
+        double moved = Math.sqrt(dx * dx + dz * dz);
+
+        // hurtTime counts down for 10 ticks after a hit, about one sample: knockback stays out
+        boolean walking = !track.inWater
+            && !player.isInWater()
+            && player.hurtTime == 0
+            && player.level().dimension() == track.dimension
+            && moved <= MAX_SAMPLE_DISTANCE
+            && !player.isPassenger()
+            && !player.isFallFlying()
+            && !player.getAbilities().flying
+            && !player.isSpectator();
+
+        track.restart(player);
+        if (!walking) return;
+
+        track.distance += moved;
+        if (track.distance < AscendancyMod.WALK_DISTANCE_PER_XP) return;
+
+        int steps = (int) (track.distance / AscendancyMod.WALK_DISTANCE_PER_XP);
+        track.distance -= steps * AscendancyMod.WALK_DISTANCE_PER_XP;
+        publish(player, steps);
+    }
+
+    private static void publish(ServerPlayer player, int steps) {
+        int blocks = steps * (int) AscendancyMod.WALK_DISTANCE_PER_XP;
+        AscendancyMod.awardSoulXPStatic(player, steps * AscendancyMod.SOUL_XP_WALK, "§d👟");
+        AchievementManager.addProgress(player, AchievementManager.Achievement.EXPLORER_I, blocks);
+        AchievementManager.addProgress(player, AchievementManager.Achievement.EXPLORER_II, blocks);
+        SoulCravingManager.addProgress(player, SoulCravingManager.CravingType.TRAVEL_DISTANCE, blocks);
+    }
+}
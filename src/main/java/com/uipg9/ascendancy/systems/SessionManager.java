@@ -0,0 +1,349 @@
+package com.uipg9.ascendancy.systems;
+
+import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.AscendancyData;
+import com.uipg9.ascendancy.data.MappedProgressStore;
+import com.uipg9.ascendancy.data.PlayerDataManager;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Session Manager - one place that owns the per-player lifecycle.
+ *
+ * Subsystems register as participants. When a player connects, every participant's
+ * {@link Loader} reads its saved state in parallel on virtual threads; once all reads are
+ * done their results are installed on the server thread, in registration order, and the
+ * player's readiness future completes. Until then {@link #isReady} is false and gameplay
+ * hooks skip the player, so nothing is recorded into state that is about to be replaced.
+ * On disconnect each participant flushes and evicts, in registration order, and a failure
+ * in one never stops the others from evicting. What other players may still want to see (for
+ * leaderboards) is kept as a small {@link OfflineProfile} in a size-bounded cache whose
+ * entries expire after {@link #OFFLINE_TTL_MILLIS}.
+ */
+public class SessionManager {
+
+    private static final int MAX_OFFLINE_PROFILES = 256;
+    private static final long OFFLINE_TTL_MILLIS = 60 * 60 * 1000L; // 1 hour
+    private static final int PURGE_INTERVAL = 1200; // 1 minute
+
+    /**
+     * Reads a joining player's saved state. Runs off the server thread, so it may only
+     * touch files and its arguments; the returned step installs the result on the server
+     * thread.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Consumer<ServerPlayer> read(MinecraftServer server, UUID playerId) throws Exception;
+    }
+
+    /**
+     * A subsystem's slice of per-player state
+     *
+     * @param loader          reads saved state on join, or null if there is none
+     * @param onDiscard       evicts without saving, used instead of onLeave when the load
+     *                        failed (saving would overwrite the player's saved state), or null
+     * @param trackedPlayers  players the subsystem currently holds state for
+     * @param bytesPerPlayer  rough heap cost of one player's state, for {@link #metrics()}
+     */
+    public record Participant(
+        String name,
+        @Nullable Loader loader,
+        Consumer<ServerPlayer> onLeave,
+        @Nullable Consumer<ServerPlayer> onDiscard,
+        IntSupplier trackedPlayers,
+        long bytesPerPlayer
+    ) {}
+
+    /**
+     * What is remembered about a player after they leave
+     */
+    public record OfflineProfile(
+        UUID playerId,
+        String name,
+        int ascensionCount,
+        int totalPrestigeEarned,
+        int achievementsUnlocked,
+        long lastSeen
+    ) {}
+
+    /**
+     * Current size of one participant's state
+     */
+    public record Metrics(String name, int trackedPlayers, long estimatedBytes) {}
+
+    private static final List<Participant> participants = new ArrayList<>();
+
+    private static final ExecutorService LOADS = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Readiness per connected player; completes once every participant's state is installed
+    private static final Map<UUID, CompletableFuture<Void>> sessions = new HashMap<>();
+
+    // Participants whose load failed, per player; they are discarded on leave, not saved
+    private static final Map<UUID, Set<Participant>> failedLoads = new HashMap<>();
+
+    // Access-ordered, so the least recently looked-up profile is dropped first
+    private static final Map<UUID, OfflineProfile> offline = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, OfflineProfile> eldest) {
+            return size() > MAX_OFFLINE_PROFILES;
+        }
+    };
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (server.getTickCount() % PURGE_INTERVAL == 0) purgeExpired(System.currentTimeMillis());
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            for (Metrics metrics : metrics()) {
+                if (metrics.trackedPlayers() > 0) {
+                    AscendancyMod.LOGGER.warn("{} still holds state for {} players at shutdown",
+                        metrics.name(), metrics.trackedPlayers());
+                }
+            }
+            sessions.values().forEach(ready -> ready.cancel(false));
+            sessions.clear();
+            failedLoads.clear();
+            offline.clear();
+        });
+    }
+
+    public static void participant(String name, @Nullable Loader loader, Consumer<ServerPlayer> onLeave,
+                                   IntSupplier trackedPlayers, long bytesPerPlayer) {
+        participant(name, loader, onLeave, null, trackedPlayers, bytesPerPlayer);
+    }
+
+    public static void participant(String name, @Nullable Loader loader, Consumer<ServerPlayer> onLeave,
+                                   @Nullable Consumer<ServerPlayer> onDiscard, IntSupplier trackedPlayers,
+                                   long bytesPerPlayer) {
+        participants.add(new Participant(name, loader, onLeave, onDiscard, trackedPlayers, bytesPerPlayer));
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    /**
+     * Start reading the player's state (as the connection is set up). Returns the
+     * readiness future, which completes on the server thread.
+     */
+    public static CompletableFuture<Void> begin(ServerPlayer player, MinecraftServer server) {
+        UUID playerId = player.getUUID();
+        offline.remove(playerId);
+
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        CompletableFuture<Void> previous = sessions.put(playerId, ready);
+        if (previous != null) previous.cancel(false);
+
+        List<Participant> loaded = new ArrayList<>(participants.size());
+        List<CompletableFuture<Consumer<ServerPlayer>>> reads = new ArrayList<>(participants.size());
+        for (Participant participant : participants) {
+            if (participant.loader() == null) continue;
+            loaded.add(participant);
+            reads.add(CompletableFuture.supplyAsync(() -> read(participant, server, playerId), LOADS));
+        }
+
+        CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]))
+            .thenRunAsync(() -> install(player, ready, loaded, reads), server);
+        return ready;
+    }
+
+    /**
+     * The player's readiness future. Cancelled if they leave before it completes.
+     */
+    public static CompletableFuture<Void> whenReady(ServerPlayer player) {
+        CompletableFuture<Void> ready = sessions.get(player.getUUID());
+        return ready != null ? ready : CompletableFuture.failedFuture(
+            new IllegalStateException("No session for " + player.getName().getString()));
+    }
+
+    /**
+     * Whether the player's state is loaded. Gameplay hooks check this before recording
+     * progress or awards.
+     */
+    public static boolean isReady(ServerPlayer player) {
+        CompletableFuture<Void> ready = sessions.get(player.getUUID());
+        return ready != null && ready.isDone();
+    }
+
+    public static void leave(ServerPlayer player) {
+        CompletableFuture<Void> ready = sessions.remove(player.getUUID());
+        Set<Participant> failed = failedLoads.remove(player.getUUID());
+        if (ready == null || !ready.isDone()) {
+            // Nothing was installed; saving now would overwrite their files with empty state
+            if (ready != null) ready.cancel(false);
+            for (Participant participant : participants) {
+                if (participant.loader() == null) flush(participant, player);
+            }
+            AscendancyMod.LOGGER.info("{} left before their Ascendancy data finished loading",
+                player.getName().getString());
+            return;
+        }
+
+        // Taken first: participants evict what the profile reads
+        OfflineProfile profile = profileOf(player, System.currentTimeMillis());
+        for (Participant participant : participants) {
+            if (failed != null && failed.contains(participant)) {
+                discard(participant, player);
+            } else {
+                flush(participant, player);
+            }
+        }
+        offline.put(player.getUUID(), profile);
+    }
+
+    /**
+     * The participant's installer, or null if its load failed
+     */
+    @Nullable
+    private static Consumer<ServerPlayer> read(Participant participant, MinecraftServer server, UUID playerId) {
+        try {
+            return participant.loader().read(server, playerId);
+        } catch (Exception e) {
+            AscendancyMod.LOGGER.error("Session load failed in {} for {}", participant.name(), playerId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Server thread: install every participant's state, then mark the player ready
+     */
+    private static void install(ServerPlayer player, CompletableFuture<Void> ready, List<Participant> loaded,
+                                List<CompletableFuture<Consumer<ServerPlayer>>> reads) {
+        // Left (or reconnected) while loading
+        if (sessions.get(player.getUUID()) != ready) return;
+
+        Set<Participant> failed = new HashSet<>();
+        for (int i = 0; i < reads.size(); i++) {
+            Participant participant = loaded.get(i);
+            Consumer<ServerPlayer> installer = reads.get(i).join();
+            if (installer == null) {
+                failed.add(participant);
+                continue;
+            }
+            try {
+                installer.accept(player);
+            } catch (Exception e) {
+                AscendancyMod.LOGGER.error("Session join failed in {} for {}", participant.name(),
+                    player.getName().getString(), e);
+                failed.add(participant);
+            }
+        }
+        if (!failed.isEmpty()) {
+            failedLoads.put(player.getUUID(), failed);
+            AscendancyMod.LOGGER.warn("Not saving {} for {} this session: their saved state could not be loaded",
+                failed.stream().map(Participant::name).toList(), player.getName().getString());
+        }
+        ready.complete(null);
+    }
+
+    private static void discard(Participant participant, ServerPlayer player) {
+        if (participant.onDiscard() == null) return;
+        try {
+            participant.onDiscard().accept(player);
+        } catch (Exception e) {
+            AscendancyMod.LOGGER.error("Session discard failed in {} for {}", participant.name(),
+                player.getName().getString(), e);
+        }
+    }
+
+    private static void flush(Participant participant, ServerPlayer player) {
+        try {
+            participant.onLeave().accept(player);
+        } catch (Exception e) {
+            AscendancyMod.LOGGER.error("Session flush failed in {} for {}", participant.name(),
+                player.getName().getString(), e);
+        }
+    }
+
+    // ==================== OFFLINE LOOKUPS ====================
+
+    /**
+     * Profile of an online player, or of a recently seen offline one (/ascendancy profile)
+     */
+    @Nullable
+    public static OfflineProfile getProfile(MinecraftServer server, UUID playerId) {
+        ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+        if (player != null) return profileOf(player, System.currentTimeMillis());
+
+        OfflineProfile profile = offline.get(playerId);
+        if (profile != null && isExpired(profile, System.currentTimeMillis())) {
+            offline.remove(playerId);
+            profile = null;
+        }
+        return profile != null ? profile : storedProfile(playerId);
+    }
+
+    /**
+     * Every online player plus the cached offline ones (/ascendancy profiles)
+     */
+    public static List<OfflineProfile> profiles(MinecraftServer server) {
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+        List<OfflineProfile> result = new ArrayList<>(offline.values());
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            result.add(profileOf(player, now));
+        }
+        return result;
+    }
+
+    private static OfflineProfile profileOf(ServerPlayer player, long now) {
+        AscendancyData data = PlayerDataManager.getData(player);
+        return new OfflineProfile(player.getUUID(), player.getName().getString(), data.ascensionCount(),
+            data.totalPrestigeEarned(), AchievementManager.getUnlockedCount(player), now);
+    }
+
+    /**
+     * Any player who ever left, when the mapped progress store is in use
+     */
+    @Nullable
+    private static OfflineProfile storedProfile(UUID playerId) {
+        MappedProgressStore store = MappedProgressStore.get();
+        MappedProgressStore.ProgressRecord record = store != null ? store.read(playerId) : null;
+        if (record == null || !record.has(MappedProgressStore.HAS_DATA)) return null;
+        return new OfflineProfile(playerId, record.name, record.ascensionCount, record.totalPrestigeEarned,
+            Long.bitCount(record.unlockedAchievements), record.lastSeen);
+    }
+
+    private static boolean isExpired(OfflineProfile profile, long now) {
+        return now - profile.lastSeen() > OFFLINE_TTL_MILLIS;
+    }
+
+    private static void purgeExpired(long now) {
+        Iterator<OfflineProfile> it = offline.values().iterator();
+        while (it.hasNext()) {
+            if (isExpired(it.next(), now)) it.remove();
+        }
+    }
+
+    // ==================== METRICS ====================
+
+    /**
+     * Per-subsystem player counts and estimated heap use. Estimates are a per-player
+     * constant times the player count, good enough to spot a subsystem that leaks.
+     */
+    public static List<Metrics> metrics() {
+        List<Metrics> result = new ArrayList<>(participants.size() + 1);
+        for (Participant participant : participants) {
+            int tracked = participant.trackedPlayers().getAsInt();
+            result.add(new Metrics(participant.name(), tracked, tracked * participant.bytesPerPlayer()));
+        }
+        result.add(new Metrics("offline_profiles", offline.size(), offline.size() * 120L));
+        return result;
+    }
+}
@@ -1,190 +1,293 @@
 package com.uipg9.ascendancy.systems;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
 import com.uipg9.ascendancy.AscendancyMod;
+import com.uipg9.ascendancy.data.MappedProgressStore;
 import com.uipg9.ascendancy.data.PlayerDataManager;
-import com.uipg9.ascendancy.network.AscendancyNetworking;
+import com.uipg9.ascendancy.data.SaveFiles;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.ListTag;
 import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.packs.PackType;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.util.RandomSource;
+import net.minecraft.util.StringRepresentable;
 import net.minecraft.world.level.storage.LevelResource;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Reader;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Soul's Craving System - Random quest objectives for bonus prestige
  * v2.5 - Replayability Expansion
  * 
- * Each life, the player's soul "craves" something specific.
- * Completing the craving grants bonus prestige points on ascension.
+ * Each life, the player's soul "craves" a few specific things.
+ * Every satisfied craving grants bonus prestige points on ascension.
+ *
+ * Cravings are data-driven: built-ins cover every {@link CravingType}, and datapacks can
+ * override or add more under data/<namespace>/ascendancy/cravings/<name>.json.
+ * A player's active cravings are compiled into a bitmask of the objective types they
+ * listen for, so game events nobody craves are rejected with a single bit test.
  */
 public class SoulCravingManager {
     
     private static final String CRAVING_FILE = "ascendancy_cravings.dat";
+    public static final String DIRECTORY = "ascendancy/cravings";
     
-    // Track active cravings per player
-    private static final Map<UUID, Craving> playerCravings = new HashMap<>();
-    
-    // Track progress per player
-    private static final Map<UUID, Integer> cravingProgress = new HashMap<>();
+    // Cravings rolled per life (each with a different objective)
+    private static final int CRAVINGS_PER_LIFE = 3;
     
-    // Bonus prestige for completing craving
+    // Bonus prestige for completing a craving unless the definition says otherwise
     private static final int CRAVING_BONUS_PRESTIGE = 3;
     
+    // Track active cravings per player
+    private static final Map<UUID, ActiveCravings> playerCravings = new HashMap<>();
+    
     /**
-     * Types of cravings the soul can have
+     * Objective types a craving can track. Each type owns one bit of a player's event mask.
      */
-    public enum CravingType {
-        SLAY_MONSTERS("Bloodlust", "§c⚔ Slay %d monsters", "monsters slain"),
-        MINE_ORES("Earth Hunger", "§b⛏ Mine %d ores", "ores mined"),
-        HARVEST_CROPS("Nature's Call", "§a🌾 Harvest %d crops", "crops harvested"),
-        TRAVEL_DISTANCE("Wanderlust", "§d🚶 Travel %d blocks", "blocks traveled"),
-        KILL_UNDEAD("Purifier", "§e☀ Destroy %d undead", "undead destroyed"),
-        MINE_DIAMONDS("Diamond Fever", "§b💎 Mine %d diamonds", "diamonds found"),
-        EXPLORE_DEPTHS("Depths Caller", "§5⬇ Spend %d seconds below Y=0", "seconds in depths"),
-        FISH_CATCH("Ocean's Bounty", "§3🎣 Catch %d fish", "fish caught");
+    public enum CravingType implements StringRepresentable {
+        SLAY_MONSTERS("Bloodlust", "§c⚔ Slay %d monsters", "monsters slain", 50),
+        MINE_ORES("Earth Hunger", "§b⛏ Mine %d ores", "ores mined", 30),
+        HARVEST_CROPS("Nature's Call", "§a🌾 Harvest %d crops", "crops harvested", 40),
+        TRAVEL_DISTANCE("Wanderlust", "§d🚶 Travel %d blocks", "blocks traveled", 5000),
+        KILL_UNDEAD("Purifier", "§e☀ Destroy %d undead", "undead destroyed", 25),
+        MINE_DIAMONDS("Diamond Fever", "§b💎 Mine %d diamonds", "diamonds found", 5),
+        EXPLORE_DEPTHS("Depths Caller", "§5⬇ Spend %d seconds below Y=0", "seconds in depths", 300), // 5 minutes
+        FISH_CATCH("Ocean's Bounty", "§3🎣 Catch %d fish", "fish caught", 15);
+        
+        public static final Codec<CravingType> CODEC = StringRepresentable.fromEnum(CravingType::values);
         
         private final String name;
         private final String descriptionFormat;
         private final String progressLabel;
+        private final int baseTarget;
+        final long bit = 1L << ordinal(); // Up to 64 objective types
         
-        CravingType(String name, String descriptionFormat, String progressLabel) {
+        CravingType(String name, String descriptionFormat, String progressLabel, int baseTarget) {
             this.name = name;
             this.descriptionFormat = descriptionFormat;
             this.progressLabel = progressLabel;
+            this.baseTarget = baseTarget;
         }
         
         public String getName() { return name; }
         public String getDescription(int target) { return String.format(descriptionFormat, target); }
         public String getProgressLabel() { return progressLabel; }
+        
+        @Override
+        public String getSerializedName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
     }
     
     /**
-     * A specific craving instance
+     * A craving that can be rolled. Id comes from the file path (or the built-in table).
      */
-    public record Craving(
-        CravingType type,
-        int targetAmount,
-        boolean completed
+    public record CravingDefinition(
+        Identifier id,
+        String name,
+        CravingType objective,
+        int baseTarget,
+        int bonusPrestige,
+        int weight             // Relative chance of being rolled
     ) {
-        public String getDescription() {
-            return type.getDescription(targetAmount);
+        public static final Codec<CravingDefinition> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            CravingType.CODEC.fieldOf("objective").forGetter(CravingDefinition::objective),
+            Codec.STRING.optionalFieldOf("name", "").forGetter(CravingDefinition::name),
+            Codec.INT.optionalFieldOf("base_target", 0).forGetter(CravingDefinition::baseTarget),
+            Codec.INT.optionalFieldOf("bonus_prestige", CRAVING_BONUS_PRESTIGE).forGetter(CravingDefinition::bonusPrestige),
+            Codec.INT.optionalFieldOf("weight", 1).forGetter(CravingDefinition::weight)
+        ).apply(instance, (objective, name, baseTarget, bonus, weight) -> new CravingDefinition(null,
+            name.isEmpty() ? objective.getName() : name, objective,
+            baseTarget > 0 ? baseTarget : objective.baseTarget, bonus, Math.max(0, weight))));
+        
+        public String getDescription(int target) {
+            return objective.getDescription(target);
         }
         
-        public String getName() {
-            return type.getName();
+        CravingDefinition withId(Identifier id) {
+            return new CravingDefinition(id, name, objective, baseTarget, bonusPrestige, weight);
         }
     }
     
     /**
-     * Generate a new random craving for a player's new life
+     * One player's cravings for this life, compiled for the event path.
+     * Slots are parallel arrays; eventMask holds the objective bits of unfinished slots.
+     */
+    private static final class ActiveCravings {
+        final CravingDefinition[] definitions;
+        final int[] objectives;   // CravingType ordinal per slot
+        final int[] targets;
+        final int[] progress;
+        int completedMask = 0;
+        long eventMask = 0;
+        
+        ActiveCravings(CravingDefinition[] definitions, int[] targets) {
+            this.definitions = definitions;
+            this.targets = targets;
+            this.progress = new int[definitions.length];
+            this.objectives = new int[definitions.length];
+            for (int i = 0; i < definitions.length; i++) {
+                objectives[i] = definitions[i].objective().ordinal();
+            }
+        }
+        
+        /**
+         * Rebuild the event mask after slots complete or load
+         */
+        void compile() {
+            long mask = 0;
+            for (int i = 0; i < definitions.length; i++) {
+                if ((completedMask & (1 << i)) == 0) mask |= definitions[i].objective().bit;
+            }
+            eventMask = mask;
+        }
+        
+        boolean isCompleted(int slot) {
+            return (completedMask & (1 << slot)) != 0;
+        }
+    }
+    
+    private static final List<CravingDefinition> BUILTIN = builtins();
+    private static volatile List<CravingDefinition> definitions = BUILTIN;
+    private static volatile Map<Identifier, CravingDefinition> byId = index(BUILTIN);
+    
+    /**
+     * Roll this life's cravings for a player
      */
     public static void generateNewCraving(ServerPlayer player) {
-        Random random = new Random();
-        CravingType[] types = CravingType.values();
-        CravingType type = types[random.nextInt(types.length)];
+        RandomSource random = player.getRandom();
+        List<CravingDefinition> pool = definitions;
         
-        // Scale target based on ascension count (harder each time)
+        // Weighted picks without repeating an objective
+        List<CravingDefinition> picked = new ArrayList<>(CRAVINGS_PER_LIFE);
+        long usedObjectives = 0;
+        for (int n = 0; n < CRAVINGS_PER_LIFE; n++) {
+            int totalWeight = 0;
+            for (CravingDefinition def : pool) {
+                if ((usedObjectives & def.objective().bit) == 0) totalWeight += def.weight();
+            }
+            if (totalWeight <= 0) break;
+            
+            int roll = random.nextInt(totalWeight);
+            for (CravingDefinition def : pool) {
+                if ((usedObjectives & def.objective().bit) != 0) continue;
+                roll -= def.weight();
+                if (roll < 0) {
+                    picked.add(def);
+                    usedObjectives |= def.objective().bit;
+                    break;
+                }
+            }
+        }
+        
+        // Scale targets based on ascension count (harder each time)
         int ascensionCount = PlayerDataManager.getAscensionCount(player);
-        int baseTarget = getBaseTarget(type);
-        int scaledTarget = baseTarget + (ascensionCount * baseTarget / 4);
+        int[] targets = new int[picked.size()];
+        for (int i = 0; i < targets.length; i++) {
+            int baseTarget = picked.get(i).baseTarget();
+            targets[i] = baseTarget + (ascensionCount * baseTarget / 4);
+        }
         
-        Craving craving = new Craving(type, scaledTarget, false);
-        playerCravings.put(player.getUUID(), craving);
-        cravingProgress.put(player.getUUID(), 0);
+        ActiveCravings cravings = new ActiveCravings(picked.toArray(new CravingDefinition[0]), targets);
+        cravings.compile();
+        playerCravings.put(player.getUUID(), cravings);
         
         // Notify player
         player.sendSystemMessage(Component.literal(""));
         player.sendSystemMessage(Component.literal("§d§l✦ Your Soul Craves... ✦"));
-        player.sendSystemMessage(Component.literal("§5" + craving.getName() + ": " + craving.getDescription()));
-        player.sendSystemMessage(Component.literal("§7Complete this for §e+" + CRAVING_BONUS_PRESTIGE + " bonus Prestige§7 on Ascension!"));
+        for (int i = 0; i < targets.length; i++) {
+            CravingDefinition def = cravings.definitions[i];
+            player.sendSystemMessage(Component.literal("§5" + def.name() + ": " + def.getDescription(targets[i])
+                + " §7(§e+" + def.bonusPrestige() + "§7)"));
+        }
+        player.sendSystemMessage(Component.literal("§7Complete these for §ebonus Prestige§7 on Ascension!"));
         
-        AscendancyMod.LOGGER.info("Generated craving for {}: {} (target: {})", 
-            player.getName().getString(), type.name(), scaledTarget);
-    }
-    
-    private static int getBaseTarget(CravingType type) {
-        return switch (type) {
-            case SLAY_MONSTERS -> 50;
-            case MINE_ORES -> 30;
-            case HARVEST_CROPS -> 40;
-            case TRAVEL_DISTANCE -> 5000;
-            case KILL_UNDEAD -> 25;
-            case MINE_DIAMONDS -> 5;
-            case EXPLORE_DEPTHS -> 300; // 5 minutes
-            case FISH_CATCH -> 15;
-        };
+        AscendancyMod.LOGGER.info("Generated {} cravings for {}", targets.length, player.getName().getString());
     }
     
     /**
-     * Get a player's current craving
+     * Current progress toward a craving slot (includes the current trip below Y=0)
      */
-    public static Craving getCraving(ServerPlayer player) {
-        return playerCravings.get(player.getUUID());
-    }
-    
-    /**
-     * Get current progress toward craving
-     */
-    public static int getProgress(ServerPlayer player) {
-        return cravingProgress.getOrDefault(player.getUUID(), 0);
-    }
-    
-    /**
-     * Check if craving is completed
-     */
-    public static boolean isCravingCompleted(ServerPlayer player) {
-        Craving craving = getCraving(player);
-        if (craving == null) return false;
-        return craving.completed() || getProgress(player) >= craving.targetAmount();
+    private static int progressOf(ServerPlayer player, ActiveCravings cravings, int slot) {
+        int progress = cravings.progress[slot];
+        if (cravings.objectives[slot] == CravingType.EXPLORE_DEPTHS.ordinal() && !cravings.isCompleted(slot)) {
+            long now = player.level().getServer().getTickCount();
+            progress += (int) (ZoneTracker.timeInZone(player, ZoneTracker.Zone.DEPTHS, now) / 20);
+        }
+        return progress;
     }
     
     /**
-     * Add progress to the craving
+     * Add progress to every active craving tracking this objective
      */
     public static void addProgress(ServerPlayer player, CravingType type, int amount) {
-        Craving craving = getCraving(player);
-        if (craving == null || craving.type() != type || craving.completed()) return;
-        
-        int current = cravingProgress.getOrDefault(player.getUUID(), 0);
-        int newProgress = current + amount;
-        cravingProgress.put(player.getUUID(), newProgress);
+        ActiveCravings cravings = playerCravings.get(player.getUUID());
+        if (cravings == null || (cravings.eventMask & type.bit) == 0) return;
         
-        // Check for completion
-        if (newProgress >= craving.targetAmount() && current < craving.targetAmount()) {
-            // Just completed!
-            playerCravings.put(player.getUUID(), new Craving(craving.type(), craving.targetAmount(), true));
+        int objective = type.ordinal();
+        for (int i = 0; i < cravings.objectives.length; i++) {
+            if (cravings.objectives[i] != objective || cravings.isCompleted(i)) continue;
             
-            player.sendSystemMessage(Component.literal(""));
-            player.sendSystemMessage(Component.literal("§d§l✦ Soul's Craving Satisfied! ✦"));
-            player.sendSystemMessage(Component.literal("§a" + craving.getName() + " complete!"));
-            player.sendSystemMessage(Component.literal("§e+" + CRAVING_BONUS_PRESTIGE + " bonus Prestige §7will be awarded on Ascension!"));
-            
-            AscendancyMod.LOGGER.info("Player {} completed craving: {}", 
-                player.getName().getString(), type.name());
+            int newProgress = cravings.progress[i] + amount;
+            cravings.progress[i] = newProgress;
+            if (newProgress >= cravings.targets[i]) {
+                complete(player, cravings, i);
+            }
         }
     }
     
+    private static void complete(ServerPlayer player, ActiveCravings cravings, int slot) {
+        cravings.completedMask |= 1 << slot;
+        cravings.compile();
+        
+        CravingDefinition def = cravings.definitions[slot];
+        player.sendSystemMessage(Component.literal(""));
+        player.sendSystemMessage(Component.literal("§d§l✦ Soul's Craving Satisfied! ✦"));
+        player.sendSystemMessage(Component.literal("§a" + def.name() + " complete!"));
+        player.sendSystemMessage(Component.literal("§e+" + def.bonusPrestige() + " bonus Prestige §7will be awarded on Ascension!"));
+        
+        AscendancyMod.LOGGER.info("Player {} completed craving: {}", 
+            player.getName().getString(), def.id());
+    }
+    
     /**
-     * Get bonus prestige for completed craving (called during ascension)
+     * Get bonus prestige for completed cravings (called during ascension)
      */
     public static int getBonusPrestige(ServerPlayer player) {
-        if (isCravingCompleted(player)) {
-            return CRAVING_BONUS_PRESTIGE;
+        ActiveCravings cravings = playerCravings.get(player.getUUID());
+        if (cravings == null) return 0;
+        
+        int bonus = 0;
+        for (int i = 0; i < cravings.definitions.length; i++) {
+            // Unfinished depth cravings may be satisfied by the current trip
+            if (cravings.isCompleted(i) || progressOf(player, cravings, i) >= cravings.targets[i]) {
+                bonus += cravings.definitions[i].bonusPrestige();
+            }
         }
-        return 0;
+        return bonus;
     }
     
     /**
-     * Clear craving on ascension
+     * Clear cravings on ascension
      */
     public static void clearCraving(ServerPlayer player) {
         playerCravings.remove(player.getUUID());
-        cravingProgress.remove(player.getUUID());
     }
     
     // ==================== PROGRESS TRACKING HOOKS ====================
@@ -226,15 +329,20 @@ public class SoulCravingManager {
     }
     
     /**
-     * Called periodically while player is below Y=0
+     * Loads craving definitions from datapacks. Depths time is credited when the
+     * player climbs back above Y=0 (or logs out).
      */
-    public static void onDepthsTick(ServerPlayer player) {
-        if (player.getY() < 0) {
-            // Add 1 second every 20 ticks
-            if (player.tickCount % 20 == 0) {
-                addProgress(player, CravingType.EXPLORE_DEPTHS, 1);
+    public static void register() {
+        ResourceManagerHelper.get(PackType.SERVER_DATA).registerReloadListener(new Loader());
+        
+        ZoneTracker.listen(new ZoneTracker.Listener() {
+            @Override
+            public void onExit(ServerPlayer player, ZoneTracker.Zone zone, long enteredAt, long now) {
+                if (zone == ZoneTracker.Zone.DEPTHS) {
+                    addProgress(player, CravingType.EXPLORE_DEPTHS, (int) ((now - enteredAt) / 20));
+                }
             }
-        }
+        });
     }
     
     /**
@@ -245,96 +353,271 @@ public class SoulCravingManager {
     }
     
     /**
-     * Get progress display string for UI
+     * Progress display for /ascendancy cravings, one line per craving
      */
     public static String getProgressDisplay(ServerPlayer player) {
-        Craving craving = getCraving(player);
-        if (craving == null) return "§7No craving active";
+        ActiveCravings cravings = playerCravings.get(player.getUUID());
+        if (cravings == null || cravings.definitions.length == 0) return "§7No craving active";
         
-        int progress = getProgress(player);
-        int target = craving.targetAmount();
+        StringBuilder display = new StringBuilder();
+        for (int i = 0; i < cravings.definitions.length; i++) {
+            if (i > 0) display.append('\n');
+            CravingDefinition def = cravings.definitions[i];
+            if (cravings.isCompleted(i)) {
+                display.append("§a✓ ").append(def.name()).append(" §7(Complete!)");
+                continue;
+            }
+            int progress = progressOf(player, cravings, i);
+            int target = cravings.targets[i];
+            float percent = (float) progress / target * 100;
+            display.append(String.format("§d%s: §f%d/%d §7(%.0f%%)", def.name(), progress, target, percent));
+        }
+        return display.toString();
+    }
+    
+    // ==================== DEFINITIONS ====================
+    
+    private static List<CravingDefinition> builtins() {
+        List<CravingDefinition> list = new ArrayList<>();
+        for (CravingType type : CravingType.values()) {
+            list.add(new CravingDefinition(builtinId(type), type.getName(), type, type.baseTarget,
+                CRAVING_BONUS_PRESTIGE, 1));
+        }
+        return List.copyOf(list);
+    }
+    
+    private static Identifier builtinId(CravingType type) {
+        return Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, type.getSerializedName());
+    }
+    
+    private static Map<Identifier, CravingDefinition> index(List<CravingDefinition> list) {
+        Map<Identifier, CravingDefinition> map = new HashMap<>();
+        for (CravingDefinition def : list) {
+            map.put(def.id(), def);
+        }
+        return Map.copyOf(map);
+    }
+    
+    private static void apply(Map<Identifier, CravingDefinition> loaded) {
+        Map<Identifier, CravingDefinition> result = new LinkedHashMap<>();
+        for (CravingDefinition builtin : BUILTIN) {
+            result.put(builtin.id(), builtin);
+        }
+        // Datapacks override built-ins by id; a weight of 0 disables one
+        new TreeMap<>(loaded).forEach(result::put);
         
-        if (craving.completed()) {
-            return "§a✓ " + craving.getName() + " §7(Complete!)";
+        definitions = List.copyOf(result.values());
+        byId = index(definitions);
+        AscendancyMod.LOGGER.info("Loaded {} cravings ({} from datapacks)", definitions.size(), loaded.size());
+    }
+    
+    private static class Loader implements SimpleSynchronousResourceReloadListener {
+        @Override
+        public Identifier getFabricId() {
+            return Identifier.fromNamespaceAndPath(AscendancyMod.MOD_ID, "cravings");
         }
         
-        float percent = (float) progress / target * 100;
-        return String.format("§d%s: §f%d/%d §7(%.0f%%)", 
-            craving.getName(), progress, target, percent);
+        @Override
+        public void onResourceManagerReload(ResourceManager manager) {
+            Map<Identifier, CravingDefinition> loaded = new HashMap<>();
+            Map<Identifier, Resource> resources = manager.listResources(DIRECTORY, path -> path.getPath().endsWith(".json"));
+            
+            for (Map.Entry<Identifier, Resource> entry : resources.entrySet()) {
+                Identifier file = entry.getKey();
+                String name = file.getPath().substring(DIRECTORY.length() + 1, file.getPath().length() - ".json".length());
+                Identifier id = Identifier.fromNamespaceAndPath(file.getNamespace(), name);
+                
+                try (Reader reader = entry.getValue().openAsReader()) {
+                    JsonElement json = JsonParser.parseReader(reader);
+                    CravingDefinition.CODEC.parse(JsonOps.INSTANCE, json)
+                        .resultOrPartial(error -> AscendancyMod.LOGGER.error("Invalid craving {}: {}", id, error))
+                        .ifPresent(def -> loaded.put(id, def.withId(id)));
+                } catch (Exception e) {
+                    AscendancyMod.LOGGER.error("Failed to read craving {}", file, e);
+                }
+            }
+            
+            apply(loaded);
+        }
     }
     
     // ==================== PERSISTENCE ====================
     
     /**
-     * Load craving data for a player
+     * Read a joining player's cravings (off the server thread). The returned step
+     * resolves and installs them once the player's session is ready.
      */
-    public static void loadData(ServerPlayer player) {
-        ServerLevel level = (ServerLevel) player.level();
-        UUID playerId = player.getUUID();
-        
-        try {
-            Path path = getCravingDataPath(level);
-            if (Files.exists(path)) {
-                CompoundTag root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-                CompoundTag playerData = root.getCompoundOrEmpty(playerId.toString());
-                
-                if (playerData.contains("cravingType")) {
-                    String typeName = playerData.getStringOr("cravingType", "SLAY_MONSTERS");
-                    int targetAmount = playerData.getIntOr("targetAmount", 50);
-                    boolean completed = playerData.getBooleanOr("completed", false);
-                    int progress = playerData.getIntOr("progress", 0);
-                    
-                    try {
-                        CravingType type = CravingType.valueOf(typeName);
-                        playerCravings.put(playerId, new Craving(type, targetAmount, completed));
-                        cravingProgress.put(playerId, progress);
-                        AscendancyMod.LOGGER.info("Loaded craving for {}: {} ({}/{})", 
-                            player.getName().getString(), typeName, progress, targetAmount);
-                    } catch (IllegalArgumentException e) {
-                        // Invalid craving type, ignore
-                    }
-                }
-            }
-        } catch (IOException e) {
-            AscendancyMod.LOGGER.error("Failed to load craving data", e);
+    public static Consumer<ServerPlayer> readData(MinecraftServer server, UUID playerId) throws IOException {
+        MappedProgressStore store = MappedProgressStore.get();
+        MappedProgressStore.ProgressRecord record = store != null ? store.read(playerId) : null;
+        CompoundTag playerData = record != null && record.has(MappedProgressStore.HAS_CRAVINGS)
+            ? toTag(record)
+            : SaveFiles.readPlayer(getCravingDataPath(server), playerId);
+        return player -> loadData(player, playerData);
+    }
+    
+    /**
+     * Store record in the NBT file's layout, so both resolve through {@link #readCravings}
+     */
+    private static CompoundTag toTag(MappedProgressStore.ProgressRecord record) {
+        ListTag list = new ListTag();
+        for (int i = 0; i < record.cravingIds.length; i++) {
+            CompoundTag slot = new CompoundTag();
+            slot.putString("id", record.cravingIds[i]);
+            slot.putInt("targetAmount", record.cravingTargets[i]);
+            slot.putBoolean("completed", (record.cravingCompleted & (1 << i)) != 0);
+            slot.putInt("progress", record.cravingProgress[i]);
+            list.add(slot);
+        }
+        CompoundTag playerData = new CompoundTag();
+        if (!list.isEmpty()) playerData.put("cravings", list);
+        return playerData;
+    }
+    
+    private static void loadData(ServerPlayer player, CompoundTag playerData) {
+        // Definitions are resolved here, on the server thread, against the current datapacks
+        ActiveCravings cravings = playerData.contains("cravings")
+            ? readCravings(playerData.getListOrEmpty("cravings"))
+            : readLegacyCraving(playerData);
+        if (cravings != null) {
+            playerCravings.put(player.getUUID(), cravings);
+            AscendancyMod.LOGGER.info("Loaded {} cravings for {}", 
+                cravings.definitions.length, player.getName().getString());
         }
     }
     
     /**
-     * Save craving data for a player
+     * Save craving data for a player, to the progress store or to file
      */
     public static void saveData(ServerPlayer player) {
         ServerLevel level = (ServerLevel) player.level();
         UUID playerId = player.getUUID();
         
-        try {
-            Path path = getCravingDataPath(level);
-            CompoundTag root;
-            
-            if (Files.exists(path)) {
-                root = NbtIo.readCompressed(path, net.minecraft.nbt.NbtAccounter.unlimitedHeap());
-            } else {
-                root = new CompoundTag();
+        MappedProgressStore store = MappedProgressStore.get();
+        ActiveCravings active = playerCravings.get(playerId);
+        String[] ids = new String[active != null ? active.definitions.length : 0];
+        for (int i = 0; i < ids.length; i++) ids[i] = active.definitions[i].id().toString();
+        
+        if (store != null && MappedProgressStore.fitsCravings(ids) && store.update(playerId, record -> {
+            record.cravingIds = ids;
+            record.cravingTargets = new int[ids.length];
+            record.cravingProgress = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                record.cravingTargets[i] = active.targets[i];
+                record.cravingProgress[i] = active.progress[i];
             }
+            record.cravingCompleted = active != null ? active.completedMask : 0;
+            record.flags |= MappedProgressStore.HAS_CRAVINGS;
+        })) {
+            return;
+        }
+        
+        // Ids too long for the store go to NBT; stop the store answering with stale cravings
+        if (store != null) {
+            store.update(playerId, record -> {
+                record.cravingIds = new String[0];
+                record.cravingTargets = new int[0];
+                record.cravingProgress = new int[0];
+                record.cravingCompleted = 0;
+                record.flags &= ~MappedProgressStore.HAS_CRAVINGS;
+            });
+        }
+        
+        try {
+            Path path = getCravingDataPath(level.getServer());
+            CompoundTag root = SaveFiles.readRoot(path);
             
             CompoundTag playerData = new CompoundTag();
-            Craving craving = playerCravings.get(playerId);
+            ActiveCravings cravings = playerCravings.get(playerId);
             
-            if (craving != null) {
-                playerData.putString("cravingType", craving.type().name());
-                playerData.putInt("targetAmount", craving.targetAmount());
-                playerData.putBoolean("completed", craving.completed());
-                playerData.putInt("progress", cravingProgress.getOrDefault(playerId, 0));
+            if (cravings != null) {
+                ListTag list = new ListTag();
+                for (int i = 0; i < cravings.definitions.length; i++) {
+                    CompoundTag slot = new CompoundTag();
+                    slot.putString("id", cravings.definitions[i].id().toString());
+                    slot.putInt("targetAmount", cravings.targets[i]);
+                    slot.putBoolean("completed", cravings.isCompleted(i));
+                    slot.putInt("progress", cravings.progress[i]);
+                    list.add(slot);
+                }
+                playerData.put("cravings", list);
             }
             
             root.put(playerId.toString(), playerData);
-            NbtIo.writeCompressed(root, path);
+            SaveFiles.writeAtomic(root, path);
         } catch (IOException e) {
             AscendancyMod.LOGGER.error("Failed to save craving data", e);
         }
     }
     
-    private static Path getCravingDataPath(ServerLevel level) {
-        return level.getServer().getWorldPath(LevelResource.ROOT).resolve(CRAVING_FILE);
+    /**
+     * Save and drop a leaving player's cravings
+     */
+    public static void unload(ServerPlayer player) {
+        saveData(player);
+        discard(player);
+    }
+    
+    /**
+     * Drop a leaving player's cravings without saving (their load failed)
+     */
+    public static void discard(ServerPlayer player) {
+        playerCravings.remove(player.getUUID());
+    }
+    
+    public static int trackedPlayers() {
+        return playerCravings.size();
+    }
+    
+    private static ActiveCravings readCravings(ListTag list) {
+        List<CravingDefinition> defs = new ArrayList<>();
+        List<CompoundTag> slots = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag slot = list.getCompoundOrEmpty(i);
+            Identifier id = Identifier.tryParse(slot.getStringOr("id", ""));
+            CravingDefinition def = id != null ? byId.get(id) : null;
+            if (def == null) {
+                AscendancyMod.LOGGER.warn("Dropping unknown craving {}", slot.getStringOr("id", ""));
+                continue;
+            }
+            defs.add(def);
+            slots.add(slot);
+        }
+        
+        int[] targets = new int[defs.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = slots.get(i).getIntOr("targetAmount", defs.get(i).baseTarget());
+        }
+        ActiveCravings cravings = new ActiveCravings(defs.toArray(new CravingDefinition[0]), targets);
+        for (int i = 0; i < targets.length; i++) {
+            cravings.progress[i] = slots.get(i).getIntOr("progress", 0);
+            if (slots.get(i).getBooleanOr("completed", false)) cravings.completedMask |= 1 << i;
+        }
+        cravings.compile();
+        return cravings;
+    }
+    
+    /**
+     * Single-craving layout written before multiple cravings per life
+     */
+    private static ActiveCravings readLegacyCraving(CompoundTag playerData) {
+        if (!playerData.contains("cravingType")) return null;
+        try {
+            CravingType type = CravingType.valueOf(playerData.getStringOr("cravingType", "SLAY_MONSTERS"));
+            CravingDefinition def = byId.getOrDefault(builtinId(type), BUILTIN.get(type.ordinal()));
+            ActiveCravings cravings = new ActiveCravings(new CravingDefinition[] { def },
+                new int[] { playerData.getIntOr("targetAmount", def.baseTarget()) });
+            cravings.progress[0] = playerData.getIntOr("progress", 0);
+            if (playerData.getBooleanOr("completed", false)) cravings.completedMask = 1;
+            cravings.compile();
+            return cravings;
+        } catch (IllegalArgumentException e) {
+            // Invalid craving type, ignore
+            return null;
+        }
+    }
+    
+    private static Path getCravingDataPath(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(CRAVING_FILE);
     }
 }
@@ -0,0 +1,124 @@
+package com.uipg9.ascendancy.systems;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Zone Tracker - one place that watches where players are.
+ *
+ * Samples each player's (dimension, Y band, underwater) state once per tick,
+ * and publishes enter/exit events stamped with the server tick. Systems that care
+ * about time spent in a zone subtract the timestamps instead of counting ticks.
+ */
+public class ZoneTracker {
+
+    /**
+     * Zones a player can be inside. Several can hold at once.
+     */
+    public enum Zone {
+        DEPTHS,      // Below Y=0 (deepslate layer)
+        UNDERWATER,  // Eyes in water
+        NETHER,
+        END;
+
+        final int bit = 1 << ordinal();
+    }
+
+    /**
+     * Receives zone transitions. Times are server ticks.
+     */
+    public interface Listener {
+        default void onEnter(ServerPlayer player, Zone zone, long now) {}
+        default void onExit(ServerPlayer player, Zone zone, long enteredAt, long now) {}
+    }
+
+    private static final Zone[] ZONES = Zone.values();
+    private static final List<Listener> listeners = new ArrayList<>();
+
+    private static final class PlayerZones {
+        int mask = 0;
+        final long[] enteredAt = new long[ZONES.length];
+    }
+
+    private static final Map<UUID, PlayerZones> tracked = new HashMap<>();
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(ZoneTracker::tick);
+    }
+
+    public static void listen(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Ticks the player has spent in a zone so far, or 0 if not inside
+     */
+    public static long timeInZone(ServerPlayer player, Zone zone, long now) {
+        PlayerZones zones = tracked.get(player.getUUID());
+        if (zones == null || (zones.mask & zone.bit) == 0) return 0;
+        return now - zones.enteredAt[zone.ordinal()];
+    }
+
+    public static int trackedPlayers() {
+        return tracked.size();
+    }
+
+    public static boolean isIn(ServerPlayer player, Zone zone) {
+        PlayerZones zones = tracked.get(player.getUUID());
+        return zones != null && (zones.mask & zone.bit) != 0;
+    }
+
+    private static void tick(MinecraftServer server) {
+        long now = server.getTickCount();
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            // Zone listeners record progress, so start sampling once the player is loaded
+            if (!SessionManager.isReady(player)) continue;
+            PlayerZones zones = tracked.computeIfAbsent(player.getUUID(), k -> new PlayerZones());
+            update(player, zones, sample(player), now);
+        }
+    }
+
+    private static int sample(ServerPlayer player) {
+        int mask = 0;
+        if (player.getY() < 0) mask |= Zone.DEPTHS.bit;
+        if (player.isUnderWater()) mask |= Zone.UNDERWATER.bit;
+        if (player.level().dimension() == Level.NETHER) mask |= Zone.NETHER.bit;
+        else if (player.level().dimension() == Level.END) mask |= Zone.END.bit;
+        return mask;
+    }
+
+    private static void update(ServerPlayer player, PlayerZones zones, int mask, long now) {
+        int changed = zones.mask ^ mask;
+        if (changed == 0) return;
+        zones.mask = mask; // Listeners already see the new state
+
+        for (Zone zone : ZONES) {
+            if ((changed & zone.bit) == 0) continue;
+            if ((mask & zone.bit) != 0) {
+                zones.enteredAt[zone.ordinal()] = now;
+                for (Listener listener : listeners) listener.onEnter(player, zone, now);
+            } else {
+                long enteredAt = zones.enteredAt[zone.ordinal()];
+                for (Listener listener : listeners) listener.onExit(player, zone, enteredAt, now);
+            }
+        }
+    }
+
+    /**
+     * Close every open zone so time spent is credited before the player's data is saved
+     */
+    public static void onDisconnect(ServerPlayer player, MinecraftServer server) {
+        PlayerZones zones = tracked.remove(player.getUUID());
+        if (zones != null) {
+            update(player, zones, 0, server.getTickCount());
+        }
+    }
+}